@@ -0,0 +1,59 @@
+package com.lucero.backend.benchmarks;
+
+import com.lucero.backend.security.BCryptAcotado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt de login/registro. La fuerza por defecto es la de
+ * seguridad.bcrypt.fuerza en application.properties; para evaluar otra:
+ * -Djmh.args="BCryptBenchmark -p fuerza=10,12".
+ * matchesAcotado suma el pasaje al pool de BCryptAcotado (ver ApplicationConfig).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+
+    private static final String PASSWORD = "clave-de-prueba-123";
+
+    @Param({ "10" })
+    public int fuerza;
+
+    private BCryptPasswordEncoder bcrypt;
+    private BCryptAcotado acotado;
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        bcrypt = new BCryptPasswordEncoder(fuerza);
+        acotado = new BCryptAcotado(fuerza, 1, 8, new SimpleMeterRegistry());
+        hash = bcrypt.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void cerrar() {
+        acotado.destroy();
+    }
+
+    @Benchmark
+    public String encode() {
+        return bcrypt.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return bcrypt.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean matchesAcotado() {
+        return acotado.matches(PASSWORD, hash);
+    }
+}
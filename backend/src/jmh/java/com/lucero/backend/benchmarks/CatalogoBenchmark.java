@@ -0,0 +1,99 @@
+package com.lucero.backend.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucero.backend.dto.ProgramadorPublicoDTO;
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import com.lucero.backend.services.CatalogoProgramadoresService;
+import com.lucero.backend.services.CatalogoSnapshotService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catálogo público: entidad -> DTO (ProgramadorPublicoDTO.desde, el antiguo
+ * convertirADTO del controller), serializar la lista completa con Jackson
+ * y lo que cuesta un GET al catálogo justo después de editar un programador
+ * (el snapshot re-serializa uno y concatena el resto ya en bytes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogoBenchmark {
+
+    @Param({ "100", "1000" })
+    public int programadores;
+
+    private List<Programador> entidades;
+    private List<ProgramadorPublicoDTO> dtos;
+    private ObjectMapper objectMapper;
+    private CatalogoSnapshotService snapshot;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        entidades = new ArrayList<>();
+        for (int i = 0; i < programadores; i++) {
+            Usuario u = new Usuario();
+            u.setId(UUID.randomUUID());
+            u.setNombre("Programador " + i);
+            u.setEmail("p" + i + "@test.com");
+            u.setFotoUrl("https://cdn.test/fotos/" + i + ".jpg");
+
+            Programador p = new Programador();
+            p.setId(UUID.randomUUID());
+            p.setUsuario(u);
+            p.setEspecialidad(i % 2 == 0 ? "Backend" : "Frontend");
+            p.setDescripcion("Desarrollo de APIs, bases de datos y despliegues. Perfil número " + i);
+            p.setEmailContacto("contacto" + i + "@test.com");
+            p.setWhatsapp("+59399" + String.format("%07d", i));
+            p.setGithub("https://github.com/p" + i);
+            p.setLinkedin("https://linkedin.com/in/p" + i);
+            p.setPortafolio("https://p" + i + ".dev");
+            p.setDisponibilidadTexto("Lunes a viernes");
+            p.setHorasDisponibles(new ArrayList<>(List.of("09:00", "10:00", "11:00", "15:00", "16:00", "17:00")));
+            entidades.add(p);
+        }
+        dtos = entidades.stream().map(ProgramadorPublicoDTO::desde).toList();
+
+        // Mismo builder sobre el que Spring Boot arma su ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        // Snapshot cargado desde la lista en memoria en lugar de la base
+        CatalogoProgramadoresService catalogo = new CatalogoProgramadoresService(null) {
+            @Override
+            public List<ProgramadorPublicoDTO> listar(UUID after, Integer limit) {
+                return dtos;
+            }
+        };
+        snapshot = new CatalogoSnapshotService(catalogo, objectMapper);
+        snapshot.listar();
+    }
+
+    @Benchmark
+    public void convertirADTO(Blackhole bh) {
+        for (Programador p : entidades) {
+            bh.consume(ProgramadorPublicoDTO.desde(p));
+        }
+    }
+
+    // Lo que hacía cada GET antes del snapshot
+    @Benchmark
+    public byte[] serializarCatalogo() throws Exception {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] snapshotTrasEdicion() {
+        snapshot.actualizar(dtos.get(siguiente++ % programadores));
+        return snapshot.listar().json();
+    }
+}
@@ -0,0 +1,60 @@
+package com.lucero.backend.benchmarks;
+
+import com.lucero.backend.security.JwtService;
+import com.lucero.backend.security.UsuarioActual;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtService por separado: emitir el token (login/registro) y leerlo.
+ * extractAllClaims es privado; validar() es el mismo parseo único que usa
+ * el filtro, y extractUsername pasa por extractAllClaims.
+ * El filtro completo está en JwtFilterBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private UserDetails usuario;
+    private Map<String, Object> claims;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtService = new JwtService();
+        usuario = new User("ana@test.com", "hash", Collections.emptyList());
+        // Los mismos claims que arma AuthController al hacer login
+        claims = Map.of(
+                "rol", "programador",
+                "nombre", "Ana",
+                UsuarioActual.CLAIM_USUARIO, UUID.randomUUID().toString(),
+                UsuarioActual.CLAIM_PROGRAMADOR, UUID.randomUUID().toString());
+        token = jwtService.generateToken(claims, usuario);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(claims, usuario);
+    }
+
+    @Benchmark
+    public Object validar() {
+        return jwtService.validar(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+}
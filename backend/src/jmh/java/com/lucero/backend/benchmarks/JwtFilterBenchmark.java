@@ -0,0 +1,103 @@
+package com.lucero.backend.benchmarks;
+
+import com.lucero.backend.security.JwtAuthenticationFilter;
+import com.lucero.backend.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import java.security.Key;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo del filtro JWT por petición autenticada:
+ * camino original (tres parseos, parser y clave reconstruidos en cada uno,
+ * UserDetailsService por petición) vs. JwtAuthenticationFilter actual.
+ * La búsqueda del usuario se simula en memoria: en producción además es
+ * una consulta a la base, que aquí no se mide.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final FilterChain CADENA = (req, res) -> { };
+
+    private JwtAuthenticationFilter filtro;
+    private UserDetailsService userDetailsService;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        JwtService jwtService = new JwtService();
+        filtro = new JwtAuthenticationFilter(jwtService);
+        userDetailsService = email -> new User(email, "hash", Collections.emptyList());
+        token = jwtService.generateToken(Map.of("rol", "programador", "nombre", "Ana"),
+                new User("ana@test.com", "hash", Collections.emptyList()));
+    }
+
+    @Benchmark
+    public Object filtroOriginal() {
+        MockHttpServletRequest request = peticion();
+        String jwt = request.getHeader("Authorization").substring(7);
+        String email = legacyClaims(jwt).getSubject();
+        Object resultado = null;
+        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            boolean valido = legacyClaims(jwt).getSubject().equals(userDetails.getUsername())
+                    && !legacyClaims(jwt).getExpiration().before(new Date());
+            if (valido) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                resultado = authToken;
+            }
+        }
+        SecurityContextHolder.clearContext();
+        return resultado;
+    }
+
+    @Benchmark
+    public Object filtroActual() throws Exception {
+        filtro.doFilter(peticion(), new MockHttpServletResponse(), CADENA);
+        Object resultado = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return resultado;
+    }
+
+    private MockHttpServletRequest peticion() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/programador/dashboard/resumen");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    // JwtService.extractAllClaims tal como estaba
+    private static Claims legacyClaims(String token) {
+        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
+        Key key = Keys.hmacShaKeyFor(keyBytes);
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
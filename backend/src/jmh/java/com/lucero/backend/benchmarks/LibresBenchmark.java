@@ -0,0 +1,156 @@
+package com.lucero.backend.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucero.backend.dto.ProgramadorPublicoDTO;
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import com.lucero.backend.repositories.AsesoriaRepository;
+import com.lucero.backend.repositories.DisponibilidadRepository;
+import com.lucero.backend.repositories.ProgramadorRepository;
+import com.lucero.backend.services.CatalogoProgramadoresService;
+import com.lucero.backend.services.CatalogoSnapshotService;
+import com.lucero.backend.services.MotorDisponibilidad;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * GET /api/programadores/libres con 5000 programadores en el catálogo:
+ * MotorDisponibilidad.programadoresLibres + serializar la respuesta con Jackson.
+ * SampleTime para ver p99 (objetivo: < 50 ms). Las tres consultas del
+ * endpoint (@PresupuestoConsultas(3)) responden desde memoria: su plan está
+ * en PlanesConsultasTest, aquí se mide solo lo que corre en la JVM.
+ * plantillasFrias invalida las plantillas en cada llamada (primer GET tras
+ * arrancar o tras una edición masiva): compila las 5000 en lotes de 1000 y
+ * queda fuera del objetivo, pasa una vez y no por petición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LibresBenchmark {
+
+    @Param({ "5000" })
+    public int programadores;
+
+    // asesorías tomadas por programador en la fecha consultada
+    @Param({ "3" })
+    public int citasPorProgramador;
+
+    private static final LocalDate FECHA = LocalDate.of(2026, 1, 7); // miércoles
+
+    private List<UUID> ids;
+    private List<Object[]> horas;
+    private List<Object[]> ventanas;
+    private List<Object[]> ocupados;
+    private MotorDisponibilidad motor;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void preparar() {
+        ids = new ArrayList<>(programadores);
+        horas = new ArrayList<>();
+        ventanas = new ArrayList<>();
+        ocupados = new ArrayList<>();
+        List<ProgramadorPublicoDTO> dtos = new ArrayList<>(programadores);
+        Random r = new Random(42);
+        for (int i = 0; i < programadores; i++) {
+            Usuario u = new Usuario();
+            u.setId(UUID.randomUUID());
+            u.setNombre("Programador " + i);
+            u.setFotoUrl("https://cdn.test/fotos/" + i + ".jpg");
+
+            Programador p = new Programador();
+            p.setId(UUID.randomUUID());
+            p.setUsuario(u);
+            p.setEspecialidad(i % 2 == 0 ? "Backend" : "Frontend");
+            p.setHorasDisponibles(new ArrayList<>(List.of("09:00", "10:00", "11:00", "15:00", "16:00", "17:00")));
+            dtos.add(ProgramadorPublicoDTO.desde(p));
+            ids.add(p.getId());
+
+            for (String h : p.getHorasDisponibles()) {
+                horas.add(new Object[] { p.getId(), h });
+            }
+            // la mitad suma una ventana de lunes a viernes
+            if (i % 2 == 0) {
+                for (int dia = 1; dia <= 5; dia++) {
+                    ventanas.add(new Object[] { p.getId(), dia, LocalTime.of(13, 0), LocalTime.of(18, 0) });
+                }
+            }
+            for (int c = 0; c < citasPorProgramador; c++) {
+                ocupados.add(new Object[] { p.getId(), LocalTime.of(9 + r.nextInt(9), 0) });
+            }
+        }
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        CatalogoProgramadoresService catalogo = new CatalogoProgramadoresService(null) {
+            @Override
+            public List<ProgramadorPublicoDTO> listar(UUID after, Integer limit) {
+                return dtos;
+            }
+        };
+        CatalogoSnapshotService snapshot = new CatalogoSnapshotService(catalogo, objectMapper);
+        snapshot.listar();
+
+        motor = new MotorDisponibilidad(
+                repositorio(ProgramadorRepository.class, "findHorasDeVarios", a -> filtrar(horas, a[0])),
+                repositorio(DisponibilidadRepository.class, "findVentanasActivasDeVarios", a -> filtrar(ventanas, a[0])),
+                repositorio(AsesoriaRepository.class, "findHorariosOcupadosDelDia", a -> ocupados),
+                snapshot);
+        motor.programadoresLibres(FECHA, null, null);
+    }
+
+    @Benchmark
+    public byte[] libresDelDia() throws Exception {
+        return objectMapper.writeValueAsBytes(motor.programadoresLibres(FECHA, null, null));
+    }
+
+    @Benchmark
+    public byte[] libresAUnaHora() throws Exception {
+        return objectMapper.writeValueAsBytes(motor.programadoresLibres(FECHA, LocalTime.of(15, 0), "Backend"));
+    }
+
+    @Benchmark
+    public byte[] plantillasFrias() throws Exception {
+        ids.forEach(motor::invalidar);
+        return objectMapper.writeValueAsBytes(motor.programadoresLibres(FECHA, null, null));
+    }
+
+    // Filas [programadorId, ...] de los ids pedidos (lo que devolvería el IN :ids)
+    private static List<Object[]> filtrar(List<Object[]> filas, Object ids) {
+        Set<?> pedidos = new HashSet<>((Collection<?>) ids);
+        return filas.stream().filter(f -> pedidos.contains(f[0])).toList();
+    }
+
+    // Repositorio en memoria: solo responde el método que usa el motor
+    @SuppressWarnings("unchecked")
+    private static <T> T repositorio(Class<T> tipo, String metodo, Function<Object[], Object> respuesta) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo }, (proxy, m, args) -> {
+            if (m.getName().equals(metodo)) {
+                return respuesta.apply(args);
+            }
+            if (m.getDeclaringClass() == Object.class) {
+                return switch (m.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> tipo.getSimpleName() + " en memoria";
+                };
+            }
+            throw new UnsupportedOperationException(m.getName());
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.lucero.backend.benchmarks;
+
+import com.lucero.backend.dto.ReporteAsesoriaFila;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.services.FormatoReporte;
+import com.lucero.backend.services.ReporteAsesoriasWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generación de los reportes de ReportesProgramadorController (y de los jobs)
+ * con ReporteAsesoriasWriter, por formato y tamaño. Las filas ya están en
+ * memoria y la salida se descarta: se mide solo armar el archivo, no la
+ * consulta ni la red. Por corrida cuenta los bytes escritos, como referencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ReportesBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int filas;
+
+    @Param({ "PDF", "XLSX", "CSV" })
+    public FormatoReporte formato;
+
+    private List<ReporteAsesoriaFila> datos;
+
+    @Setup
+    public void preparar() {
+        EstadoAsesoria[] estados = EstadoAsesoria.values();
+        LocalDate inicio = LocalDate.of(2025, 1, 6);
+        datos = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            datos.add(new ReporteAsesoriaFila(
+                    inicio.plusDays(i / 8),
+                    LocalTime.of(9 + i % 8, 0),
+                    "Solicitante " + i,
+                    "solicitante" + i + "@test.com",
+                    estados[i % estados.length]));
+        }
+    }
+
+    @Benchmark
+    public long generar() throws Exception {
+        Descarte out = new Descarte();
+        switch (formato) {
+            case PDF -> ReporteAsesoriasWriter.pdf("Programador de prueba", datos.iterator(), out);
+            case XLSX -> ReporteAsesoriasWriter.excel(datos.iterator(), out);
+            case CSV -> ReporteAsesoriasWriter.csv(datos.iterator(), out);
+        }
+        return out.bytes;
+    }
+
+    // OutputStream que solo cuenta
+    private static final class Descarte extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.lucero.backend.benchmarks;
+
+import com.lucero.backend.services.MotorDisponibilidad;
+import com.lucero.backend.services.PlantillaSemanal;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Slots libres de un programador para un rango de 4 semanas:
+ * bucle de strings original (List.contains por día) vs. PlantillaSemanal con bits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotsBenchmark {
+
+    @Param({ "28" })
+    public int dias;
+
+    @Param({ "4" })
+    public int citasPorDia;
+
+    private List<String> horasConfiguradas;
+    private Map<LocalDate, List<LocalTime>> citasPorFecha;
+    private List<Object[]> filasOcupadas;
+    private PlantillaSemanal plantilla;
+    private LocalDate desde;
+
+    @Setup
+    public void preparar() {
+        horasConfiguradas = new ArrayList<>();
+        for (int h = 8; h < 20; h++) {
+            horasConfiguradas.add(String.format("%02d:00", h));
+        }
+        plantilla = new PlantillaSemanal();
+        horasConfiguradas.forEach(plantilla::agregarHora);
+
+        desde = LocalDate.of(2026, 1, 5);
+        citasPorFecha = new HashMap<>();
+        filasOcupadas = new ArrayList<>();
+        Random r = new Random(42);
+        for (int d = 0; d < dias; d++) {
+            LocalDate fecha = desde.plusDays(d);
+            List<LocalTime> citas = new ArrayList<>();
+            for (int c = 0; c < citasPorDia; c++) {
+                LocalTime hora = LocalTime.of(8 + r.nextInt(12), 0);
+                citas.add(hora);
+                filasOcupadas.add(new Object[] { fecha, hora });
+            }
+            citasPorFecha.put(fecha, citas);
+        }
+    }
+
+    // Algoritmo anterior de ProgramadorController.obtenerSlotsDisponibles, día por día
+    @Benchmark
+    public void stringsOriginal(Blackhole bh) {
+        for (int d = 0; d < dias; d++) {
+            LocalDate fecha = desde.plusDays(d);
+            List<String> horasOcupadas = citasPorFecha.getOrDefault(fecha, List.of()).stream()
+                    .map(hora -> {
+                        String h = hora.toString();
+                        return h.length() > 5 ? h.substring(0, 5) : h;
+                    })
+                    .collect(Collectors.toList());
+
+            List<String> slotsLibres = new ArrayList<>();
+            for (String hora : horasConfiguradas) {
+                String horaSimple = hora.length() > 5 ? hora.substring(0, 5) : hora;
+                if (!horasOcupadas.contains(horaSimple)) {
+                    slotsLibres.add(horaSimple);
+                }
+            }
+            Collections.sort(slotsLibres);
+            bh.consume(slotsLibres);
+        }
+    }
+
+    @Benchmark
+    public void bitsPlantilla(Blackhole bh) {
+        Map<LocalDate, Long> ocupados = MotorDisponibilidad.ocupados(filasOcupadas);
+        for (int d = 0; d < dias; d++) {
+            LocalDate fecha = desde.plusDays(d);
+            bh.consume(PlantillaSemanal.aHoras(plantilla.libres(fecha, ocupados.getOrDefault(fecha, 0L))));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.lucero.backend.consultas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * StatementInspector de Hibernate (hibernate.session_factory.statement_inspector):
+ * cuenta las sentencias que se preparan en el hilo actual entre iniciar() y detener().
+ * Fuera de ese tramo (jobs, schedulers, hilos de streaming) no cuenta nada.
+ * Un lote JDBC cuenta una vez por sentencia preparada, no por fila.
+ */
+public class ContadorConsultas implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTADOR = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] contador = CONTADOR.get();
+        if (contador != null) {
+            contador[0]++;
+        }
+        return sql;
+    }
+
+    public static void iniciar() {
+        CONTADOR.set(new int[1]);
+    }
+
+    // Devuelve lo contado y deja de contar en este hilo
+    public static int detener() {
+        int[] contador = CONTADOR.get();
+        CONTADOR.remove();
+        return contador != null ? contador[0] : 0;
+    }
+}
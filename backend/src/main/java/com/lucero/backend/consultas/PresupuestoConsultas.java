@@ -0,0 +1,23 @@
+package com.lucero.backend.consultas;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de sentencias SQL que puede ejecutar una petición a este endpoint,
+ * contadas por {@link ContadorConsultas} en todo el recorrido de la petición
+ * (filtros incluidos). El número no debe depender del volumen de datos: si crece
+ * con las filas, hay un N+1.
+ * En producción {@link PresupuestoConsultasFilter} avisa en el log al pasarse;
+ * en el build lo hace fallar PresupuestoConsultasTest.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PresupuestoConsultas {
+
+    int value();
+}
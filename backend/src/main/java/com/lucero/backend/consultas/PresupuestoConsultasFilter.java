@@ -0,0 +1,83 @@
+package com.lucero.backend.consultas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Cuenta las sentencias SQL de cada petición (antes de la cadena de seguridad,
+ * así entran también las consultas de autenticación) y las compara con el
+ * {@link PresupuestoConsultas} del endpoint que la atendió. Si se pasa, deja un
+ * WARN con el endpoint y suma consultas.presupuesto.excedido{endpoint}.
+ * El conteo queda en el atributo {@link #ATRIBUTO_CONSULTAS} de la petición.
+ * Con consultas.presupuesto.activo=false no hace nada.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class PresupuestoConsultasFilter extends OncePerRequestFilter {
+
+    public static final String ATRIBUTO_CONSULTAS = PresupuestoConsultasFilter.class.getName() + ".consultas";
+
+    private static final Logger log = LoggerFactory.getLogger(PresupuestoConsultasFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean activo;
+
+    public PresupuestoConsultasFilter(MeterRegistry meterRegistry,
+                                      @Value("${consultas.presupuesto.activo:true}") boolean activo) {
+        this.meterRegistry = meterRegistry;
+        this.activo = activo;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        if (!activo) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ContadorConsultas.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int consultas = ContadorConsultas.detener();
+            request.setAttribute(ATRIBUTO_CONSULTAS, consultas);
+            revisar(request, consultas);
+        }
+    }
+
+    private void revisar(HttpServletRequest request, int consultas) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return;
+        }
+        PresupuestoConsultas presupuesto = handler.getMethodAnnotation(PresupuestoConsultas.class);
+        if (presupuesto == null || consultas <= presupuesto.value()) {
+            return;
+        }
+        String endpoint = request.getMethod() + " "
+                + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        log.warn("{} ejecutó {} consultas SQL (presupuesto {})", endpoint, consultas, presupuesto.value());
+        Counter.builder("consultas.presupuesto.excedido")
+                .description("Peticiones que ejecutaron más consultas SQL que su presupuesto")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+    }
+}
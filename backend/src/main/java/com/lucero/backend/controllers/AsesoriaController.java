@@ -1,17 +1,23 @@
 package com.lucero.backend.controllers;
 
+import com.lucero.backend.consultas.PresupuestoConsultas;
+import com.lucero.backend.dto.AsesoriaResumenDTO;
+import com.lucero.backend.dto.HorarioOcupadoDTO;
 import com.lucero.backend.models.Asesoria;
+import com.lucero.backend.models.EstadoAsesoria;
 import com.lucero.backend.models.Programador;
-import com.lucero.backend.models.Usuario;
 import com.lucero.backend.repositories.AsesoriaRepository;
 import com.lucero.backend.repositories.ProgramadorRepository;
 import com.lucero.backend.repositories.UsuarioRepository;
-import com.lucero.backend.services.EmailService;
+import com.lucero.backend.security.UsuarioActual;
+import com.lucero.backend.services.AsesoriaEstadoService;
+import com.lucero.backend.services.HorarioOcupadoException;
+import com.lucero.backend.services.ReservaAsesoriaService;
+import com.lucero.backend.services.TransicionEstadoException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -30,25 +36,13 @@ public class AsesoriaController {
     @Autowired
     private ProgramadorRepository programadorRepository;
     @Autowired
-    private EmailService emailService;
-
-    // --- MÉTODOS DE APOYO ---
-
-    private Usuario obtenerUsuarioActual() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-        return usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-    }
-
-    private Programador obtenerProgramadorActual() {
-        Usuario u = obtenerUsuarioActual();
-        return programadorRepository.findByUsuarioId(u.getId())
-                .orElseThrow(() -> new RuntimeException("No tienes perfil de programador"));
-    }
+    private AsesoriaEstadoService asesoriaEstadoService;
+    @Autowired
+    private ReservaAsesoriaService reservaAsesoriaService;
 
     // --- ENDPOINTS PÚBLICOS ---
 
+    @PresupuestoConsultas(8)
     @PostMapping("/publica")
     public ResponseEntity<?> crearPublica(@RequestBody Map<String, Object> body) {
         try {
@@ -78,89 +72,123 @@ public class AsesoriaController {
             a.setComentario((String) body.getOrDefault("comentario", ""));
             a.setFecha(LocalDate.parse((String) body.get("fecha")));
             a.setHora(LocalTime.parse((String) body.get("hora")));
-            a.setEstado("pendiente");
+            a.setEstado(EstadoAsesoria.PENDIENTE);
 
-            return ResponseEntity.ok(asesoriaRepository.save(a));
+            return ResponseEntity.ok(reservaAsesoriaService.reservar(a));
+        } catch (HorarioOcupadoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
 
+    @PresupuestoConsultas(1)
     @GetMapping("/ocupadas/{idProgramador}/{fecha}")
-    public List<Asesoria> getOcupadas(@PathVariable UUID idProgramador, @PathVariable String fecha) {
+    public List<HorarioOcupadoDTO> getOcupadas(@PathVariable UUID idProgramador, @PathVariable String fecha) {
         LocalDate ld = LocalDate.parse(fecha);
-        return asesoriaRepository.findByProgramadorIdAndFechaAndEstadoNot(idProgramador, ld, "rechazada");
+        return asesoriaRepository.findOcupadasDelDia(idProgramador, ld);
     }
 
     // --- ENDPOINTS PRIVADOS (GESTIÓN) ---
 
+    // Listados paginados por cursor: ?limit=&cursor=&estado= (ver Paginacion)
+    @PresupuestoConsultas(1)
     @GetMapping("/programador")
-    public List<Asesoria> asesoriasDelProgramador() {
-        Programador p = obtenerProgramadorActual();
-        return asesoriaRepository.findByProgramadorId(p.getId());
+    public ResponseEntity<?> asesoriasDelProgramador(@RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) String estado,
+                                                     UsuarioActual usuario) {
+        try {
+            int limite = Paginacion.limite(limit);
+            Paginacion.Cursor c = Paginacion.Cursor.leer(cursor);
+            List<AsesoriaResumenDTO> filas = asesoriaRepository.paginaDeProgramador(usuario.requerirProgramador(),
+                    c.marca(), c.id(), EstadoAsesoria.filtro(estado), Limit.of(limite + 1));
+            return Paginacion.responder(filas, limite, a -> new Paginacion.Cursor(a.getCreadoEn(), a.getId()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
+    @PresupuestoConsultas(1)
     @GetMapping("/mis")
-    public List<Asesoria> misAsesoriasComoUsuario() {
-        Usuario u = obtenerUsuarioActual();
-        return asesoriaRepository.findByUsuarioId(u.getId());
+    public ResponseEntity<?> misAsesoriasComoUsuario(@RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) String estado,
+                                                     UsuarioActual usuario) {
+        try {
+            int limite = Paginacion.limite(limit);
+            Paginacion.Cursor c = Paginacion.Cursor.leer(cursor);
+            List<AsesoriaResumenDTO> filas = asesoriaRepository.paginaDeUsuario(usuario.usuarioId(),
+                    c.marca(), c.id(), EstadoAsesoria.filtro(estado), Limit.of(limite + 1));
+            return Paginacion.responder(filas, limite, a -> new Paginacion.Cursor(a.getCreadoEn(), a.getId()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
+    @PresupuestoConsultas(9)
     @PutMapping("/{id}")
-    public ResponseEntity<?> actualizarAsesoria(@PathVariable UUID id, @RequestBody Map<String, Object> body) {
+    public ResponseEntity<?> actualizarAsesoria(@PathVariable UUID id, @RequestBody Map<String, Object> body,
+                                                UsuarioActual usuario) {
         Asesoria asesoria = asesoriaRepository.findById(id).orElse(null);
         if (asesoria == null)
             return ResponseEntity.notFound().build();
 
-        Programador programadorActual = obtenerProgramadorActual();
+        UUID programadorId = usuario.requerirProgramador();
 
         // Validaciones de seguridad y lógica de negocio
-        if (!asesoria.getProgramador().getId().equals(programadorActual.getId())) {
+        if (!asesoria.getProgramador().getId().equals(programadorId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("No autorizado");
         }
 
-        if (!asesoria.getEstado().equalsIgnoreCase("pendiente")) {
-            return ResponseEntity.badRequest()
-                    .body("Esta asesoría ya fue procesada (" + asesoria.getEstado() + ") y no puede modificarse.");
+        if (!asesoria.getEstado().admiteCambios()) {
+            return ResponseEntity.badRequest().body(AsesoriaEstadoService.procesada(asesoria.getEstado()));
         }
 
         if (asesoria.getFecha().isBefore(LocalDate.now())) {
-            return ResponseEntity.badRequest()
-                    .body("No se puede gestionar una asesoría de una fecha pasada.");
+            return ResponseEntity.badRequest().body(AsesoriaEstadoService.FECHA_PASADA);
         }
 
         // Actualización de campos
-        String estadoRaw = (String) body.get("estado");
-        String estado = (estadoRaw != null) ? estadoRaw.toLowerCase().trim() : null;
+        EstadoAsesoria estado;
+        try {
+            estado = EstadoAsesoria.filtro((String) body.get("estado"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
         String respuesta = (String) body.get("respuestaProgramador");
 
-        if (estado != null)
-            asesoria.setEstado(estado);
-        if (respuesta != null)
-            asesoria.setRespuestaProgramador(respuesta);
+        boolean notificar = estado == EstadoAsesoria.APROBADA || estado == EstadoAsesoria.RECHAZADA;
+        boolean sinEmail = asesoria.getEmailSolicitante() == null || asesoria.getEmailSolicitante().isBlank();
+
+        // Email de notificación: se encola junto con el cambio y se envía en segundo plano
+        String asunto = null;
+        String mensaje = null;
+        if (notificar && !sinEmail) {
+            asunto = estado == EstadoAsesoria.APROBADA ? "✅ Tu asesoría fue aprobada"
+                    : "❌ Tu asesoría fue rechazada";
+            mensaje = (respuesta != null && !respuesta.isBlank()) ? respuesta
+                    : "Tu asesoría para el día " + asesoria.getFecha() + " ha sido: " + estado;
+        }
 
-        Asesoria guardada = asesoriaRepository.save(asesoria);
+        // Transición validada contra EstadoAsesoria y aplicada con UPDATE condicional
+        AsesoriaEstadoService.CambioEstado cambio;
+        try {
+            cambio = asesoriaEstadoService.cambiarEstado(asesoria, estado, respuesta, asunto, mensaje);
+        } catch (TransicionEstadoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        }
+        Asesoria guardada = cambio.asesoria();
 
-        // Envío de Email de notificación
-        if (estado != null && (estado.equals("aprobada") || estado.equals("rechazada"))) {
-            if (guardada.getEmailSolicitante() == null || guardada.getEmailSolicitante().isBlank()) {
+        if (notificar) {
+            if (sinEmail) {
                 return ResponseEntity.ok(Map.of(
                         "asesoria", guardada,
                         "warning", "Estado actualizado, pero no hay email de contacto."));
             }
-
-            try {
-                String asunto = estado.equals("aprobada") ? "✅ Tu asesoría fue aprobada"
-                        : "❌ Tu asesoría fue rechazada";
-                String mensaje = (respuesta != null && !respuesta.isBlank()) ? respuesta
-                        : "Tu asesoría para el día " + guardada.getFecha() + " ha sido: " + estado;
-
-                emailService.enviarCorreo(guardada.getEmailSolicitante(), asunto, mensaje);
-            } catch (Exception e) {
-                return ResponseEntity.ok(Map.of(
-                        "asesoria", guardada,
-                        "warning", "Estado guardado, pero falló el correo: " + e.getMessage()));
-            }
+            return ResponseEntity.ok(Map.of(
+                    "asesoria", guardada,
+                    "notificacionId", cambio.notificacionId()));
         }
 
         return ResponseEntity.ok(guardada);
@@ -168,38 +196,26 @@ public class AsesoriaController {
 
     // --- FILTROS AVANZADOS ---
 
+    @PresupuestoConsultas(1)
     @GetMapping("/programador/filtradas")
     public ResponseEntity<?> asesoriasFiltradas(
             @RequestParam(required = false) String estado,
             @RequestParam(required = false) String desde,
-            @RequestParam(required = false) String hasta) {
+            @RequestParam(required = false) String hasta,
+            UsuarioActual usuario) {
         try {
-            Programador p = obtenerProgramadorActual();
-
-            // Caso 1: Sin filtros
-            if (estado == null && desde == null && hasta == null) {
-                return ResponseEntity.ok(asesoriaRepository.findByProgramadorId(p.getId()));
-            }
-
-            // Caso 2: Solo estado
-            if (estado != null && desde == null && hasta == null) {
-                return ResponseEntity.ok(asesoriaRepository.findByProgramadorIdAndEstado(p.getId(), estado));
-            }
-
-            // Caso 3: Rango de fechas
-            if (estado == null && desde != null && hasta != null) {
-                return ResponseEntity.ok(asesoriaRepository.findByProgramadorIdAndFechaBetween(
-                        p.getId(), LocalDate.parse(desde), LocalDate.parse(hasta)));
-            }
+            UUID programadorId = usuario.requerirProgramador();
 
-            // Caso 4: Estado + Rango de fechas
-            if (estado != null && desde != null && hasta != null) {
-                return ResponseEntity.ok(asesoriaRepository.findByProgramadorIdAndEstadoAndFechaBetween(
-                        p.getId(), estado, LocalDate.parse(desde), LocalDate.parse(hasta)));
+            // Solo una fecha del rango no es una combinación válida
+            if ((desde == null) != (hasta == null)) {
+                return ResponseEntity.badRequest().body("Combinación de filtros no válida.");
             }
 
-            return ResponseEntity.badRequest().body("Combinación de filtros no válida.");
-
+            // Sin rango = todas las fechas; estado null = todos los estados
+            return ResponseEntity.ok(asesoriaRepository.filtrarDeProgramador(programadorId,
+                    EstadoAsesoria.filtro(estado),
+                    desde != null ? LocalDate.parse(desde) : LocalDate.of(1900, 1, 1),
+                    hasta != null ? LocalDate.parse(hasta) : LocalDate.of(9999, 12, 31)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error al filtrar: " + e.getMessage());
         }
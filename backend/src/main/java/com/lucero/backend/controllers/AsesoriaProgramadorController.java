@@ -1,19 +1,21 @@
 package com.lucero.backend.controllers;
 
+import com.lucero.backend.consultas.PresupuestoConsultas;
+import com.lucero.backend.dto.AsesoriaResumenDTO;
+import com.lucero.backend.dto.CambioEstadoLoteDTO;
 import com.lucero.backend.models.Asesoria;
-import com.lucero.backend.models.Programador;
-import com.lucero.backend.models.Usuario;
+import com.lucero.backend.models.EstadoAsesoria;
 import com.lucero.backend.repositories.AsesoriaRepository;
-import com.lucero.backend.repositories.ProgramadorRepository;
-import com.lucero.backend.repositories.UsuarioRepository;
-import com.lucero.backend.services.EmailService;
+import com.lucero.backend.security.UsuarioActual;
+import com.lucero.backend.services.AsesoriaEstadoService;
+import com.lucero.backend.services.TransicionEstadoException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -23,98 +25,131 @@ import java.util.UUID;
 @CrossOrigin(origins = "*")
 public class AsesoriaProgramadorController {
 
-    @Autowired
-    private AsesoriaRepository asesoriaRepository;
-
-    @Autowired
-    private UsuarioRepository usuarioRepository;
+    private static final int MAX_IDS_POR_LOTE = 500;
 
     @Autowired
-    private ProgramadorRepository programadorRepository;
+    private AsesoriaRepository asesoriaRepository;
 
     @Autowired
-    private EmailService emailService;
-
-    // Método auxiliar para obtener el programador logueado
-    private Programador obtenerProgramadorActual() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-
-        Usuario usuario = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-        return programadorRepository.findByUsuarioId(usuario.getId())
-                .orElseThrow(() -> new RuntimeException("No tienes perfil de programador creado."));
-    }
+    private AsesoriaEstadoService asesoriaEstadoService;
 
     // 1) LISTAR ASESORÍAS DEL PROGRAMADOR LOGUEADO
+    // Paginado por cursor: ?limit=&cursor=&estado= (ver Paginacion)
+    @PresupuestoConsultas(1)
     @GetMapping
-    public List<Asesoria> listarMias() {
-        Programador p = obtenerProgramadorActual();
-        return asesoriaRepository.findByProgramadorId(p.getId());
+    public ResponseEntity<?> listarMias(@RequestParam(required = false) Integer limit,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) String estado,
+                                        UsuarioActual usuario) {
+        try {
+            int limite = Paginacion.limite(limit);
+            Paginacion.Cursor c = Paginacion.Cursor.leer(cursor);
+            List<AsesoriaResumenDTO> filas = asesoriaRepository.paginaDeProgramador(usuario.requerirProgramador(),
+                    c.marca(), c.id(), EstadoAsesoria.filtro(estado), Limit.of(limite + 1));
+            return Paginacion.responder(filas, limite, a -> new Paginacion.Cursor(a.getCreadoEn(), a.getId()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     // 2) APROBAR / RECHAZAR + RESPUESTA (CORREGIDO)
+    // Latencia en /actuator/prometheus (http.server.requests, uri=/api/programador/asesorias/{id})
+    @PresupuestoConsultas(9)
     @PutMapping("/{id}")
     public ResponseEntity<?> actualizarEstado(
             @PathVariable UUID id,
-            @RequestBody Map<String, String> body) {
+            @RequestBody Map<String, String> body,
+            UsuarioActual usuario) {
 
-        System.out.println("--- INICIO DEBUG ACTUALIZACIÓN ---");
-
-        Programador actual = obtenerProgramadorActual();
+        UUID programadorId = usuario.requerirProgramador();
         Asesoria asesoria = asesoriaRepository.findById(id).orElse(null);
 
         if (asesoria == null)
             return ResponseEntity.notFound().build();
 
         // Seguridad: Verificar que la asesoría pertenece a este programador
-        if (!asesoria.getProgramador().getId().equals(actual.getId())) {
+        if (!asesoria.getProgramador().getId().equals(programadorId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("No autorizado");
         }
 
-        String estado = body.get("estado");
-        String respuesta = body.get("respuestaProgramador");
+        // Misma regla que AsesoriaController: una asesoría procesada ya no se modifica
+        if (!asesoria.getEstado().admiteCambios()) {
+            return ResponseEntity.badRequest().body(AsesoriaEstadoService.procesada(asesoria.getEstado()));
+        }
 
-        // 1. Guardamos en Base de Datos
-        asesoria.setEstado(estado);
-        asesoria.setRespuestaProgramador(respuesta);
-        Asesoria guardada = asesoriaRepository.save(asesoria);
-        System.out.println(" BD Actualizada. Estado: " + estado);
+        EstadoAsesoria estado;
+        try {
+            estado = EstadoAsesoria.filtro(body.get("estado"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+        String respuesta = body.get("respuestaProgramador");
 
-        // 2. Lógica de Correo Electrónico
-        if (estado != null && (estado.equals("aprobada") || estado.equals("rechazada"))) {
+        boolean notificar = estado == EstadoAsesoria.APROBADA || estado == EstadoAsesoria.RECHAZADA;
+        String emailDestino = asesoria.getEmailSolicitante();
 
-            String emailDestino = guardada.getEmailSolicitante();
+        // Correo: se encola en la misma transacción y lo envía NotificacionDispatcher
+        String asunto = null;
+        String mensaje = null;
+        if (notificar && emailDestino != null && !emailDestino.isBlank()) {
+            asunto = estado == EstadoAsesoria.APROBADA ? "✅ Asesoría Aprobada" : "❌ Asesoría Rechazada";
 
-            if (emailDestino == null || emailDestino.isBlank()) {
-                System.out.println("⚠️ ALERTA: Email nulo o vacío. Cancelando envío.");
-            } else {
-                try {
-                    // Definir Asunto
-                    String asunto = estado.equals("aprobada") ? "✅ Asesoría Aprobada" : "❌ Asesoría Rechazada";
+            //  FIX: Construir mensaje con fallback si 'respuesta' es null o vacía
+            mensaje = (respuesta != null && !respuesta.isBlank())
+                    ? respuesta
+                    : "Hola, tu solicitud de asesoría para el día " + asesoria.getFecha()
+                            + " a las " + asesoria.getHora() + " ha sido: " + estado + ".";
+        }
 
-                    //  FIX: Construir mensaje con fallback si 'respuesta' es null o vacía
-                    String mensaje = (respuesta != null && !respuesta.isBlank())
-                            ? respuesta
-                            : "Hola, tu solicitud de asesoría para el día " + guardada.getFecha()
-                                    + " a las " + guardada.getHora() + " ha sido: " + estado + ".";
+        // Misma tabla de transiciones que AsesoriaController; UPDATE condicional sobre el estado leído
+        AsesoriaEstadoService.CambioEstado cambio;
+        try {
+            cambio = asesoriaEstadoService.cambiarEstado(asesoria, estado, respuesta, asunto, mensaje);
+        } catch (TransicionEstadoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        }
+        Asesoria guardada = cambio.asesoria();
 
-                    System.out.println("🚀 Enviando correo a: " + emailDestino);
+        if (cambio.notificacionId() != null) {
+            return ResponseEntity.ok(Map.of(
+                    "asesoria", guardada,
+                    "notificacionId", cambio.notificacionId()));
+        }
 
-                    emailService.enviarCorreo(emailDestino, asunto, mensaje);
+        return ResponseEntity.ok(guardada);
+    }
 
-                    System.out.println("✨ ÉXITO: Correo enviado correctamente.");
-                } catch (Exception e) {
-                    // Logueamos el error pero no bloqueamos la respuesta al cliente
-                    System.err.println("❌ ERROR enviando correo: " + e.getMessage());
-                }
+    // 3) APROBAR / RECHAZAR VARIAS A LA VEZ
+    // Body: { "ids": [...], "estado": "aprobada" | "rechazada", "respuestaProgramador": "..." }
+    // Responde el resultado de cada id; los correos salen uno por solicitante.
+    // Dashboard: un upsert del contador y, por los días tocados, una lectura, un lote de INSERT y otro de UPDATE
+    @PresupuestoConsultas(7)
+    @PatchMapping
+    public ResponseEntity<?> actualizarEstadoEnLote(@RequestBody CambioEstadoLoteDTO body,
+                                                    UsuarioActual usuario) {
+        try {
+            UUID programadorId = usuario.requerirProgramador();
+            if (body.getIds() == null || body.getIds().isEmpty()) {
+                return ResponseEntity.badRequest().body("Error: Falta la lista de ids");
+            }
+            LinkedHashSet<UUID> ids = new LinkedHashSet<>(body.getIds());
+            if (ids.size() > MAX_IDS_POR_LOTE) {
+                return ResponseEntity.badRequest().body("Error: Máximo " + MAX_IDS_POR_LOTE + " asesorías por lote");
+            }
+            EstadoAsesoria estado = EstadoAsesoria.filtro(body.getEstado());
+            if (estado == null) {
+                return ResponseEntity.badRequest().body("Error: Falta el estado");
             }
-        } else {
-            System.out.println("ℹ️ No se requiere envío de correo para el estado: " + estado);
-        }
 
-        System.out.println("--- FIN DEBUG ---");
-        return ResponseEntity.ok(guardada);
+            AsesoriaEstadoService.CambioLote cambio = asesoriaEstadoService.cambiarEstadoEnLote(
+                    programadorId, ids, estado, body.getRespuestaProgramador());
+            return ResponseEntity.ok(Map.of(
+                    "resultados", cambio.resultados(),
+                    "notificacionIds", cambio.notificacionIds()));
+        } catch (TransicionEstadoException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,15 @@
 package com.lucero.backend.controllers;
 
+import com.lucero.backend.consultas.PresupuestoConsultas;
 import com.lucero.backend.models.Usuario;
+import com.lucero.backend.repositories.ProgramadorRepository;
 import com.lucero.backend.repositories.UsuarioRepository;
+import com.lucero.backend.security.HashingSaturadoException;
 import com.lucero.backend.security.JwtService;
+import com.lucero.backend.security.UsuarioActual;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -22,10 +28,12 @@ import java.util.Map;
 public class AuthController {
 
     private final UsuarioRepository usuarioRepository;
+    private final ProgramadorRepository programadorRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
 
+    @PresupuestoConsultas(1)
     @PostMapping("/register")
     public ResponseEntity<Map<String, String>> register(@RequestBody Map<String, String> request) {
         
@@ -35,7 +43,8 @@ public class AuthController {
 
         // Rol
         String rol = request.get("rol");
-        if (rol == null || rol.isEmpty()) {
+        // el rol admin no se elige al registrarse (abre /api/programadores/importar)
+        if (rol == null || rol.isEmpty() || rol.equalsIgnoreCase("admin")) {
             usuario.setRol("usuario");
         } else {
             usuario.setRol(rol);
@@ -60,6 +69,7 @@ public class AuthController {
         Map<String, Object> extraClaims = new HashMap<>();
         extraClaims.put("rol", usuario.getRol());
         extraClaims.put("nombre", usuario.getNombre());
+        extraClaims.put(UsuarioActual.CLAIM_USUARIO, usuario.getId().toString()); // recién registrado: sin perfil de programador
 
         UserDetails userDetails = new org.springframework.security.core.userdetails.User(
                 usuario.getEmail(),
@@ -73,6 +83,7 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PresupuestoConsultas(3)
     @PostMapping("/login")
     public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> request) {
         authenticationManager.authenticate(
@@ -83,6 +94,10 @@ public class AuthController {
         Map<String, Object> extraClaims = new HashMap<>();
         extraClaims.put("rol", user.getRol());
         extraClaims.put("nombre", user.getNombre());
+        // ids en el token: las peticiones siguientes no necesitan buscar al usuario ni su perfil
+        extraClaims.put(UsuarioActual.CLAIM_USUARIO, user.getId().toString());
+        programadorRepository.findByUsuarioId(user.getId())
+                .ifPresent(p -> extraClaims.put(UsuarioActual.CLAIM_PROGRAMADOR, p.getId().toString()));
 
         UserDetails userDetails = new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
@@ -95,4 +110,12 @@ public class AuthController {
         response.put("token", token);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    // Cola de BCrypt llena: que el cliente reintente en lugar de esperar sin límite
+    @ExceptionHandler(HashingSaturadoException.class)
+    public ResponseEntity<Map<String, String>> hashingSaturado(HashingSaturadoException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(Map.of("error", e.getMessage()));
+    }
+}
@@ -1,15 +1,16 @@
 package com.lucero.backend.controllers;
 
-import com.lucero.backend.models.Programador;
-import com.lucero.backend.models.Usuario;
-import com.lucero.backend.repositories.AsesoriaRepository;
-import com.lucero.backend.repositories.ProgramadorRepository;
-import com.lucero.backend.repositories.UsuarioRepository;
+import com.lucero.backend.consultas.PresupuestoConsultas;
+import com.lucero.backend.dto.PuntoSerieDTO;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.security.UsuarioActual;
+import com.lucero.backend.services.ContadoresAsesoriaService;
+import com.lucero.backend.services.SerieAsesoriasService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,39 +22,26 @@ import java.util.UUID;
 public class DashboardProgramadorController {
 
     @Autowired
-    private AsesoriaRepository asesoriaRepository;
+    private ContadoresAsesoriaService contadoresAsesoriaService;
     @Autowired
-    private UsuarioRepository usuarioRepository;
-    @Autowired
-    private ProgramadorRepository programadorRepository;
-
-    // ======================
-    // AUX: programador logueado
-    // ======================
-    private Programador obtenerProgramadorActual() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-
-        Usuario usuario = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-        return programadorRepository.findByUsuarioId(usuario.getId())
-                .orElseThrow(() -> new RuntimeException("No tienes perfil de programador"));
-    }
+    private SerieAsesoriasService serieAsesoriasService;
 
     // ======================
     // RESUMEN
     // ======================
+    @PresupuestoConsultas(1)
     @GetMapping("/resumen")
-    public Map<String, Object> resumen() {
-        Programador p = obtenerProgramadorActual();
-        UUID id = p.getId();
+    public Map<String, Object> resumen(UsuarioActual usuario) {
+        UUID id = usuario.requerirProgramador();
+
+        // una fila por programador (asesoria_contadores), al día en cada cambio
+        ContadoresAsesoriaService.Resumen r = contadoresAsesoriaService.resumen(id);
 
         Map<String, Object> resp = new HashMap<>();
-        resp.put("total", asesoriaRepository.countByProgramadorId(id));
-        resp.put("pendientes", asesoriaRepository.countByProgramadorIdAndEstado(id, "pendiente"));
-        resp.put("aprobadas", asesoriaRepository.countByProgramadorIdAndEstado(id, "aprobada"));
-        resp.put("rechazadas", asesoriaRepository.countByProgramadorIdAndEstado(id, "rechazada"));
+        resp.put("total", r.total());
+        resp.put("pendientes", r.de(EstadoAsesoria.PENDIENTE));
+        resp.put("aprobadas", r.de(EstadoAsesoria.APROBADA));
+        resp.put("rechazadas", r.de(EstadoAsesoria.RECHAZADA));
 
         return resp;
     }
@@ -61,9 +49,21 @@ public class DashboardProgramadorController {
     // ======================
     // SERIE PARA GRÁFICO
     // ======================
+    // bucket=day|week|month, desde/hasta opcionales (yyyy-MM-dd)
+    @PresupuestoConsultas(1)
     @GetMapping("/serie")
-    public List<Map<String, Object>> seriePorFecha() {
-        Programador p = obtenerProgramadorActual();
-        return asesoriaRepository.countPorFecha(p.getId());
+    public ResponseEntity<?> seriePorFecha(@RequestParam(defaultValue = "day") String bucket,
+                                           @RequestParam(required = false) String desde,
+                                           @RequestParam(required = false) String hasta,
+                                           UsuarioActual usuario) {
+        try {
+            List<PuntoSerieDTO> serie = serieAsesoriasService.serie(usuario.requerirProgramador(),
+                    SerieAsesoriasService.Bucket.desde(bucket),
+                    desde != null ? LocalDate.parse(desde) : null,
+                    hasta != null ? LocalDate.parse(hasta) : null);
+            return ResponseEntity.ok(serie);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 }
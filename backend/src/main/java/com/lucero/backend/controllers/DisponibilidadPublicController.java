@@ -1,5 +1,6 @@
 package com.lucero.backend.controllers;
 
+import com.lucero.backend.consultas.PresupuestoConsultas;
 import com.lucero.backend.models.Disponibilidad;
 import com.lucero.backend.repositories.DisponibilidadRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +21,7 @@ public class DisponibilidadPublicController {
     // PÚBLICO: listar disponibilidad ACTIVA de un programador
     // GET /api/disponibilidades/programador/{id}
     // ==================================================
+    @PresupuestoConsultas(3)
     @GetMapping("/programador/{id}")
     public List<Disponibilidad> listarActivasPorProgramador(@PathVariable UUID id) {
         return disponibilidadRepository.findByProgramadorIdAndActivoTrue(id);
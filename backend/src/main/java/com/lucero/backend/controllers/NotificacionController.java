@@ -1,8 +1,11 @@
 package com.lucero.backend.controllers;
 
+import com.lucero.backend.consultas.PresupuestoConsultas;
 import com.lucero.backend.models.Notificacion;
 import com.lucero.backend.repositories.NotificacionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -15,8 +18,20 @@ public class NotificacionController {
     @Autowired
     private NotificacionRepository notificacionRepository;
 
+    // Paginado por cursor (programadaPara, id); estado opcional: PENDIENTE, ENVIADO, DEAD...
+    @PresupuestoConsultas(1)
     @GetMapping
-    public List<Notificacion> listar() {
-        return notificacionRepository.findAll();
+    public ResponseEntity<?> listar(@RequestParam(required = false) Integer limit,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) String estado) {
+        try {
+            int limite = Paginacion.limite(limit);
+            Paginacion.Cursor c = Paginacion.Cursor.leer(cursor);
+            List<Notificacion> filas = notificacionRepository.paginaDespuesDe(c.marca(), c.id(),
+                    estado != null ? estado.toUpperCase() : null, Limit.of(limite + 1));
+            return Paginacion.responder(filas, limite, n -> new Paginacion.Cursor(n.getProgramadaPara(), n.getId()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,79 @@
+package com.lucero.backend.controllers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Paginación por cursor (keyset) común a los listados.
+ * Contrato: ?limit=N&cursor=... ; el cuerpo sigue siendo un arreglo y, si hay
+ * más filas, la respuesta trae "Link: <url>; rel=\"next\"" y "X-Next-Cursor".
+ * El cursor es opaco (base64url de "marca|id") y las consultas buscan por
+ * (marca, id) < (cursor) con ORDER BY marca DESC, id DESC: nunca OFFSET.
+ * Sin ?limit se aplica siempre LIMITE_POR_DEFECTO: ninguna respuesta crece
+ * con la tabla; el cliente que quiera todo sigue el Link.
+ */
+final class Paginacion {
+
+    static final int LIMITE_POR_DEFECTO = 50;
+    static final int LIMITE_MAXIMO = 200;
+
+    record Cursor(LocalDateTime marca, UUID id) {
+
+        // Primera página: mayor que cualquier fila real, así la consulta es siempre la misma
+        static final Cursor INICIO = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+                new UUID(-1L, -1L));
+
+        String codificar() {
+            String plano = marca + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor leer(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return INICIO;
+            }
+            try {
+                String plano = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = plano.indexOf('|');
+                return new Cursor(LocalDateTime.parse(plano.substring(0, sep)), UUID.fromString(plano.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Cursor inválido");
+            }
+        }
+    }
+
+    private Paginacion() {
+    }
+
+    static int limite(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return LIMITE_POR_DEFECTO;
+        }
+        return Math.min(limit, LIMITE_MAXIMO);
+    }
+
+    // filas: la consulta se hace con limite + 1 para saber si hay otra página sin contar
+    static <T> ResponseEntity<List<T>> responder(List<T> filas, int limite, Function<T, Cursor> cursorDe) {
+        if (filas.size() <= limite) {
+            return ResponseEntity.ok(filas);
+        }
+        List<T> pagina = filas.subList(0, limite);
+        String siguiente = cursorDe.apply(pagina.get(limite - 1)).codificar();
+        String url = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", siguiente)
+                .replaceQueryParam("limit", limite)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + url + ">; rel=\"next\"")
+                .header("X-Next-Cursor", siguiente)
+                .body(List.copyOf(pagina));
+    }
+}
@@ -2,22 +2,32 @@ package com.lucero.backend.controllers;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucero.backend.consultas.PresupuestoConsultas;
 import com.lucero.backend.dto.ProgramadorPublicoDTO;
 import com.lucero.backend.models.Programador;
 import com.lucero.backend.models.Usuario;
-import com.lucero.backend.repositories.AsesoriaRepository;
 import com.lucero.backend.repositories.ProgramadorRepository;
 import com.lucero.backend.repositories.UsuarioRepository;
+import com.lucero.backend.security.HashingSaturadoException;
+import com.lucero.backend.security.UsuarioActualResolver;
+import com.lucero.backend.services.CatalogoSnapshotService;
+import com.lucero.backend.services.ImportacionProgramadoresService;
+import com.lucero.backend.services.MotorDisponibilidad;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/programadores")
@@ -30,70 +40,98 @@ public class ProgramadorController {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
-    @Autowired
-    private AsesoriaRepository asesoriaRepository;
-
     @Autowired
     private ObjectMapper objectMapper;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CatalogoSnapshotService catalogoSnapshot;
+
+    @Autowired
+    private MotorDisponibilidad motorDisponibilidad;
+
+    @Autowired
+    private UsuarioActualResolver usuarioActualResolver;
+
+    @Autowired
+    private ImportacionProgramadoresService importacionService;
+
     // -------------------------
     // GET
     // -------------------------
+    // Catálogo público con paginación keyset opcional: ?after=<id>&limit=
+    // Se sirve desde el snapshot en memoria; con If-None-Match vigente responde 304.
+    @PresupuestoConsultas(2)
     @GetMapping
-    public List<ProgramadorPublicoDTO> obtenerTodos() {
-        return programadorRepository.findAll()
-                .stream()
-                .map(this::convertirADTO)
-                .toList();
+    public ResponseEntity<byte[]> obtenerTodos(
+            @RequestParam(value = "after", required = false) UUID after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(catalogoSnapshot.etagActual())) {
+            return null;
+        }
+        CatalogoSnapshotService.Lista lista = catalogoSnapshot.listar(after, limit);
+        return ResponseEntity.ok()
+                .eTag(lista.etag())
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(lista.json());
     }
 
+    @PresupuestoConsultas(1)
     @GetMapping("/{id}")
-    public ProgramadorPublicoDTO obtenerUno(@PathVariable UUID id) {
-        Programador p = programadorRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("No encontrado"));
-        return convertirADTO(p);
+    public ResponseEntity<byte[]> obtenerUno(@PathVariable UUID id, WebRequest request) {
+        CatalogoSnapshotService.Entrada entrada = catalogoSnapshot.obtener(id).orElse(null);
+        if (entrada == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(entrada.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(entrada.etag())
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entrada.json());
+    }
+
+    // -------------------------
+    // ¿Quién está libre? (fecha, hora opcional, especialidad opcional)
+    // -------------------------
+    @PresupuestoConsultas(3)
+    @GetMapping("/libres")
+    public ResponseEntity<?> obtenerLibres(
+            @RequestParam("fecha") String fechaStr,
+            @RequestParam(value = "hora", required = false) String horaStr,
+            @RequestParam(value = "especialidad", required = false) String especialidad
+    ) {
+        try {
+            LocalDate fecha = LocalDate.parse(fechaStr);
+            LocalTime hora = (horaStr != null && !horaStr.isBlank()) ? LocalTime.parse(horaStr) : null;
+            return ResponseEntity.ok(motorDisponibilidad.programadoresLibres(fecha, hora, especialidad));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     // -------------------------
     // Slots por fecha
     // -------------------------
-    @GetMapping("/{id}/slots")
+    @PresupuestoConsultas(2)
+    @GetMapping(value = "/{id}/slots", params = "fecha")
     public ResponseEntity<List<String>> obtenerSlotsDisponibles(
             @PathVariable UUID id,
             @RequestParam("fecha") String fechaStr
     ) {
         try {
-            Programador p = programadorRepository.findById(id)
-                    .orElseThrow(() -> new RuntimeException("Programador no encontrado"));
-
-            List<String> horasConfiguradas = p.getHorasDisponibles();
-            if (horasConfiguradas == null || horasConfiguradas.isEmpty()) {
-                return ResponseEntity.ok(Collections.emptyList());
+            if (!programadorRepository.existsById(id)) {
+                throw new RuntimeException("Programador no encontrado");
             }
-
             LocalDate fecha = LocalDate.parse(fechaStr);
-            var citasAgendadas = asesoriaRepository.findByProgramadorIdAndFecha(id, fecha);
-
-            List<String> horasOcupadas = citasAgendadas.stream()
-                    .map(cita -> {
-                        String h = cita.getHora().toString();
-                        return h.length() > 5 ? h.substring(0, 5) : h;
-                    })
-                    .collect(Collectors.toList());
-
-            List<String> slotsLibres = new ArrayList<>();
-            for (String hora : horasConfiguradas) {
-                String horaSimple = hora.length() > 5 ? hora.substring(0, 5) : hora;
-                if (!horasOcupadas.contains(horaSimple)) {
-                    slotsLibres.add(horaSimple);
-                }
-            }
-
-            Collections.sort(slotsLibres);
-            return ResponseEntity.ok(slotsLibres);
+            return ResponseEntity.ok(motorDisponibilidad.slotsLibres(id, fecha, fecha).get(fecha));
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -101,9 +139,36 @@ public class ProgramadorController {
         }
     }
 
+    // -------------------------
+    // Slots por rango (varias semanas en una sola llamada)
+    // -------------------------
+    @PresupuestoConsultas(2)
+    @GetMapping(value = "/{id}/slots", params = { "desde", "hasta" })
+    public ResponseEntity<?> obtenerSlotsPorRango(
+            @PathVariable UUID id,
+            @RequestParam("desde") String desdeStr,
+            @RequestParam("hasta") String hastaStr
+    ) {
+        try {
+            if (!programadorRepository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
+            Map<LocalDate, List<String>> slots = motorDisponibilidad.slotsLibres(
+                    id, LocalDate.parse(desdeStr), LocalDate.parse(hastaStr));
+
+            Map<String, List<String>> respuesta = new LinkedHashMap<>();
+            slots.forEach((fecha, horas) -> respuesta.put(fecha.toString(), horas));
+            return ResponseEntity.ok(respuesta);
+
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
     // -------------------------
     // POST (crear)
     // -------------------------
+    @PresupuestoConsultas(4)
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> crearProgramador(
             @RequestParam(value = "file", required = false) MultipartFile file,
@@ -167,17 +232,46 @@ public class ProgramadorController {
             }
 
             Programador guardado = programadorRepository.save(p);
-            return ResponseEntity.ok(convertirADTO(guardado)); // ✅ devuelve DTO
+            ProgramadorPublicoDTO dto = ProgramadorPublicoDTO.desde(guardado);
+            catalogoSnapshot.actualizar(dto);
+            motorDisponibilidad.invalidar(guardado.getId());
+            return ResponseEntity.ok(dto); // ✅ devuelve DTO
 
+        } catch (HashingSaturadoException e) {
+            throw e; // 429 en hashingSaturado(), no un 400
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.badRequest().body("Error al crear: " + e.getMessage());
         }
     }
 
+    // -------------------------
+    // POST importación masiva
+    // -------------------------
+    // Cuerpo CSV (con encabezado) o NDJSON; responde el resultado de cada fila
+    @PresupuestoConsultas(4)
+    @PostMapping(value = "/importar", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<?> importarProgramadores(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream cuerpo
+    ) {
+        try {
+            ImportacionProgramadoresService.Formato formato =
+                    MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                            ? ImportacionProgramadoresService.Formato.NDJSON
+                            : ImportacionProgramadoresService.Formato.CSV;
+            return ResponseEntity.ok(importacionService.importar(cuerpo, formato));
+        } catch (HashingSaturadoException e) {
+            throw e; // otra importación en curso: 429 en hashingSaturado()
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error al importar: " + e.getMessage());
+        }
+    }
+
     // -------------------------
     // PUT (actualizar)
     // -------------------------
+    @PresupuestoConsultas(5)
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> actualizarProgramador(
             @PathVariable UUID id,
@@ -231,7 +325,10 @@ public class ProgramadorController {
             }
 
             Programador guardado = programadorRepository.save(p);
-            return ResponseEntity.ok(convertirADTO(guardado)); // ✅ devuelve DTO
+            ProgramadorPublicoDTO dto = ProgramadorPublicoDTO.desde(guardado);
+            catalogoSnapshot.actualizar(dto);
+            motorDisponibilidad.invalidar(guardado.getId());
+            return ResponseEntity.ok(dto); // ✅ devuelve DTO
 
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error al editar: " + e.getMessage());
@@ -241,6 +338,7 @@ public class ProgramadorController {
     // -------------------------
     // DELETE
     // -------------------------
+    @PresupuestoConsultas(4)
     @DeleteMapping("/{id}")
     public ResponseEntity<?> eliminarProgramador(@PathVariable UUID id) {
         try {
@@ -254,7 +352,10 @@ public class ProgramadorController {
 
             if (u != null) {
                 usuarioRepository.delete(u);
+                usuarioActualResolver.invalidar(u.getEmail());
             }
+            catalogoSnapshot.eliminar(id);
+            motorDisponibilidad.invalidar(id);
 
             Map<String, String> response = new HashMap<>();
             response.put("mensaje", "Programador eliminado correctamente");
@@ -267,33 +368,11 @@ public class ProgramadorController {
         }
     }
 
-    // -------------------------
-    // DTO CONVERTER (COMPLETO)
-    // -------------------------
-    private ProgramadorPublicoDTO convertirADTO(Programador p) {
-        Usuario u = p.getUsuario();
-
-        String nombre = (u != null && u.getNombre() != null) ? u.getNombre() : "Sin Nombre";
-        String foto = (u != null) ? u.getFotoUrl() : null;
-        UUID usuarioId = (u != null) ? u.getId() : null;
-
-        return new ProgramadorPublicoDTO(
-                p.getId(),
-                nombre,
-                foto,
-                p.getEspecialidad(),
-                p.getDescripcion(),
-
-                // ✅ campos extra que tu front usa
-                p.getEmailContacto(),
-                p.getWhatsapp(),
-                p.getGithub(),
-                p.getLinkedin(),
-                p.getPortafolio(),
-
-                p.getDisponibilidadTexto(),
-                p.getHorasDisponibles(),
-                usuarioId
-        );
+    // Cola de BCrypt llena al crear el usuario: igual que en AuthController
+    @ExceptionHandler(HashingSaturadoException.class)
+    public ResponseEntity<Map<String, String>> hashingSaturado(HashingSaturadoException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "2")
+                .body(Map.of("error", e.getMessage()));
     }
 }
@@ -1,16 +1,15 @@
 package com.lucero.backend.controllers;
 
+import com.lucero.backend.consultas.PresupuestoConsultas;
 import com.lucero.backend.models.Programador;
 import com.lucero.backend.models.Proyecto;
-import com.lucero.backend.models.Usuario;
 import com.lucero.backend.repositories.ProgramadorRepository;
 import com.lucero.backend.repositories.ProyectoRepository;
-import com.lucero.backend.repositories.UsuarioRepository;
+import com.lucero.backend.security.UsuarioActual;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -25,31 +24,27 @@ public class ProyectoController {
     @Autowired
     private ProyectoRepository proyectoRepository;
 
-    @Autowired
-    private UsuarioRepository usuarioRepository;
-
     @Autowired
     private ProgramadorRepository programadorRepository;
 
-    // --- MÉTODO AUXILIAR PARA OBTENER EL PROGRAMADOR LOGUEADO ---
-    private Programador obtenerProgramadorActual() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-
-        Usuario usuario = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-        return programadorRepository.findByUsuarioId(usuario.getId())
-                .orElseThrow(() -> new RuntimeException("No tienes perfil de programador creado."));
-    }
-
     // 1. OBTENER TODOS (Público o restringido según tu SecurityConfig)
+    // Paginado por cursor: ?limit=&cursor= (ver Paginacion)
+    @PresupuestoConsultas(2)
     @GetMapping
-    public List<Proyecto> obtenerTodos() {
-        return proyectoRepository.findAll();
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) String cursor) {
+        try {
+            int limite = Paginacion.limite(limit);
+            Paginacion.Cursor c = Paginacion.Cursor.leer(cursor);
+            List<Proyecto> filas = proyectoRepository.paginaDespuesDe(c.marca(), c.id(), Limit.of(limite + 1));
+            return Paginacion.responder(filas, limite, p -> new Paginacion.Cursor(p.getCreadoEn(), p.getId()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     // 2. OBTENER UN PROYECTO POR ID
+    @PresupuestoConsultas(2)
     @GetMapping("/{id}")
     public ResponseEntity<?> obtenerUno(@PathVariable UUID id) {
         return proyectoRepository.findById(id)
@@ -58,10 +53,13 @@ public class ProyectoController {
     }
 
     // 3. CREAR PROYECTO (Asignado al Programador logueado)
+    @PresupuestoConsultas(3)
     @PostMapping
-    public ResponseEntity<?> crearProyecto(@RequestBody Proyecto proyecto) {
+    public ResponseEntity<?> crearProyecto(@RequestBody Proyecto proyecto, UsuarioActual usuario) {
         try {
-            Programador programador = obtenerProgramadorActual(); // Usamos el método auxiliar
+            // el id viene del token; la entidad se carga porque la respuesta la serializa
+            Programador programador = programadorRepository.findById(usuario.requerirProgramador())
+                    .orElseThrow(() -> new RuntimeException("No tienes perfil de programador creado."));
 
             proyecto.setProgramador(programador);
             proyecto.setCreadoEn(LocalDateTime.now());
@@ -76,8 +74,10 @@ public class ProyectoController {
     }
 
     // 4. ACTUALIZAR PROYECTO (¡Con seguridad de propiedad!)
+    @PresupuestoConsultas(3)
     @PutMapping("/{id}")
-    public ResponseEntity<?> actualizarProyecto(@PathVariable UUID id, @RequestBody Proyecto detalles) {
+    public ResponseEntity<?> actualizarProyecto(@PathVariable UUID id, @RequestBody Proyecto detalles,
+                                                UsuarioActual usuario) {
         Proyecto proyecto = proyectoRepository.findById(id)
                 .orElse(null);
 
@@ -87,8 +87,7 @@ public class ProyectoController {
 
         // VERIFICACIÓN DE SEGURIDAD:
         // ¿El usuario que intenta editar es el dueño del proyecto?
-        Programador programadorActual = obtenerProgramadorActual();
-        if (!proyecto.getProgramador().getId().equals(programadorActual.getId())) {
+        if (!proyecto.getProgramador().getId().equals(usuario.requerirProgramador())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("No tienes permiso para editar este proyecto.");
         }
 
@@ -107,8 +106,9 @@ public class ProyectoController {
     }
 
     // 5. ELIMINAR PROYECTO (¡Con seguridad de propiedad!)
+    @PresupuestoConsultas(2)
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> eliminarProyecto(@PathVariable UUID id) {
+    public ResponseEntity<?> eliminarProyecto(@PathVariable UUID id, UsuarioActual usuario) {
         Proyecto proyecto = proyectoRepository.findById(id)
                 .orElse(null);
 
@@ -117,8 +117,7 @@ public class ProyectoController {
         }
 
         // VERIFICACIÓN DE SEGURIDAD
-        Programador programadorActual = obtenerProgramadorActual();
-        if (!proyecto.getProgramador().getId().equals(programadorActual.getId())) {
+        if (!proyecto.getProgramador().getId().equals(usuario.requerirProgramador())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("No tienes permiso para eliminar este proyecto.");
         }
 
@@ -127,6 +126,7 @@ public class ProyectoController {
     }
 
     // 6. OBTENER PORTAFOLIO DE UN PROGRAMADOR ESPECÍFICO
+    @PresupuestoConsultas(3)
     @GetMapping("/programador/{id}")
     public List<Proyecto> obtenerPorProgramador(@PathVariable UUID id) {
         return proyectoRepository.findByProgramadorId(id);
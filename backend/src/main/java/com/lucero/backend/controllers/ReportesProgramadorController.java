@@ -1,23 +1,25 @@
 package com.lucero.backend.controllers;
 
-import com.itextpdf.kernel.pdf.*;
-import com.itextpdf.layout.Document;
-import com.itextpdf.layout.element.Paragraph;
-// Quitamos el import general de layout.element para evitar conflictos con 'Table'
-// import com.itextpdf.layout.element.*; 
-
-import com.lucero.backend.models.*;
-import com.lucero.backend.repositories.*;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.lucero.backend.consultas.PresupuestoConsultas;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.security.UsuarioActual;
+import com.lucero.backend.services.ColaReportesLlenaException;
+import com.lucero.backend.services.FormatoReporte;
+import com.lucero.backend.services.ReporteAsesoriasService;
+import com.lucero.backend.services.ReporteJobService;
+import com.lucero.backend.services.ReporteJobService.ReporteJob;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/programador/reportes")
@@ -25,120 +27,130 @@ import java.util.List;
 public class ReportesProgramadorController {
 
     @Autowired
-    private AsesoriaRepository asesoriaRepository;
+    private ReporteAsesoriasService reporteAsesoriasService;
     @Autowired
-    private UsuarioRepository usuarioRepository;
-    @Autowired
-    private ProgramadorRepository programadorRepository;
-
-    // =====================
-    // AUX: Programador actual
-    // =====================
-    private Programador obtenerProgramadorActual() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-
-        Usuario u = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-        return programadorRepository.findByUsuarioId(u.getId())
-                .orElseThrow(() -> new RuntimeException("No eres programador"));
-    }
+    private ReporteJobService reporteJobService;
 
     // =====================
     // PDF
     // =====================
+    // El archivo se escribe directo a la respuesta mientras se leen las filas;
+    // el programador se resuelve antes porque el cuerpo corre en otro hilo.
+    @PresupuestoConsultas(1)
     @GetMapping("/pdf")
-    public ResponseEntity<byte[]> reportePdf() {
-        Programador p = obtenerProgramadorActual();
-        List<Asesoria> asesorias = asesoriaRepository.findByProgramadorIdOrderByFechaAscHoraAsc(p.getId());
-
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(baos);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document doc = new Document(pdf);
-
-            doc.add(new Paragraph("Reporte de Asesorías")
-                    .setBold().setFontSize(16));
-            doc.add(new Paragraph("Programador: " + p.getUsuario().getNombre()));
-            doc.add(new Paragraph(" "));
-
-            // DEFINIMOS EL ANCHO DE LAS 5 COLUMNAS
-            float[] pointColumnWidths = { 100F, 100F, 150F, 150F, 100F };
-
-            // USAMOS EL NOMBRE COMPLETO PARA EVITAR CONFLICTO CON EXCEL
-            com.itextpdf.layout.element.Table table = new com.itextpdf.layout.element.Table(pointColumnWidths);
-
-            table.addHeaderCell("Fecha");
-            table.addHeaderCell("Hora");
-            table.addHeaderCell("Solicitante");
-            table.addHeaderCell("Email");
-            table.addHeaderCell("Estado");
-
-            for (Asesoria a : asesorias) {
-                table.addCell(a.getFecha().toString());
-                table.addCell(a.getHora().toString());
-                table.addCell(a.getNombreSolicitante());
-                table.addCell(a.getEmailSolicitante());
-                table.addCell(a.getEstado());
-            }
-
-            doc.add(table);
-            doc.close();
+    public ResponseEntity<StreamingResponseBody> reportePdf(UsuarioActual usuario) {
+        UUID programadorId = usuario.requerirProgramador();
+        String nombre = usuario.nombre();
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=asesorias.pdf")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(baos.toByteArray());
+        StreamingResponseBody cuerpo = out -> reporteAsesoriasService.escribirPdf(programadorId, nombre, out);
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
-        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=asesorias.pdf")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(cuerpo);
     }
 
     // =====================
     // EXCEL
     // =====================
+    @PresupuestoConsultas(1)
     @GetMapping("/excel")
-    public ResponseEntity<byte[]> reporteExcel() {
-        Programador p = obtenerProgramadorActual();
-        List<Asesoria> asesorias = asesoriaRepository.findByProgramadorIdOrderByFechaAscHoraAsc(p.getId());
+    public ResponseEntity<StreamingResponseBody> reporteExcel(UsuarioActual usuario) {
+        UUID programadorId = usuario.requerirProgramador();
 
-        try (Workbook workbook = new XSSFWorkbook();
-                ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+        StreamingResponseBody cuerpo = out -> reporteAsesoriasService.escribirExcel(programadorId, out);
 
-            Sheet sheet = workbook.createSheet("Asesorías");
-            Row header = sheet.createRow(0);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=asesorias.xlsx")
+                .contentType(MediaType
+                        .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(cuerpo);
+    }
 
-            String[] cols = { "Fecha", "Hora", "Solicitante", "Email", "Estado" };
-            for (int i = 0; i < cols.length; i++) {
-                header.createCell(i).setCellValue(cols[i]);
-            }
+    // =====================
+    // JOBS (generación en segundo plano)
+    // =====================
+    @PresupuestoConsultas(1)
+    @PostMapping("/jobs")
+    public ResponseEntity<?> crearJob(@RequestParam(defaultValue = "pdf") String formato,
+                                      @RequestParam(required = false) String desde,
+                                      @RequestParam(required = false) String hasta,
+                                      @RequestParam(required = false) String estado,
+                                      UsuarioActual usuario) {
+        try {
+            ReporteAsesoriasService.Filtro filtro = new ReporteAsesoriasService.Filtro(
+                    desde != null ? LocalDate.parse(desde) : null,
+                    hasta != null ? LocalDate.parse(hasta) : null,
+                    EstadoAsesoria.filtro(estado));
+
+            ReporteJob job = reporteJobService.encolar(usuario.requerirProgramador(), usuario.nombre(),
+                    FormatoReporte.desde(formato), filtro);
+
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/api/programador/reportes/jobs/" + job.getId())
+                    .body(estadoJob(job));
+        } catch (ColaReportesLlenaException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
 
-            int rowIdx = 1;
-            for (Asesoria a : asesorias) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(a.getFecha().toString());
-                row.createCell(1).setCellValue(a.getHora().toString());
-                row.createCell(2).setCellValue(a.getNombreSolicitante());
-                row.createCell(3).setCellValue(a.getEmailSolicitante());
-                row.createCell(4).setCellValue(a.getEstado());
-            }
+    @PresupuestoConsultas(1)
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> verJob(@PathVariable UUID id, UsuarioActual usuario) {
+        return reporteJobService.obtener(id, usuario.requerirProgramador())
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(estadoJob(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
 
-            workbook.write(baos);
+    @PresupuestoConsultas(1)
+    @GetMapping("/jobs/{id}/archivo")
+    public void descargarJob(@PathVariable UUID id, UsuarioActual usuario,
+                             HttpServletResponse response) throws IOException {
+        ReporteJob job = reporteJobService.obtener(id, usuario.requerirProgramador()).orElse(null);
+        if (job == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (job.getEstado() != ReporteJobService.EstadoJob.LISTO) {
+            response.sendError(HttpServletResponse.SC_CONFLICT, "El reporte todavía no está listo");
+            return;
+        }
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=asesorias.xlsx")
-                    .contentType(MediaType
-                            .parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(baos.toByteArray());
+        try {
+            long tamanio = reporteJobService.tamanio(job);
+            response.setContentType(job.getFormato().getContentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=asesorias." + job.getFormato().getExtension());
+            response.setContentLengthLong(tamanio);
+            reporteJobService.transferir(job, response.getOutputStream());
+        } catch (NoSuchFileException e) {
+            // la limpieza ya borró el archivo: hay que pedir el reporte de nuevo
+            if (!response.isCommitted()) {
+                response.sendError(HttpServletResponse.SC_GONE, "El reporte ya no está disponible, vuelva a generarlo");
+            }
+        }
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
+    private Map<String, Object> estadoJob(ReporteJob job) {
+        Map<String, Object> r = new LinkedHashMap<>();
+        r.put("id", job.getId());
+        r.put("estado", job.getEstado());
+        r.put("formato", job.getFormato().getExtension());
+        r.put("desdeCache", job.isDesdeCache());
+        r.put("creadoEn", job.getCreadoEn());
+        r.put("terminadoEn", job.getTerminadoEn());
+        if (job.getError() != null) {
+            r.put("error", job.getError());
+        }
+        if (job.getEstado() == ReporteJobService.EstadoJob.LISTO) {
+            r.put("descarga", "/api/programador/reportes/jobs/" + job.getId() + "/archivo");
         }
+        return r;
     }
-}
\ No newline at end of file
+}
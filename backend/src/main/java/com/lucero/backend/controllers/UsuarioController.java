@@ -1,8 +1,11 @@
 package com.lucero.backend.controllers;
 
+import com.lucero.backend.consultas.PresupuestoConsultas;
 import com.lucero.backend.models.Usuario;
 import com.lucero.backend.repositories.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -15,8 +18,18 @@ public class UsuarioController {
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    // Paginado por cursor: ?limit=&cursor= (ver Paginacion)
+    @PresupuestoConsultas(1)
     @GetMapping
-    public List<Usuario> obtenerTodos() {
-        return usuarioRepository.findAll();
+    public ResponseEntity<?> obtenerTodos(@RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) String cursor) {
+        try {
+            int limite = Paginacion.limite(limit);
+            Paginacion.Cursor c = Paginacion.Cursor.leer(cursor);
+            List<Usuario> filas = usuarioRepository.paginaDespuesDe(c.marca(), c.id(), Limit.of(limite + 1));
+            return Paginacion.responder(filas, limite, u -> new Paginacion.Cursor(u.getCreadoEn(), u.getId()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
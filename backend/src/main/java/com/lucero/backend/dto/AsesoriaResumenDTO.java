@@ -0,0 +1,35 @@
+package com.lucero.backend.dto;
+
+import com.lucero.backend.models.EstadoAsesoria;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+// Fila de los listados de asesorías: solo lo que muestran las tablas, sin entidades anidadas
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsesoriaResumenDTO {
+
+    private UUID id;
+    private LocalDate fecha;
+    private LocalTime hora;
+    private EstadoAsesoria estado;
+
+    private String nombreSolicitante;
+    private String emailSolicitante;
+    private String telefonoSolicitante;
+    private String comentario;
+    private String respuestaProgramador;
+
+    private UUID programadorId;
+    private String nombreProgramador;
+
+    private LocalDateTime creadoEn;
+    private LocalDateTime respondidoEn;
+}
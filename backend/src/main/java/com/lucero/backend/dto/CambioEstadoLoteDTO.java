@@ -0,0 +1,19 @@
+package com.lucero.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+// Cuerpo de PATCH /api/programador/asesorias (aprobar / rechazar varias a la vez)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioEstadoLoteDTO {
+
+    private List<UUID> ids;
+    private String estado;
+    private String respuestaProgramador;
+}
@@ -0,0 +1,20 @@
+package com.lucero.backend.dto;
+
+import com.lucero.backend.models.EstadoAsesoria;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Endpoint público de horarios tomados: sin datos del solicitante
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HorarioOcupadoDTO {
+
+    private LocalDate fecha;
+    private LocalTime hora;
+    private EstadoAsesoria estado;
+}
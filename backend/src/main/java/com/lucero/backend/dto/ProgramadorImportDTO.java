@@ -0,0 +1,32 @@
+package com.lucero.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Una fila de POST /api/programadores/importar (mismos campos que el alta por formulario)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgramadorImportDTO {
+
+    private String nombre;
+    private String descripcion;
+    private String especialidad;
+
+    // También es el email de login; si viene vacío se genera uno temporal
+    private String emailContacto;
+    private String github;
+    private String linkedin;
+    private String portafolio;
+    private String whatsapp;
+    private String disponibilidad;
+
+    // En CSV: "09:00|10:00|11:00"
+    private List<String> horasDisponibles;
+
+    // Opcional; sin contraseña se usa la por defecto del alta manual
+    private String password;
+}
@@ -0,0 +1,22 @@
+package com.lucero.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgramadorLibreDTO {
+
+    private UUID id;
+    private String nombre;
+    private String foto;
+    private String especialidad;
+
+    // Horarios libres del día pedido ("HH:mm")
+    private List<String> slotsLibres;
+}
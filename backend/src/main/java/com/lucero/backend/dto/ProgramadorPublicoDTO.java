@@ -1,7 +1,10 @@
 package com.lucero.backend.dto;
 
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -59,4 +62,54 @@ public class ProgramadorPublicoDTO {
         this.horasDisponibles = horasDisponibles;
         this.usuarioId = usuarioId;
     }
+
+    // Constructor para la proyección JPQL del catálogo: las horas se cargan
+    // aparte en una sola consulta y se asignan después.
+    public ProgramadorPublicoDTO(
+            UUID id,
+            String nombre,
+            String foto,
+            String especialidad,
+            String descripcion,
+            String emailContacto,
+            String whatsapp,
+            String github,
+            String linkedin,
+            String portafolio,
+            String disponibilidad,
+            UUID usuarioId
+    ) {
+        this(id, nombre, foto, especialidad, descripcion, emailContacto, whatsapp,
+                github, linkedin, portafolio, disponibilidad, new ArrayList<>(), usuarioId);
+    }
+
+    // Desde la entidad ya cargada (alta y edición). Estático y sin dependencias,
+    // así se puede medir aparte (src/jmh: CatalogoBenchmark)
+    public static ProgramadorPublicoDTO desde(Programador p) {
+        Usuario u = p.getUsuario();
+
+        String nombre = (u != null && u.getNombre() != null) ? u.getNombre() : "Sin Nombre";
+        String foto = (u != null) ? u.getFotoUrl() : null;
+        UUID usuarioId = (u != null) ? u.getId() : null;
+
+        return new ProgramadorPublicoDTO(
+                p.getId(),
+                nombre,
+                foto,
+                p.getEspecialidad(),
+                p.getDescripcion(),
+
+                // ✅ campos extra que tu front usa
+                p.getEmailContacto(),
+                p.getWhatsapp(),
+                p.getGithub(),
+                p.getLinkedin(),
+                p.getPortafolio(),
+
+                p.getDisponibilidadTexto(),
+                // copia: el DTO puede quedar guardado en el snapshot del catálogo
+                p.getHorasDisponibles() != null ? new ArrayList<>(p.getHorasDisponibles()) : new ArrayList<>(),
+                usuarioId
+        );
+    }
 }
@@ -0,0 +1,20 @@
+package com.lucero.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PuntoSerieDTO {
+
+    // Inicio del bucket (el día, el lunes de la semana o el día 1 del mes)
+    private LocalDate fecha;
+    private long total;
+    private long pendientes;
+    private long aprobadas;
+    private long rechazadas;
+}
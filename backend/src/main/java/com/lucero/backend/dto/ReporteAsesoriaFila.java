@@ -0,0 +1,22 @@
+package com.lucero.backend.dto;
+
+import com.lucero.backend.models.EstadoAsesoria;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Una fila de los reportes: solo las columnas que se imprimen
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteAsesoriaFila {
+
+    private LocalDate fecha;
+    private LocalTime hora;
+    private String nombreSolicitante;
+    private String emailSolicitante;
+    private EstadoAsesoria estado;
+}
@@ -0,0 +1,34 @@
+package com.lucero.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoImportacionDTO {
+
+    private int total;
+    private int creados;
+    private int rechazados;
+    private long duracionMs;
+
+    // Una entrada por fila del archivo, en el mismo orden
+    private List<Fila> filas = new ArrayList<>();
+
+    public record Fila(int linea, String email, String estado, UUID programadorId, String error) {
+
+        public static Fila creada(int linea, String email, UUID programadorId) {
+            return new Fila(linea, email, "creado", programadorId, null);
+        }
+
+        public static Fila rechazada(int linea, String email, String error) {
+            return new Fila(linea, email, "error", null, error);
+        }
+    }
+}
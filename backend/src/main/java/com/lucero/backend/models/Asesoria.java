@@ -10,6 +10,7 @@ import java.util.UUID;
 
 @Data
 @Entity
+// Índices en db/migration (Flyway)
 @Table(name = "asesorias")
 public class Asesoria {
 
@@ -20,14 +21,15 @@ public class Asesoria {
     @Column(name = "respondido_en")
     private LocalDateTime respondidoEn;
 
-    @ManyToOne
+    // LAZY: los listados usan AsesoriaResumenDTO; aquí solo se necesita el id
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "programador_id", nullable = false)
-    @JsonIgnoreProperties({ "asesorias", "usuario", "password", "rol" })
+    @JsonIgnoreProperties({ "asesorias", "usuario", "password", "rol", "hibernateLazyInitializer", "handler" })
     private Programador programador;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id")
-    @JsonIgnoreProperties({ "asesorias", "password", "rol" }) // Opcional, por seguridad
+    @JsonIgnoreProperties({ "asesorias", "password", "rol", "hibernateLazyInitializer", "handler" }) // Opcional, por seguridad
     private Usuario usuario;
 
     @Column(name = "nombre_solicitante")
@@ -42,19 +44,22 @@ public class Asesoria {
     private LocalDate fecha;
     private LocalTime hora;
     private String comentario;
-    private String estado;
+
+    @Column(nullable = false)
+    private EstadoAsesoria estado;
 
     @Column(name = "respuesta_programador")
     private String respuestaProgramador;
 
-    @Column(name = "creado_en")
+    // El listado pagina por creado_en: no puede quedar en null (V6)
+    @Column(name = "creado_en", nullable = false)
     private LocalDateTime creadoEn;
 
     @PrePersist
     protected void onCreate() {
         creadoEn = LocalDateTime.now();
         if (estado == null) {
-            estado = "pendiente";
+            estado = EstadoAsesoria.PENDIENTE;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.lucero.backend.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.util.UUID;
+
+// Contadores del resumen del dashboard; los mantiene ContadoresAsesoriaService
+// en la misma transacción que cada alta o cambio de estado (ver V5)
+@Data
+@Entity
+@Table(name = "asesoria_contadores")
+public class ContadorAsesorias {
+
+    @Id
+    @Column(name = "programador_id")
+    private UUID programadorId;
+
+    private long pendientes;
+    private long aprobadas;
+    private long rechazadas;
+
+    public long getTotal() {
+        return pendientes + aprobadas + rechazadas;
+    }
+}
@@ -0,0 +1,87 @@
+package com.lucero.backend.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estado de una asesoría. En la base es un SMALLINT ({@link #getCodigo()}, ver
+ * {@link EstadoAsesoriaConverter}); hacia afuera (JSON, reportes, correos) sigue
+ * siendo el texto de siempre: "pendiente", "aprobada", "rechazada".
+ */
+public enum EstadoAsesoria {
+
+    PENDIENTE((short) 0, "pendiente"),
+    APROBADA((short) 1, "aprobada"),
+    RECHAZADA((short) 2, "rechazada");
+
+    // Transiciones permitidas: solo una pendiente se aprueba o rechaza; después
+    // queda procesada y no se modifica (misma regla que tenía actualizarAsesoria).
+    private static final Map<EstadoAsesoria, Set<EstadoAsesoria>> TRANSICIONES = new EnumMap<>(EstadoAsesoria.class);
+
+    static {
+        TRANSICIONES.put(PENDIENTE, EnumSet.of(APROBADA, RECHAZADA));
+        TRANSICIONES.put(APROBADA, EnumSet.noneOf(EstadoAsesoria.class));
+        TRANSICIONES.put(RECHAZADA, EnumSet.noneOf(EstadoAsesoria.class));
+    }
+
+    private final short codigo;
+    private final String valor;
+
+    EstadoAsesoria(short codigo, String valor) {
+        this.codigo = codigo;
+        this.valor = valor;
+    }
+
+    public short getCodigo() {
+        return codigo;
+    }
+
+    @JsonValue
+    public String getValor() {
+        return valor;
+    }
+
+    public boolean puedePasarA(EstadoAsesoria destino) {
+        return TRANSICIONES.get(this).contains(destino);
+    }
+
+    // Procesada = sin transiciones de salida: ya no se cambia ni el estado ni la respuesta
+    public boolean admiteCambios() {
+        return !TRANSICIONES.get(this).isEmpty();
+    }
+
+    @JsonCreator
+    public static EstadoAsesoria desde(String valor) {
+        String v = valor != null ? valor.trim() : null;
+        for (EstadoAsesoria e : values()) {
+            if (e.valor.equalsIgnoreCase(v)) {
+                return e;
+            }
+        }
+        throw new RuntimeException("Estado no válido: " + valor + " (use pendiente, aprobada o rechazada)");
+    }
+
+    // Parámetro de filtro opcional: null o vacío = todos los estados
+    public static EstadoAsesoria filtro(String valor) {
+        return (valor == null || valor.isBlank()) ? null : desde(valor);
+    }
+
+    public static EstadoAsesoria deCodigo(short codigo) {
+        for (EstadoAsesoria e : values()) {
+            if (e.codigo == codigo) {
+                return e;
+            }
+        }
+        throw new IllegalStateException("Código de estado desconocido en asesorias.estado: " + codigo);
+    }
+
+    @Override
+    public String toString() {
+        return valor;
+    }
+}
@@ -0,0 +1,19 @@
+package com.lucero.backend.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// EstadoAsesoria <-> SMALLINT con códigos fijos (no el ordinal: reordenar el enum no cambia los datos)
+@Converter(autoApply = true)
+public class EstadoAsesoriaConverter implements AttributeConverter<EstadoAsesoria, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(EstadoAsesoria estado) {
+        return estado != null ? estado.getCodigo() : null;
+    }
+
+    @Override
+    public EstadoAsesoria convertToEntityAttribute(Short codigo) {
+        return codigo != null ? EstadoAsesoria.deCodigo(codigo) : null;
+    }
+}
@@ -2,12 +2,14 @@ package com.lucero.backend.models;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
 @Entity
+// Índices en db/migration (Flyway)
 @Table(name = "notificaciones")
 public class Notificacion {
 
@@ -21,15 +23,26 @@ public class Notificacion {
     @Column(nullable = false)
     private String destinatario;
 
+    private String asunto; // solo EMAIL; si es null se usa un asunto genérico
+
     @Column(nullable = false, columnDefinition = "TEXT")
     private String mensaje;
 
     @Column(name = "estado_envio", nullable = false)
-    private String estadoEnvio; // PENDIENTE | ENVIADO | FALLIDO
+    private String estadoEnvio; // PENDIENTE | EN_PROCESO | ENVIADO | DEAD
 
+    // Próximo intento: tras un fallo se mueve según el backoff
     @Column(name = "programada_para", nullable = false)
     private LocalDateTime programadaPara;
 
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int intentos;
+
+    // Mientras está EN_PROCESO: si vence, otra instancia puede reclamarla
+    @Column(name = "lease_hasta")
+    private LocalDateTime leaseHasta;
+
     @Column(name = "enviado_en")
     private LocalDateTime enviadoEn;
 
@@ -7,6 +7,7 @@ import java.util.UUID;
 
 @Data
 @Entity
+// Índices en db/migration (Flyway)
 @Table(name = "proyectos")
 public class Proyecto {
 
@@ -31,6 +32,14 @@ public class Proyecto {
 
     private String estado;
 
-    @Column(name = "creado_en")
+    @Column(name = "creado_en", nullable = false)
     private LocalDateTime creadoEn;
+
+    // El listado pagina por creado_en: no puede quedar en null (V6)
+    @PrePersist
+    protected void onCreate() {
+        if (creadoEn == null) {
+            creadoEn = LocalDateTime.now();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.lucero.backend.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Conteo por programador y día para la serie del dashboard; semana y mes se
+// agrupan al leer. Lo mantiene SerieAsesoriasService (ver V5)
+@Data
+@Entity
+@IdClass(RollupAsesoriaDiario.Clave.class)
+@Table(name = "asesoria_rollup_diario")
+public class RollupAsesoriaDiario {
+
+    @Id
+    @Column(name = "programador_id")
+    private UUID programadorId;
+
+    @Id
+    private LocalDate fecha;
+
+    private long pendientes;
+    private long aprobadas;
+    private long rechazadas;
+
+    public long getTotal() {
+        return pendientes + aprobadas + rechazadas;
+    }
+
+    @Data
+    public static class Clave implements Serializable {
+        private UUID programadorId;
+        private LocalDate fecha;
+    }
+}
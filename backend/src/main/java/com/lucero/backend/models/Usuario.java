@@ -7,6 +7,7 @@ import java.util.UUID;
 
 @Data
 @Entity
+// Índices en db/migration (Flyway)
 @Table(name = "usuarios")
 public class Usuario {
 
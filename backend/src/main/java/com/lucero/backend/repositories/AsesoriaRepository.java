@@ -1,16 +1,27 @@
 package com.lucero.backend.repositories;
 
+import com.lucero.backend.dto.AsesoriaResumenDTO;
+import com.lucero.backend.dto.HorarioOcupadoDTO;
+import com.lucero.backend.dto.ReporteAsesoriaFila;
 import com.lucero.backend.models.Asesoria;
+import com.lucero.backend.models.EstadoAsesoria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.Optional;
-import java.util.Map;
+import java.util.stream.Stream;
 
 public interface AsesoriaRepository extends JpaRepository<Asesoria, UUID> {
 
@@ -21,7 +32,7 @@ public interface AsesoriaRepository extends JpaRepository<Asesoria, UUID> {
 
         List<Asesoria> findByProgramadorIdAndEstado(
                         UUID programadorId,
-                        String estado);
+                        EstadoAsesoria estado);
 
         List<Asesoria> findByProgramadorIdAndFechaBetween(
                         UUID programadorId,
@@ -30,16 +41,115 @@ public interface AsesoriaRepository extends JpaRepository<Asesoria, UUID> {
 
         List<Asesoria> findByProgramadorIdAndEstadoAndFechaBetween(
                         UUID programadorId,
-                        String estado,
+                        EstadoAsesoria estado,
                         LocalDate desde,
                         LocalDate hasta);
 
         List<Asesoria> findByUsuarioId(UUID usuarioId);
 
+        // Listados por cursor (creado_en, id), más nuevas primero; estado opcional.
+        // Proyección a DTO: una sola sentencia con las columnas que muestra la tabla.
+        @Query("""
+                            SELECT new com.lucero.backend.dto.AsesoriaResumenDTO(
+                                a.id, a.fecha, a.hora, a.estado,
+                                a.nombreSolicitante, a.emailSolicitante, a.telefonoSolicitante,
+                                a.comentario, a.respuestaProgramador,
+                                p.id, u.nombre, a.creadoEn, a.respondidoEn)
+                            FROM Asesoria a
+                            JOIN a.programador p
+                            LEFT JOIN p.usuario u
+                            WHERE p.id = :programadorId
+                              AND (a.creadoEn < :marca OR (a.creadoEn = :marca AND a.id < :id))
+                              AND (:estado IS NULL OR a.estado = :estado)
+                            ORDER BY a.creadoEn DESC, a.id DESC
+                        """)
+        List<AsesoriaResumenDTO> paginaDeProgramador(@Param("programadorId") UUID programadorId,
+                        @Param("marca") LocalDateTime marca, @Param("id") UUID id,
+                        @Param("estado") EstadoAsesoria estado, Limit limit);
+
+        @Query("""
+                            SELECT new com.lucero.backend.dto.AsesoriaResumenDTO(
+                                a.id, a.fecha, a.hora, a.estado,
+                                a.nombreSolicitante, a.emailSolicitante, a.telefonoSolicitante,
+                                a.comentario, a.respuestaProgramador,
+                                p.id, u.nombre, a.creadoEn, a.respondidoEn)
+                            FROM Asesoria a
+                            JOIN a.programador p
+                            LEFT JOIN p.usuario u
+                            WHERE a.usuario.id = :usuarioId
+                              AND (a.creadoEn < :marca OR (a.creadoEn = :marca AND a.id < :id))
+                              AND (:estado IS NULL OR a.estado = :estado)
+                            ORDER BY a.creadoEn DESC, a.id DESC
+                        """)
+        List<AsesoriaResumenDTO> paginaDeUsuario(@Param("usuarioId") UUID usuarioId,
+                        @Param("marca") LocalDateTime marca, @Param("id") UUID id,
+                        @Param("estado") EstadoAsesoria estado, Limit limit);
+
         // ESTE ES EL QUE PEDISTE (Ya estaba, lo mantenemos aquí)
         List<Asesoria> findByProgramadorIdOrderByFechaAscHoraAsc(UUID programadorId);
 
-        List<Asesoria> findByProgramadorIdAndFechaAndEstadoNot(UUID programadorId, LocalDate fecha, String estado);
+        // Reportes: cursor de solo avance con fetch size, sin entidades en memoria.
+        // Se debe consumir dentro de una transacción y cerrar el Stream.
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query("""
+                            SELECT new com.lucero.backend.dto.ReporteAsesoriaFila(
+                                a.fecha, a.hora, a.nombreSolicitante, a.emailSolicitante, a.estado)
+                            FROM Asesoria a
+                            WHERE a.programador.id = :programadorId
+                              AND a.fecha BETWEEN :desde AND :hasta
+                              AND (:estado IS NULL OR a.estado = :estado)
+                            ORDER BY a.fecha, a.hora
+                        """)
+        Stream<ReporteAsesoriaFila> streamReporte(@Param("programadorId") UUID programadorId,
+                        @Param("desde") LocalDate desde,
+                        @Param("hasta") LocalDate hasta,
+                        @Param("estado") EstadoAsesoria estado);
+
+        // Versión de los datos de reportes: [cantidad, max creado_en, max respondido_en].
+        // Si no cambia, un reporte ya generado sigue siendo válido.
+        @Query("""
+                            SELECT COUNT(a), MAX(a.creadoEn), MAX(a.respondidoEn)
+                            FROM Asesoria a
+                            WHERE a.programador.id = :programadorId
+                        """)
+        List<Object[]> versionReporte(@Param("programadorId") UUID programadorId);
+
+        List<Asesoria> findByProgramadorIdAndFechaAndEstadoNot(UUID programadorId, LocalDate fecha, EstadoAsesoria estado);
+
+        // Público: horarios tomados de un día, sin datos del solicitante
+        @Query("""
+                            SELECT new com.lucero.backend.dto.HorarioOcupadoDTO(a.fecha, a.hora, a.estado)
+                            FROM Asesoria a
+                            WHERE a.programador.id = :programadorId
+                              AND a.fecha = :fecha
+                              AND a.estado <> com.lucero.backend.models.EstadoAsesoria.RECHAZADA
+                            ORDER BY a.hora
+                        """)
+        List<HorarioOcupadoDTO> findOcupadasDelDia(@Param("programadorId") UUID programadorId,
+                        @Param("fecha") LocalDate fecha);
+
+        // Filtros del programador (estado y/o rango de fechas), como DTO
+        @Query("""
+                            SELECT new com.lucero.backend.dto.AsesoriaResumenDTO(
+                                a.id, a.fecha, a.hora, a.estado,
+                                a.nombreSolicitante, a.emailSolicitante, a.telefonoSolicitante,
+                                a.comentario, a.respuestaProgramador,
+                                p.id, u.nombre, a.creadoEn, a.respondidoEn)
+                            FROM Asesoria a
+                            JOIN a.programador p
+                            LEFT JOIN p.usuario u
+                            WHERE p.id = :programadorId
+                              AND a.fecha BETWEEN :desde AND :hasta
+                              AND (:estado IS NULL OR a.estado = :estado)
+                            ORDER BY a.fecha, a.hora
+                        """)
+        List<AsesoriaResumenDTO> filtrarDeProgramador(@Param("programadorId") UUID programadorId,
+                        @Param("estado") EstadoAsesoria estado,
+                        @Param("desde") LocalDate desde,
+                        @Param("hasta") LocalDate hasta);
 
         Optional<Asesoria> findByProgramadorIdAndFechaAndHora(UUID programadorId, LocalDate fecha,
                         java.time.LocalTime hora);
@@ -48,19 +158,83 @@ public interface AsesoriaRepository extends JpaRepository<Asesoria, UUID> {
                         UUID programadorId,
                         LocalDate fecha,
                         LocalTime hora,
-                        String estado);
-
-        long countByProgramadorIdAndEstado(UUID programadorId, String estado);
+                        EstadoAsesoria estado);
 
-        long countByProgramadorId(UUID programadorId);
-
-        // Serie por fecha (para gráfico)
+        // Horarios tomados (no rechazados) en un rango: [fecha, hora]
         @Query("""
-                            SELECT a.fecha as fecha, COUNT(a) as total
+                            SELECT a.fecha, a.hora
                             FROM Asesoria a
                             WHERE a.programador.id = :programadorId
-                            GROUP BY a.fecha
-                            ORDER BY a.fecha
+                              AND a.fecha BETWEEN :desde AND :hasta
+                              AND a.estado <> com.lucero.backend.models.EstadoAsesoria.RECHAZADA
+                        """)
+        List<Object[]> findHorariosOcupados(@Param("programadorId") UUID programadorId,
+                        @Param("desde") LocalDate desde,
+                        @Param("hasta") LocalDate hasta);
+
+        // Horarios tomados de todos los programadores en un día: [programadorId, hora]
+        @Query("""
+                            SELECT a.programador.id, a.hora
+                            FROM Asesoria a
+                            WHERE a.fecha = :fecha
+                              AND a.estado <> com.lucero.backend.models.EstadoAsesoria.RECHAZADA
+                        """)
+        List<Object[]> findHorariosOcupadosDelDia(@Param("fecha") LocalDate fecha);
+
+        // Cambio de estado condicional: solo si sigue en el estado que se leyó.
+        // 0 filas = otra petición lo cambió primero (o la asesoría no existe).
+        @Modifying
+        @Query("""
+                            UPDATE Asesoria a
+                            SET a.estado = :nuevo,
+                                a.respondidoEn = :ahora,
+                                a.respuestaProgramador = COALESCE(:respuesta, a.respuestaProgramador)
+                            WHERE a.id = :id AND a.estado = :actual
+                        """)
+        int cambiarEstado(@Param("id") UUID id,
+                        @Param("actual") EstadoAsesoria actual,
+                        @Param("nuevo") EstadoAsesoria nuevo,
+                        @Param("respuesta") String respuesta,
+                        @Param("ahora") LocalDateTime ahora);
+
+        // Solo la respuesta del programador, sin tocar el estado ni el resto de la fila;
+        // condicional como cambiarEstado para no escribir sobre una asesoría ya procesada
+        @Modifying
+        @Query("""
+                            UPDATE Asesoria a
+                            SET a.respuestaProgramador = :respuesta
+                            WHERE a.id = :id AND a.estado = :actual
                         """)
-        List<Map<String, Object>> countPorFecha(@Param("programadorId") UUID programadorId);
+        int actualizarRespuesta(@Param("id") UUID id,
+                        @Param("actual") EstadoAsesoria actual,
+                        @Param("respuesta") String respuesta);
+
+        // Cambio masivo: bloquea las filas pedidas (en orden de id, para no cruzarse con
+        // otro lote) así el UPDATE siguiente ve el mismo estado con el que se validaron
+        @Query(value = """
+                            SELECT * FROM asesorias
+                            WHERE id IN (:ids)
+                            ORDER BY id
+                            FOR UPDATE
+                        """, nativeQuery = true)
+        List<Asesoria> bloquearParaCambio(@Param("ids") Collection<UUID> ids);
+
+        // Cambio masivo en una sola sentencia; :desde son los estados que pueden pasar a :nuevo
+        @Modifying
+        @Query("""
+                            UPDATE Asesoria a
+                            SET a.estado = :nuevo,
+                                a.respondidoEn = :ahora,
+                                a.respuestaProgramador = COALESCE(:respuesta, a.respuestaProgramador)
+                            WHERE a.id IN :ids AND a.estado IN :desde
+                        """)
+        int cambiarEstadoEnLote(@Param("ids") Collection<UUID> ids,
+                        @Param("desde") Collection<EstadoAsesoria> desde,
+                        @Param("nuevo") EstadoAsesoria nuevo,
+                        @Param("respuesta") String respuesta,
+                        @Param("ahora") LocalDateTime ahora);
+
+        long countByProgramadorIdAndEstado(UUID programadorId, EstadoAsesoria estado);
+
+        long countByProgramadorId(UUID programadorId);
 }
\ No newline at end of file
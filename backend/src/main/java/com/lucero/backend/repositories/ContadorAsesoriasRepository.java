@@ -0,0 +1,64 @@
+package com.lucero.backend.repositories;
+
+import com.lucero.backend.models.ContadorAsesorias;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ContadorAsesoriasRepository extends JpaRepository<ContadorAsesorias, UUID> {
+
+    // Suma (o resta) en la fila del programador, creándola si no existe. La fila
+    // queda bloqueada hasta confirmar: los cambios de un mismo programador se
+    // aplican de a uno y la reconciliación espera a que terminen.
+    @Modifying
+    @Query("""
+            INSERT INTO ContadorAsesorias c (programadorId, pendientes, aprobadas, rechazadas)
+            VALUES (:programadorId, :pendientes, :aprobadas, :rechazadas)
+            ON CONFLICT (programadorId) DO UPDATE
+            SET pendientes = c.pendientes + excluded.pendientes,
+                aprobadas = c.aprobadas + excluded.aprobadas,
+                rechazadas = c.rechazadas + excluded.rechazadas
+            """)
+    int sumar(@Param("programadorId") UUID programadorId, @Param("pendientes") long pendientes,
+              @Param("aprobadas") long aprobadas, @Param("rechazadas") long rechazadas);
+
+    // ---- Reconciliación ----
+
+    // Recuento real de toda la tabla en una pasada y sin bloquear: [programadorId, estado, cantidad]
+    @Query("""
+            SELECT a.programador.id, a.estado, COUNT(a)
+            FROM Asesoria a
+            GROUP BY a.programador.id, a.estado
+            """)
+    List<Object[]> contarPorProgramadorYEstado();
+
+    // Lo mismo para un solo programador: [estado, cantidad]
+    @Query("""
+            SELECT a.estado, COUNT(a)
+            FROM Asesoria a
+            WHERE a.programador.id = :programadorId
+            GROUP BY a.estado
+            """)
+    List<Object[]> contarDe(@Param("programadorId") UUID programadorId);
+
+    @Modifying
+    @Query("""
+            UPDATE ContadorAsesorias c
+            SET c.pendientes = :pendientes, c.aprobadas = :aprobadas, c.rechazadas = :rechazadas
+            WHERE c.programadorId = :programadorId
+            """)
+    int fijar(@Param("programadorId") UUID programadorId, @Param("pendientes") long pendientes,
+              @Param("aprobadas") long aprobadas, @Param("rechazadas") long rechazadas);
+
+    // Programadores eliminados
+    @Modifying
+    @Query("""
+            DELETE FROM ContadorAsesorias c
+            WHERE NOT EXISTS (SELECT 1 FROM Programador p WHERE p.id = c.programadorId)
+            """)
+    int borrarHuerfanos();
+}
@@ -3,7 +3,10 @@ package com.lucero.backend.repositories;
 import com.lucero.backend.models.Disponibilidad;
 import com.lucero.backend.models.Programador;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,4 +18,20 @@ public interface DisponibilidadRepository extends JpaRepository<Disponibilidad,
 
     List<Disponibilidad> findByProgramadorIdAndActivoTrue(UUID programadorId);
 
+    // Ventanas activas como columnas sueltas: [diaSemana, horaInicio, horaFin]
+    @Query("""
+            SELECT d.diaSemana, d.horaInicio, d.horaFin
+            FROM Disponibilidad d
+            WHERE d.programador.id = :programadorId AND d.activo = true
+            """)
+    List<Object[]> findVentanasActivas(@Param("programadorId") UUID programadorId);
+
+    // Lo mismo para varios programadores: [programadorId, diaSemana, horaInicio, horaFin]
+    @Query("""
+            SELECT d.programador.id, d.diaSemana, d.horaInicio, d.horaFin
+            FROM Disponibilidad d
+            WHERE d.programador.id IN :ids AND d.activo = true
+            """)
+    List<Object[]> findVentanasActivasDeVarios(@Param("ids") Collection<UUID> ids);
+
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.lucero.backend.repositories;
 
 import com.lucero.backend.models.Notificacion;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,4 +19,82 @@ public interface NotificacionRepository extends JpaRepository<Notificacion, UUID
             String estadoEnvio,
             LocalDateTime ahora
     );
+
+    // Listado por cursor (programada_para, id), más recientes primero; estado opcional
+    @Query("""
+            SELECT n FROM Notificacion n
+            WHERE (n.programadaPara < :marca OR (n.programadaPara = :marca AND n.id < :id))
+              AND (:estado IS NULL OR n.estadoEnvio = :estado)
+            ORDER BY n.programadaPara DESC, n.id DESC
+            """)
+    List<Notificacion> paginaDespuesDe(@Param("marca") LocalDateTime marca, @Param("id") UUID id,
+            @Param("estado") String estado, Limit limit);
+
+    // Próximas a vencer (para cargar la rueda de tiempos): [id, programadaPara]
+    @Query("""
+            SELECT n.id, n.programadaPara
+            FROM Notificacion n
+            WHERE n.estadoEnvio = 'PENDIENTE' AND n.programadaPara <= :hasta
+            """)
+    List<Object[]> findPendientesHasta(@Param("hasta") LocalDateTime hasta);
+
+    // Lote de vencidas (incluye reintentos) bloqueado para esta instancia; las filas
+    // que ya bloqueó otra instancia se saltan en vez de esperar.
+    // Rango sobre idx_notificaciones_pendientes (parcial, solo PENDIENTE).
+    @Query(value = """
+            SELECT * FROM notificaciones
+            WHERE estado_envio = 'PENDIENTE' AND programada_para <= :ahora
+            ORDER BY programada_para
+            LIMIT :lote
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Notificacion> bloquearLote(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+
+    // EN_PROCESO con lease vencido (la instancia que la tenía se cayó)
+    @Query(value = """
+            SELECT * FROM notificaciones
+            WHERE estado_envio = 'EN_PROCESO' AND lease_hasta < :ahora
+            LIMIT :lote
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Notificacion> bloquearLeasesVencidos(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+
+    @Modifying
+    @Query("""
+            UPDATE Notificacion n
+            SET n.estadoEnvio = 'EN_PROCESO', n.leaseHasta = :lease
+            WHERE n.id IN :ids
+            """)
+    int marcarEnProceso(@Param("ids") Collection<UUID> ids, @Param("lease") LocalDateTime lease);
+
+    // Reclamo individual: solo gana quien la encuentra todavía PENDIENTE y vencida
+    @Modifying
+    @Query("""
+            UPDATE Notificacion n
+            SET n.estadoEnvio = 'EN_PROCESO', n.leaseHasta = :lease
+            WHERE n.id = :id AND n.estadoEnvio = 'PENDIENTE' AND n.programadaPara <= :ahora
+            """)
+    int reclamar(@Param("id") UUID id, @Param("ahora") LocalDateTime ahora, @Param("lease") LocalDateTime lease);
+
+    // Registro de un envío ya hecho sin pasar por la entidad (ver NotificacionService.registrarEnviado)
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Notificacion n
+            SET n.estadoEnvio = 'ENVIADO', n.leaseHasta = null, n.enviadoEn = :enviadoEn,
+                n.intentos = :intentos, n.error = null
+            WHERE n.id = :id
+            """)
+    int marcarEnviada(@Param("id") UUID id, @Param("intentos") int intentos,
+                      @Param("enviadoEn") LocalDateTime enviadoEn);
+
+    // Gauges de la cola: [estadoEnvio, total, vencidas] de PENDIENTE y EN_PROCESO
+    @Query("""
+            SELECT n.estadoEnvio, COUNT(n),
+                   SUM(CASE WHEN n.programadaPara <= :ahora THEN 1 ELSE 0 END)
+            FROM Notificacion n
+            WHERE n.estadoEnvio IN ('PENDIENTE', 'EN_PROCESO')
+            GROUP BY n.estadoEnvio
+            """)
+    List<Object[]> contarBacklog(@Param("ahora") LocalDateTime ahora);
 }
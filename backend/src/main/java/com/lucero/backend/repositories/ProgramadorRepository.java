@@ -1,14 +1,48 @@
 package com.lucero.backend.repositories;
 
+import com.lucero.backend.dto.ProgramadorPublicoDTO;
 import com.lucero.backend.models.Programador;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-    
+
 @Repository
 public interface ProgramadorRepository extends JpaRepository<Programador, UUID> {
     // Busca un programador basándose en el ID de su Usuario (Login)
     Optional<Programador> findByUsuarioId(UUID usuarioId);
-}
\ No newline at end of file
+
+    // Catálogo público: una sola consulta con JOIN a usuarios, paginada por id (keyset)
+    @Query("""
+            SELECT new com.lucero.backend.dto.ProgramadorPublicoDTO(
+                p.id, COALESCE(u.nombre, 'Sin Nombre'), u.fotoUrl, p.especialidad, p.descripcion,
+                p.emailContacto, p.whatsapp, p.github, p.linkedin, p.portafolio,
+                p.disponibilidadTexto, u.id)
+            FROM Programador p JOIN p.usuario u
+            WHERE p.id > :after
+            ORDER BY p.id
+            """)
+    List<ProgramadorPublicoDTO> findCatalogoDespuesDe(@Param("after") UUID after, Limit limit);
+
+    // Horas de todos los programadores en el rango (after, hasta] en una sola consulta
+    @Query("""
+            SELECT p.id, h
+            FROM Programador p JOIN p.horasDisponibles h
+            WHERE p.id > :after AND p.id <= :hasta
+            """)
+    List<Object[]> findHorasEntre(@Param("after") UUID after, @Param("hasta") UUID hasta);
+
+    // Horas configuradas de un solo programador (sin cargar la entidad)
+    @Query("SELECT h FROM Programador p JOIN p.horasDisponibles h WHERE p.id = :id")
+    List<String> findHorasDe(@Param("id") UUID id);
+
+    // Horas de varios programadores a la vez: [programadorId, hora]
+    @Query("SELECT p.id, h FROM Programador p JOIN p.horasDisponibles h WHERE p.id IN :ids")
+    List<Object[]> findHorasDeVarios(@Param("ids") Collection<UUID> ids);
+}
@@ -1,11 +1,27 @@
 package com.lucero.backend.repositories;
 
 import com.lucero.backend.models.Proyecto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List; // <--- ESTO FALTABA
 import java.util.UUID;
 
 public interface ProyectoRepository extends JpaRepository<Proyecto, UUID> {
     // Spring Data JPA es inteligente: entiende que buscas por el ID del objeto 'programador'
     List<Proyecto> findByProgramadorId(UUID programadorId);
+
+    // Listado por cursor (creado_en, id), más nuevos primero.
+    // Programador y usuario vienen en el mismo SELECT (sin fetch serían dos consultas por proyecto)
+    @Query("""
+            SELECT p FROM Proyecto p
+            JOIN FETCH p.programador pr
+            JOIN FETCH pr.usuario
+            WHERE p.creadoEn < :marca OR (p.creadoEn = :marca AND p.id < :id)
+            ORDER BY p.creadoEn DESC, p.id DESC
+            """)
+    List<Proyecto> paginaDespuesDe(@Param("marca") LocalDateTime marca, @Param("id") UUID id, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.lucero.backend.repositories;
+
+import com.lucero.backend.models.RollupAsesoriaDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface RollupAsesoriaDiarioRepository extends JpaRepository<RollupAsesoriaDiario, RollupAsesoriaDiario.Clave> {
+
+    // Días con asesorías del programador entre desde y hasta (inclusive), en orden
+    @Query("""
+            SELECT r FROM RollupAsesoriaDiario r
+            WHERE r.programadorId = :programadorId
+              AND r.fecha BETWEEN :desde AND :hasta
+              AND r.pendientes + r.aprobadas + r.rechazadas > 0
+            ORDER BY r.fecha
+            """)
+    List<RollupAsesoriaDiario> buscarRango(@Param("programadorId") UUID programadorId,
+                                           @Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    List<RollupAsesoriaDiario> findByProgramadorIdAndFechaIn(UUID programadorId, Collection<LocalDate> fechas);
+
+    // ---- Reconciliación (desde una fecha; usa idx_asesorias_fecha) ----
+
+    // Recuento real sin bloquear: [programadorId, fecha, estado, cantidad]
+    @Query("""
+            SELECT a.programador.id, a.fecha, a.estado, COUNT(a)
+            FROM Asesoria a
+            WHERE a.fecha >= :desde
+            GROUP BY a.programador.id, a.fecha, a.estado
+            """)
+    List<Object[]> contarDesde(@Param("desde") LocalDate desde);
+
+    @Query("SELECT r FROM RollupAsesoriaDiario r WHERE r.fecha >= :desde")
+    List<RollupAsesoriaDiario> buscarDesde(@Param("desde") LocalDate desde);
+
+    // Lo mismo para un programador y sus días con diferencias: [fecha, estado, cantidad]
+    @Query("""
+            SELECT a.fecha, a.estado, COUNT(a)
+            FROM Asesoria a
+            WHERE a.programador.id = :programadorId AND a.fecha IN :fechas
+            GROUP BY a.fecha, a.estado
+            """)
+    List<Object[]> contarDe(@Param("programadorId") UUID programadorId,
+                            @Param("fechas") Collection<LocalDate> fechas);
+}
@@ -1,11 +1,30 @@
 package com.lucero.backend.repositories;
 
 import com.lucero.backend.models.Usuario;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional; // Importar esto
 import java.util.UUID;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, UUID> {
     // Método necesario para el Login
     Optional<Usuario> findByEmail(String email);
-}
\ No newline at end of file
+
+    // Listado por cursor (creado_en, id), más nuevos primero
+    @Query("""
+            SELECT u FROM Usuario u
+            WHERE u.creadoEn < :marca OR (u.creadoEn = :marca AND u.id < :id)
+            ORDER BY u.creadoEn DESC, u.id DESC
+            """)
+    List<Usuario> paginaDespuesDe(@Param("marca") LocalDateTime marca, @Param("id") UUID id, Limit limit);
+
+    // Importación masiva: cuáles de estos emails ya existen (una consulta por bloque)
+    @Query("SELECT u.email FROM Usuario u WHERE u.email IN :emails")
+    List<String> emailsExistentes(@Param("emails") Collection<String> emails);
+}
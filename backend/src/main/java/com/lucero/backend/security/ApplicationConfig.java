@@ -1,7 +1,9 @@
 package com.lucero.backend.security;
 
 import com.lucero.backend.repositories.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,7 +12,6 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
@@ -18,6 +19,17 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 public class ApplicationConfig {
 
     private final UsuarioRepository usuarioRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${seguridad.bcrypt.fuerza:10}")
+    private int fuerza;
+
+    // 0 = la mitad de los núcleos
+    @Value("${seguridad.bcrypt.hilos:0}")
+    private int hilos;
+
+    @Value("${seguridad.bcrypt.cola:64}")
+    private int cola;
 
     @Bean
     public UserDetailsService userDetailsService() {
@@ -44,8 +56,10 @@ public class ApplicationConfig {
         return config.getAuthenticationManager();
     }
 
+    // BCrypt fuera de los hilos de Tomcat: pool fijo + cola acotada (ver BCryptAcotado)
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptAcotado(fuerza, hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                cola, meterRegistry);
     }
 }
\ No newline at end of file
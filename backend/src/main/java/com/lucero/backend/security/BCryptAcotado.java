@@ -0,0 +1,96 @@
+package com.lucero.backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * PasswordEncoder que corre BCrypt en un pool propio de tamaño fijo y cola acotada.
+ * Una ola de logins solo ocupa esos hilos (el resto de los núcleos sigue
+ * atendiendo la API) y, si la cola se llena, se rechaza enseguida con
+ * {@link HashingSaturadoException} en lugar de encolar sin límite.
+ * El hilo de la petición espera el resultado, pero sin consumir CPU.
+ */
+public class BCryptAcotado implements PasswordEncoder, DisposableBean {
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor hilos;
+    private final Timer tiempoEncode;
+    private final Timer tiempoMatches;
+    private final Counter rechazos;
+
+    public BCryptAcotado(int fuerza, int cantidadHilos, int cola, MeterRegistry registry) {
+        this.bcrypt = new BCryptPasswordEncoder(fuerza);
+
+        AtomicInteger n = new AtomicInteger();
+        this.hilos = new ThreadPoolExecutor(cantidadHilos, cantidadHilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.tiempoEncode = Timer.builder("auth.bcrypt.duracion").tag("operacion", "encode")
+                .description("Tiempo de BCrypt (sin la espera en cola)").register(registry);
+        this.tiempoMatches = Timer.builder("auth.bcrypt.duracion").tag("operacion", "matches")
+                .description("Tiempo de BCrypt (sin la espera en cola)").register(registry);
+        this.rechazos = Counter.builder("auth.bcrypt.rechazos")
+                .description("Hashes rechazados por cola llena").register(registry);
+        Gauge.builder("auth.bcrypt.cola", hilos, e -> e.getQueue().size())
+                .description("Hashes esperando un hilo").register(registry);
+        Gauge.builder("auth.bcrypt.activos", hilos, ThreadPoolExecutor::getActiveCount)
+                .description("Hashes en curso").register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> tiempoEncode.record(() -> bcrypt.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> tiempoMatches.record(() -> bcrypt.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return bcrypt.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        hilos.shutdownNow();
+    }
+
+    private <T> T ejecutar(Supplier<T> tarea) {
+        Future<T> futuro;
+        try {
+            futuro = hilos.submit(tarea::get);
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new HashingSaturadoException("Demasiados inicios de sesión simultáneos, intente en unos segundos");
+        }
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hash interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.lucero.backend.security;
+
+// La cola de BCrypt está llena: se rechaza en lugar de acumular trabajo
+public class HashingSaturadoException extends RuntimeException {
+
+    public HashingSaturadoException(String mensaje) {
+        super(mensaje);
+    }
+}
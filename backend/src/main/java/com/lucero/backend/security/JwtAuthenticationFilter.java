@@ -1,5 +1,7 @@
 package com.lucero.backend.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,21 +9,29 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
 
+/**
+ * Autenticación sin estado: el token se parsea y verifica una sola vez
+ * (firma + expiración) y la Authentication se arma con los claims firmados,
+ * sin ir a la base en cada petición.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     @Override
     protected void doFilterInternal(
@@ -29,10 +39,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
-        
+
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
         // 1. Validar si hay header y si empieza con "Bearer "
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -40,25 +48,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // 2. Extraer token y email
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        // 2. Si el usuario no está autenticado todavía, un solo parseo del token
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            Claims claims;
+            try {
+                claims = jwtService.validar(authHeader.substring(7));
+            } catch (JwtException | IllegalArgumentException e) {
+                // token inválido o vencido: sigue como anónimo y decide SecurityConfig
+                filterChain.doFilter(request, response);
+                return;
+            }
 
-        // 3. Si el usuario no está autenticado todavía...
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            
-            // 4. Si el token es válido, autenticar manualmente en Spring
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            // 3. Autenticar con los claims firmados (email en el subject, rol en "rol")
+            String email = claims.getSubject();
+            if (email != null) {
+                String rol = claims.get("rol", String.class);
+                List<GrantedAuthority> authorities = autoridades(rol);
+                UsuarioActual principal = new UsuarioActual(
+                        uuid(claims.get(UsuarioActual.CLAIM_USUARIO, String.class)),
+                        uuid(claims.get(UsuarioActual.CLAIM_PROGRAMADOR, String.class)),
+                        email, rol, claims.get("nombre", String.class));
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        principal,
                         null,
-                        userDetails.getAuthorities()
+                        authorities
                 );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authToken.setDetails(detailsSource.buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private static UUID uuid(String valor) {
+        return (valor != null) ? UUID.fromString(valor) : null;
+    }
+
+    private static List<GrantedAuthority> autoridades(String rol) {
+        if (rol == null || rol.isBlank()) {
+            return Collections.emptyList();
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_" + rol.toUpperCase()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.lucero.backend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -21,6 +22,17 @@ public class JwtService {
     // Para desarrollo usamos esta cadena larga aleatoria.
     private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
 
+    // La clave y el parser se construyen una sola vez (son inmutables y thread-safe)
+    private final Key signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(signInKey)
+            .build();
+
+    // Verifica firma y expiración en un solo parseo; lanza JwtException si no es válido
+    public Claims validar(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -58,15 +70,10 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return validar(token);
     }
 
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signInKey;
     }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.lucero.backend.security;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.context.WebServerApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -10,6 +13,8 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.WebApplicationContextUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -31,6 +36,13 @@ public class SecurityConfig {
 
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Reportes en streaming: el despacho ASYNC ya fue autorizado en la petición original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                        // actuator (health, prometheus) solo en el puerto de gestión, que no se publica;
+                        // en el puerto de la API /actuator cae en anyRequest y no existe
+                        .requestMatchers(SecurityConfig::esPuertoGestion).permitAll()
+
                         // ENDPOINTS PÚBLICOS (Solo Auth y lo que sea explícitamente público)
                         .requestMatchers("/api/auth/**").permitAll()
 
@@ -48,6 +60,8 @@ public class SecurityConfig {
                         // - /api/disponibilidades/programador/** (Nota: ahora cubierto por la regla
                         // pública de arriba)
                         // - /api/asesorias/programador/**
+                        // alta masiva de programadores: solo administradores
+                        .requestMatchers("/api/programadores/importar").hasRole("ADMIN")
                         .requestMatchers("/api/programadores/**").permitAll()
                         .anyRequest().authenticated())
 
@@ -58,6 +72,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // management.server.port levanta un servidor aparte con su propio contexto ("management")
+    private static boolean esPuertoGestion(HttpServletRequest request) {
+        WebApplicationContext contexto = WebApplicationContextUtils.getWebApplicationContext(request.getServletContext());
+        return WebServerApplicationContext.hasServerNamespace(contexto, "management");
+    }
+
     //  CORS para permitir peticiones desde Angular
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
@@ -65,6 +85,8 @@ public class SecurityConfig {
         config.setAllowedOrigins(List.of("http://localhost:4200"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        // paginación por cursor: el front lee el siguiente enlace de estas cabeceras
+        config.setExposedHeaders(List.of("Link", "X-Next-Cursor"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
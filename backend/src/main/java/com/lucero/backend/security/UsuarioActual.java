@@ -0,0 +1,36 @@
+package com.lucero.backend.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.UUID;
+
+/**
+ * Usuario autenticado tal como viene en el token (claims firmados).
+ * Es el principal de la Authentication: auth.getName() sigue devolviendo el email.
+ * AuthenticatedPrincipal y no java.security.Principal: un parámetro Principal lo resuelve
+ * Spring MVC con request.getUserPrincipal() (la Authentication) antes que UsuarioActualArgumentResolver.
+ * programadorId es null si el usuario no tiene perfil de programador.
+ */
+public record UsuarioActual(UUID usuarioId, UUID programadorId, String email, String rol, String nombre)
+        implements AuthenticatedPrincipal {
+
+    public static final String CLAIM_USUARIO = "uid";
+    public static final String CLAIM_PROGRAMADOR = "pid";
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public UUID requerirProgramador() {
+        if (programadorId == null) {
+            throw new RuntimeException("No tienes perfil de programador");
+        }
+        return programadorId;
+    }
+
+    // Token emitido antes de incluir los ids: hay que completarlo con la base
+    public boolean completo() {
+        return usuarioId != null;
+    }
+}
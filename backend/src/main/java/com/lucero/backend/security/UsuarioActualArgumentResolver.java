@@ -0,0 +1,28 @@
+package com.lucero.backend.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+// Permite declarar "UsuarioActual usuario" como parámetro en los controladores
+@Component
+@RequiredArgsConstructor
+public class UsuarioActualArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final UsuarioActualResolver usuarioActualResolver;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return UsuarioActual.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return usuarioActualResolver.actual();
+    }
+}
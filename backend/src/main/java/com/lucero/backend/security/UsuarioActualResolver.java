@@ -0,0 +1,89 @@
+package com.lucero.backend.security;
+
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import com.lucero.backend.repositories.ProgramadorRepository;
+import com.lucero.backend.repositories.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Devuelve el {@link UsuarioActual} de la petición.
+ * Con los tokens nuevos sale directo de los claims (sin consultas). Los tokens
+ * emitidos antes de agregar "uid"/"pid" se completan con la base una vez y el
+ * resultado queda en una caché acotada y con vencimiento, por email.
+ */
+@Component
+public class UsuarioActualResolver {
+
+    private record EnCache(UsuarioActual usuario, long venceMs) {
+    }
+
+    private final UsuarioRepository usuarioRepository;
+    private final ProgramadorRepository programadorRepository;
+    private final int maximo;
+    private final long ttlMs;
+
+    // LRU por orden de acceso; se sincroniza porque get() también reordena
+    private final Map<String, EnCache> cache;
+
+    public UsuarioActualResolver(UsuarioRepository usuarioRepository,
+                                 ProgramadorRepository programadorRepository,
+                                 @Value("${seguridad.usuarios-cache.maximo:10000}") int maximo,
+                                 @Value("${seguridad.usuarios-cache.ttl-segundos:600}") long ttlSegundos) {
+        this.usuarioRepository = usuarioRepository;
+        this.programadorRepository = programadorRepository;
+        this.maximo = maximo;
+        this.ttlMs = ttlSegundos * 1000;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EnCache> eldest) {
+                return size() > UsuarioActualResolver.this.maximo;
+            }
+        };
+    }
+
+    public UsuarioActual actual() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || auth.getName() == null) {
+            throw new RuntimeException("Usuario no autenticado");
+        }
+        if (auth.getPrincipal() instanceof UsuarioActual u && u.completo()) {
+            return u;
+        }
+        return desdeBase(auth.getName());
+    }
+
+    // Al borrar un usuario o su perfil, para que los tokens viejos no sigan resolviendo los ids cacheados
+    public void invalidar(String email) {
+        synchronized (cache) {
+            cache.remove(email);
+        }
+    }
+
+    private UsuarioActual desdeBase(String email) {
+        long ahora = System.currentTimeMillis();
+        synchronized (cache) {
+            EnCache e = cache.get(email);
+            if (e != null && e.venceMs() > ahora) {
+                return e.usuario();
+            }
+        }
+
+        Usuario u = usuarioRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        UsuarioActual usuario = new UsuarioActual(u.getId(),
+                programadorRepository.findByUsuarioId(u.getId()).map(Programador::getId).orElse(null),
+                u.getEmail(), u.getRol(), u.getNombre());
+
+        synchronized (cache) {
+            cache.put(email, new EnCache(usuario, ahora + ttlMs));
+        }
+        return usuario;
+    }
+}
@@ -0,0 +1,199 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.models.Asesoria;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.models.Notificacion;
+import com.lucero.backend.repositories.AsesoriaRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class AsesoriaEstadoService {
+
+    private final AsesoriaRepository asesoriaRepository;
+    private final NotificacionService notificacionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    public record CambioEstado(Asesoria asesoria, UUID notificacionId) {
+    }
+
+    // Resultado por id del cambio masivo: actualizada | sin_cambio | no_encontrada | no_autorizada | conflicto
+    // | fecha_pasada
+    public record ResultadoId(UUID id, String resultado, EstadoAsesoria estado, String error) {
+    }
+
+    public record CambioLote(List<ResultadoId> resultados, List<UUID> notificacionIds) {
+    }
+
+    // Cambio de estado + correo encolado en la misma transacción (outbox).
+    // Solo se modifica una asesoría que todavía admite cambios (pendiente). Todo va por
+    // UPDATE condicional sobre el estado leído: si otra petición lo cambió primero no se
+    // pisa, se lanza TransicionEstadoException. El correo (asunto != null) solo se encola
+    // si el estado realmente cambió.
+    @Transactional
+    public CambioEstado cambiarEstado(Asesoria asesoria, EstadoAsesoria estado, String respuesta,
+                                      String asunto, String mensaje) {
+        EstadoAsesoria anterior = asesoria.getEstado();
+        if (!anterior.admiteCambios()) {
+            throw new TransicionEstadoException(procesada(anterior));
+        }
+        boolean transicion = estado != null && estado != anterior;
+        LocalDateTime ahora = LocalDateTime.now();
+
+        if (transicion) {
+            if (!anterior.puedePasarA(estado)) {
+                throw new TransicionEstadoException("La asesoría no puede pasar de " + anterior + " a " + estado + ".");
+            }
+            if (asesoriaRepository.cambiarEstado(asesoria.getId(), anterior, estado, respuesta, ahora) == 0) {
+                throw new TransicionEstadoException(
+                        "La asesoría cambió de estado mientras se procesaba; vuelva a cargarla.");
+            }
+        } else if (respuesta != null) {
+            // Solo la respuesta: tampoco se reescribe la fila entera (el estado leído puede estar viejo)
+            if (asesoriaRepository.actualizarRespuesta(asesoria.getId(), anterior, respuesta) == 0) {
+                throw new TransicionEstadoException(
+                        "La asesoría cambió de estado mientras se procesaba; vuelva a cargarla.");
+            }
+        }
+
+        // La fila ya está escrita: la copia en memoria solo refleja el resultado.
+        // Se desconecta para que Hibernate no la vuelva a escribir entera al confirmar.
+        if (entityManager.contains(asesoria)) {
+            entityManager.detach(asesoria);
+        }
+        if (respuesta != null) {
+            asesoria.setRespuestaProgramador(respuesta);
+        }
+
+        UUID notificacionId = null;
+        if (transicion) {
+            asesoria.setEstado(estado);
+            asesoria.setRespondidoEn(ahora);
+            eventPublisher.publishEvent(CambioAsesoriaEvento.de(
+                    asesoria.getProgramador().getId(), asesoria.getFecha(), anterior, estado));
+            if (asunto != null) {
+                Notificacion n = notificacionService.encolarEmail(
+                        asesoria.getEmailSolicitante(), asunto, mensaje, ahora);
+                notificacionId = n.getId();
+            }
+        }
+        return new CambioEstado(asesoria, notificacionId);
+    }
+
+    // Mismo texto que el 400 de AsesoriaController
+    public static final String FECHA_PASADA = "No se puede gestionar una asesoría de una fecha pasada.";
+
+    // Mismo texto que el 400 de los controllers
+    public static String procesada(EstadoAsesoria estado) {
+        return "Esta asesoría ya fue procesada (" + estado + ") y no puede modificarse.";
+    }
+
+    // Cambio masivo (PATCH /api/programador/asesorias): una lectura con bloqueo valida
+    // dueño y transición de todas las filas, un solo UPDATE las cambia y los correos
+    // se encolan juntos, uno por solicitante (con todas sus asesorías del lote).
+    @Transactional
+    public CambioLote cambiarEstadoEnLote(UUID programadorId, Collection<UUID> ids, EstadoAsesoria estado,
+                                          String respuesta) {
+        Map<UUID, Asesoria> leidas = new HashMap<>();
+        for (Asesoria a : asesoriaRepository.bloquearParaCambio(ids)) {
+            leidas.put(a.getId(), a);
+        }
+
+        LocalDate hoy = LocalDate.now();
+        List<ResultadoId> resultados = new ArrayList<>(ids.size());
+        List<Asesoria> aCambiar = new ArrayList<>();
+        Set<EstadoAsesoria> desde = EnumSet.noneOf(EstadoAsesoria.class);
+        for (UUID id : ids) {
+            Asesoria a = leidas.get(id);
+            if (a == null) {
+                resultados.add(new ResultadoId(id, "no_encontrada", null, "Asesoría no encontrada"));
+            } else if (!a.getProgramador().getId().equals(programadorId)) {
+                resultados.add(new ResultadoId(id, "no_autorizada", null, "No autorizado"));
+            } else if (a.getEstado() == estado) {
+                resultados.add(new ResultadoId(id, "sin_cambio", estado, null));
+            } else if (!a.getEstado().puedePasarA(estado)) {
+                resultados.add(new ResultadoId(id, "conflicto", a.getEstado(), procesada(a.getEstado())));
+            } else if (a.getFecha() != null && a.getFecha().isBefore(hoy)) {
+                resultados.add(new ResultadoId(id, "fecha_pasada", a.getEstado(), FECHA_PASADA));
+            } else {
+                resultados.add(new ResultadoId(id, "actualizada", estado, null));
+                aCambiar.add(a);
+                desde.add(a.getEstado());
+            }
+        }
+        if (aCambiar.isEmpty()) {
+            return new CambioLote(resultados, List.of());
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<UUID> idsACambiar = aCambiar.stream().map(Asesoria::getId).toList();
+        int cambiadas = asesoriaRepository.cambiarEstadoEnLote(idsACambiar, desde, estado, respuesta, ahora);
+        if (cambiadas != idsACambiar.size()) {
+            // con las filas bloqueadas no debería pasar; se deshace todo el lote
+            throw new TransicionEstadoException(
+                    "Algunas asesorías cambiaron de estado mientras se procesaban; vuelva a cargarlas.");
+        }
+        // un evento por estado de origen, con las cantidades por día
+        Map<EstadoAsesoria, List<Asesoria>> porOrigen = new EnumMap<>(EstadoAsesoria.class);
+        for (Asesoria a : aCambiar) {
+            porOrigen.computeIfAbsent(a.getEstado(), k -> new ArrayList<>()).add(a);
+        }
+        porOrigen.forEach((origen, grupo) -> {
+            Map<LocalDate, Long> porFecha = new HashMap<>();
+            for (Asesoria a : grupo) {
+                if (a.getFecha() != null) {
+                    porFecha.merge(a.getFecha(), 1L, Long::sum);
+                }
+            }
+            eventPublisher.publishEvent(new CambioAsesoriaEvento(programadorId, origen, estado, grupo.size(), porFecha));
+        });
+
+        List<NotificacionService.Correo> correos = correosPorSolicitante(aCambiar, estado, respuesta);
+        List<UUID> notificacionIds = correos.isEmpty()
+                ? List.of()
+                : notificacionService.encolarEmails(correos, ahora).stream().map(Notificacion::getId).toList();
+        return new CambioLote(resultados, notificacionIds);
+    }
+
+    private static List<NotificacionService.Correo> correosPorSolicitante(List<Asesoria> asesorias,
+                                                                         EstadoAsesoria estado, String respuesta) {
+        Map<String, List<Asesoria>> porEmail = new LinkedHashMap<>();
+        for (Asesoria a : asesorias) {
+            String email = a.getEmailSolicitante();
+            if (email != null && !email.isBlank()) {
+                porEmail.computeIfAbsent(email, e -> new ArrayList<>()).add(a);
+            }
+        }
+
+        String asunto = estado == EstadoAsesoria.APROBADA ? "✅ Asesoría Aprobada" : "❌ Asesoría Rechazada";
+        boolean conRespuesta = respuesta != null && !respuesta.isBlank();
+        List<NotificacionService.Correo> correos = new ArrayList<>(porEmail.size());
+        porEmail.forEach((email, delSolicitante) -> {
+            String mensaje;
+            if (delSolicitante.size() == 1) {
+                Asesoria a = delSolicitante.get(0);
+                mensaje = conRespuesta ? respuesta
+                        : "Hola, tu solicitud de asesoría para el día " + a.getFecha()
+                                + " a las " + a.getHora() + " ha sido: " + estado + ".";
+            } else {
+                StringBuilder sb = new StringBuilder(conRespuesta ? respuesta + "\n\n"
+                        : "Hola, tus solicitudes de asesoría han sido: " + estado + ".\n\n");
+                for (Asesoria a : delSolicitante) {
+                    sb.append("- ").append(a.getFecha()).append(" a las ").append(a.getHora()).append('\n');
+                }
+                mensaje = sb.toString();
+            }
+            correos.add(new NotificacionService.Correo(email, asunto, mensaje));
+        });
+        return correos;
+    }
+}
@@ -0,0 +1,26 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.models.EstadoAsesoria;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+// Alta (estadoAnterior == null) o cambio de estado de una o varias asesorías de un
+// programador, todas desde el mismo estado: cantidad en total y porFecha por día
+// (sin las que no tienen fecha). Los contadores del dashboard lo aplican dentro de
+// la misma transacción, antes de confirmar.
+public record CambioAsesoriaEvento(UUID programadorId, EstadoAsesoria estadoAnterior, EstadoAsesoria estadoNuevo,
+                                  long cantidad, Map<LocalDate, Long> porFecha) {
+
+    public static CambioAsesoriaEvento de(UUID programadorId, LocalDate fecha, EstadoAsesoria estadoAnterior,
+                                         EstadoAsesoria estadoNuevo) {
+        return new CambioAsesoriaEvento(programadorId, estadoAnterior, estadoNuevo, 1,
+                fecha != null ? Map.of(fecha, 1L) : Map.of());
+    }
+
+    // Por asesoría: +1 si entra en ese estado, -1 si sale, 0 si no lo toca
+    public long variacion(EstadoAsesoria estado) {
+        return (estado == estadoNuevo ? 1 : 0) - (estado == estadoAnterior ? 1 : 0);
+    }
+}
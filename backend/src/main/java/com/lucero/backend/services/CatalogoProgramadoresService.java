@@ -0,0 +1,57 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.dto.ProgramadorPublicoDTO;
+import com.lucero.backend.repositories.ProgramadorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class CatalogoProgramadoresService {
+
+    // UUID mínimo: punto de partida del keyset cuando no mandan "after"
+    public static final UUID INICIO = new UUID(0L, 0L);
+    public static final int LIMITE_MAXIMO = 500;
+
+    private final ProgramadorRepository programadorRepository;
+
+    // =========================
+    // LECTURA DEL CATÁLOGO
+    // =========================
+    // Siempre son 2 consultas, sin importar cuántos programadores haya:
+    // 1) programadores + usuario (proyección)  2) horas del mismo rango de ids
+    @Transactional(readOnly = true)
+    public List<ProgramadorPublicoDTO> listar(UUID after, Integer limit) {
+        UUID desde = (after != null) ? after : INICIO;
+        Limit limite = (limit != null)
+                ? Limit.of(Math.max(1, Math.min(limit, LIMITE_MAXIMO)))
+                : Limit.unlimited();
+
+        List<ProgramadorPublicoDTO> pagina = programadorRepository.findCatalogoDespuesDe(desde, limite);
+        if (pagina.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<UUID, ProgramadorPublicoDTO> porId = new HashMap<>();
+        for (ProgramadorPublicoDTO dto : pagina) {
+            porId.put(dto.getId(), dto);
+        }
+
+        UUID hasta = pagina.get(pagina.size() - 1).getId();
+        for (Object[] fila : programadorRepository.findHorasEntre(desde, hasta)) {
+            ProgramadorPublicoDTO dto = porId.get((UUID) fila[0]);
+            if (dto != null) {
+                dto.getHorasDisponibles().add((String) fila[1]);
+            }
+        }
+        return pagina;
+    }
+}
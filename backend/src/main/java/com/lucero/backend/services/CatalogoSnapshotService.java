@@ -0,0 +1,209 @@
+package com.lucero.backend.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucero.backend.dto.ProgramadorPublicoDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Copia en memoria del catálogo público ya serializado a JSON.
+ * Los ETag son un hash del JSON que se sirve: no dependen de la instancia ni de
+ * cuándo arrancó, así que un If-None-Match vigente se responde con 304 sin tocar
+ * la base y nunca da un 304 sobre contenido distinto.
+ * Los cambios de esta instancia se aplican al momento; los de otras instancias
+ * (o hechos por fuera de la API) se ven al recargar, como mucho cada
+ * catalogo.snapshot.revalidar-ms.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogoSnapshotService {
+
+    // Mismo orden que Postgres para uuid (bytes sin signo), para que "after" funcione igual
+    private static final Comparator<UUID> ORDEN_UUID = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private final CatalogoProgramadoresService catalogoService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${catalogo.snapshot.revalidar-ms:30000}")
+    private long revalidarMs = 30_000;
+
+    private volatile ConcurrentSkipListMap<UUID, Entrada> entradas = new ConcurrentSkipListMap<>(ORDEN_UUID);
+    private volatile boolean cargado = false;
+    private volatile long cargadoEn;
+    private final AtomicBoolean recargando = new AtomicBoolean();
+    // Solo para saber si listaCacheada sigue vigente; no sale de esta instancia
+    private volatile long version = 0;
+    private volatile Lista listaCacheada;
+
+    public record Entrada(ProgramadorPublicoDTO dto, byte[] json, String etag) {
+    }
+
+    // etag: el del catálogo completo, también en las páginas (cualquier cambio lo invalida)
+    public record Lista(byte[] json, String etag, long version) {
+    }
+
+    // =========================
+    // LECTURA
+    // =========================
+    public Lista listar() {
+        cargarSiHaceFalta();
+        Lista lista = listaCacheada;
+        if (lista != null && lista.version() == version) {
+            return lista;
+        }
+        synchronized (this) {
+            if (listaCacheada == null || listaCacheada.version() != version) {
+                byte[] json = unir(entradas, Integer.MAX_VALUE);
+                listaCacheada = new Lista(json, etag("c", json), version);
+            }
+            return listaCacheada;
+        }
+    }
+
+    // Página keyset servida desde memoria; el ETag es el del catálogo completo
+    public Lista listar(UUID after, Integer limit) {
+        if (after == null && limit == null) {
+            return listar();
+        }
+        Lista completa = listar();
+        ConcurrentSkipListMap<UUID, Entrada> actuales = entradas;
+        Map<UUID, Entrada> desde = (after != null) ? actuales.tailMap(after, false) : actuales;
+        int limite = (limit != null)
+                ? Math.max(1, Math.min(limit, CatalogoProgramadoresService.LIMITE_MAXIMO))
+                : Integer.MAX_VALUE;
+        return new Lista(unir(desde, limite), completa.etag(), completa.version());
+    }
+
+    public Optional<Entrada> obtener(UUID id) {
+        cargarSiHaceFalta();
+        return Optional.ofNullable(entradas.get(id));
+    }
+
+    // Vista de solo lectura de los DTO en memoria (para búsquedas que cruzan todo el catálogo)
+    public Collection<ProgramadorPublicoDTO> programadores() {
+        cargarSiHaceFalta();
+        return entradas.values().stream().map(Entrada::dto).toList();
+    }
+
+    // ETag vigente del listado; permite contestar 304 antes de armar la respuesta
+    public String etagActual() {
+        return listar().etag();
+    }
+
+    // =========================
+    // INVALIDACIÓN INCREMENTAL
+    // =========================
+    public synchronized void actualizar(ProgramadorPublicoDTO dto) {
+        if (!cargado) {
+            return; // la primera carga ya lo va a traer
+        }
+        entradas.put(dto.getId(), entrada(dto));
+        version = version + 1;
+    }
+
+    public synchronized void eliminar(UUID id) {
+        if (!cargado) {
+            return;
+        }
+        if (entradas.remove(id) != null) {
+            version = version + 1;
+        }
+    }
+
+    // Para cambios masivos: se vuelve a cargar todo en la próxima lectura
+    public synchronized void invalidarTodo() {
+        cargado = false;
+    }
+
+    // =========================
+    // AUXILIARES
+    // =========================
+    // Primera lectura o después de invalidarTodo(): se carga antes de responder.
+    // Pasado revalidar-ms recarga una sola lectura; las demás siguen con la copia anterior.
+    private void cargarSiHaceFalta() {
+        if (cargado) {
+            if (System.currentTimeMillis() - cargadoEn >= revalidarMs && recargando.compareAndSet(false, true)) {
+                try {
+                    recargar();
+                } finally {
+                    recargando.set(false);
+                }
+            }
+            return;
+        }
+        synchronized (this) {
+            if (!cargado) {
+                recargar();
+            }
+        }
+    }
+
+    private synchronized void recargar() {
+        ConcurrentSkipListMap<UUID, Entrada> nuevas = new ConcurrentSkipListMap<>(ORDEN_UUID);
+        for (ProgramadorPublicoDTO dto : catalogoService.listar(null, null)) {
+            nuevas.put(dto.getId(), entrada(dto));
+        }
+        entradas = nuevas;
+        version = version + 1;
+        cargadoEn = System.currentTimeMillis();
+        cargado = true;
+    }
+
+    private Entrada entrada(ProgramadorPublicoDTO dto) {
+        byte[] json = serializar(dto);
+        return new Entrada(dto, json, etag("p", json));
+    }
+
+    // ETag fuerte: prefijo + primeros 16 bytes del SHA-256 del JSON
+    private static String etag(String prefijo, byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + prefijo + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] serializar(ProgramadorPublicoDTO dto) {
+        try {
+            return objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("No se pudo serializar el programador " + dto.getId(), e);
+        }
+    }
+
+    // Concatena los JSON ya serializados: no se vuelve a serializar ningún DTO
+    private static byte[] unir(Map<UUID, Entrada> origen, int limite) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('[');
+        int n = 0;
+        for (Entrada e : origen.values()) {
+            if (n == limite) {
+                break;
+            }
+            if (n > 0) {
+                out.write(',');
+            }
+            out.writeBytes(e.json());
+            n++;
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+}
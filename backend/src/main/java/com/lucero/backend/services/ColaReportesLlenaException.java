@@ -0,0 +1,9 @@
+package com.lucero.backend.services;
+
+// Todos los workers de reportes están ocupados y la cola de espera está llena
+public class ColaReportesLlenaException extends RuntimeException {
+
+    public ColaReportesLlenaException(String mensaje) {
+        super(mensaje);
+    }
+}
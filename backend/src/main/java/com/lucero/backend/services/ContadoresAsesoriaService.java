@@ -0,0 +1,129 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.models.ContadorAsesorias;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.repositories.ContadorAsesoriasRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Contadores de asesorías por programador y estado, para el resumen del dashboard.
+ * Viven en asesoria_contadores y se actualizan en la misma transacción que cada
+ * alta o cambio de estado ({@link CambioAsesoriaEvento}, justo antes de confirmar):
+ * si el cambio se deshace, el contador también, y todas las instancias leen lo
+ * mismo. Leer el resumen es una búsqueda por clave.
+ * Un barrido periódico los compara con asesorias para corregir cambios hechos
+ * por fuera de los servicios (SQL a mano, etc.): un solo GROUP BY sin candados
+ * y solo se reescriben, de a un programador, los contadores que no coinciden.
+ */
+@Service
+@RequiredArgsConstructor
+public class ContadoresAsesoriaService {
+
+    public record Resumen(long total, Map<EstadoAsesoria, Long> porEstado) {
+
+        static final Resumen VACIO = new Resumen(0, Map.of());
+
+        public long de(EstadoAsesoria estado) {
+            return porEstado.getOrDefault(estado, 0L);
+        }
+
+        static Resumen desde(ContadorAsesorias c) {
+            Map<EstadoAsesoria, Long> porEstado = new EnumMap<>(EstadoAsesoria.class);
+            porEstado.put(EstadoAsesoria.PENDIENTE, c.getPendientes());
+            porEstado.put(EstadoAsesoria.APROBADA, c.getAprobadas());
+            porEstado.put(EstadoAsesoria.RECHAZADA, c.getRechazadas());
+            return new Resumen(c.getTotal(), Map.copyOf(porEstado));
+        }
+    }
+
+    private final ContadorAsesoriasRepository contadorRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public Resumen resumen(UUID programadorId) {
+        return contadorRepository.findById(programadorId).map(Resumen::desde).orElse(Resumen.VACIO);
+    }
+
+    // Antes que SerieAsesoriasService: la fila del contador es el candado del
+    // programador y se toma siempre primero
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void alCambiar(CambioAsesoriaEvento evento) {
+        if (Objects.equals(evento.estadoAnterior(), evento.estadoNuevo())) {
+            return;
+        }
+        long n = evento.cantidad();
+        contadorRepository.sumar(evento.programadorId(),
+                n * evento.variacion(EstadoAsesoria.PENDIENTE),
+                n * evento.variacion(EstadoAsesoria.APROBADA),
+                n * evento.variacion(EstadoAsesoria.RECHAZADA));
+    }
+
+    // =========================
+    // RECONCILIACIÓN
+    // =========================
+    // La comparación no bloquea nada: una diferencia puede ser un cambio que se
+    // confirmó entre las dos lecturas, así que cada sospechoso se vuelve a contar
+    // con su fila bloqueada antes de corregirlo.
+    @Scheduled(fixedDelayString = "${dashboard.reconciliar-ms:600000}", initialDelayString = "${dashboard.reconciliar-ms:600000}")
+    public void reconciliar() {
+        Map<UUID, ContadorAsesorias> reales = new HashMap<>();
+        for (Object[] f : contadorRepository.contarPorProgramadorYEstado()) {
+            ContadorAsesorias c = reales.computeIfAbsent((UUID) f[0], ContadoresAsesoriaService::vacio);
+            sumar(c, (EstadoAsesoria) f[1], (Long) f[2]);
+        }
+
+        List<UUID> distintos = new ArrayList<>();
+        for (ContadorAsesorias actual : contadorRepository.findAll()) {
+            ContadorAsesorias real = reales.remove(actual.getProgramadorId());
+            if (!actual.equals(real != null ? real : vacio(actual.getProgramadorId()))) {
+                distintos.add(actual.getProgramadorId());
+            }
+        }
+        distintos.addAll(reales.keySet()); // con asesorías y sin fila de contador
+
+        for (UUID id : distintos) {
+            transactionTemplate.executeWithoutResult(estado -> corregir(id));
+        }
+        transactionTemplate.executeWithoutResult(estado -> contadorRepository.borrarHuerfanos());
+    }
+
+    // Con la fila bloqueada (el mismo upsert de los cambios, que la crea si falta)
+    // los cambios ya confirmados entran en el recuento y los demás esperan y
+    // suman sobre el valor corregido. Solo espera quien toca a este programador.
+    private void corregir(UUID programadorId) {
+        contadorRepository.sumar(programadorId, 0, 0, 0);
+        ContadorAsesorias real = vacio(programadorId);
+        for (Object[] f : contadorRepository.contarDe(programadorId)) {
+            sumar(real, (EstadoAsesoria) f[0], (Long) f[1]);
+        }
+        contadorRepository.fijar(programadorId, real.getPendientes(), real.getAprobadas(), real.getRechazadas());
+    }
+
+    private static ContadorAsesorias vacio(UUID programadorId) {
+        ContadorAsesorias c = new ContadorAsesorias();
+        c.setProgramadorId(programadorId);
+        return c;
+    }
+
+    private static void sumar(ContadorAsesorias c, EstadoAsesoria estado, long n) {
+        switch (estado) {
+            case PENDIENTE -> c.setPendientes(c.getPendientes() + n);
+            case APROBADA -> c.setAprobadas(c.getAprobadas() + n);
+            case RECHAZADA -> c.setRechazadas(c.getRechazadas() + n);
+        }
+    }
+}
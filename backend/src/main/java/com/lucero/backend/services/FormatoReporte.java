@@ -0,0 +1,33 @@
+package com.lucero.backend.services;
+
+public enum FormatoReporte {
+
+    PDF("pdf", "application/pdf"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    CSV("csv", "text/csv; charset=UTF-8");
+
+    private final String extension;
+    private final String contentType;
+
+    FormatoReporte(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static FormatoReporte desde(String valor) {
+        for (FormatoReporte f : values()) {
+            if (f.extension.equalsIgnoreCase(valor)) {
+                return f;
+            }
+        }
+        throw new RuntimeException("Formato no soportado: " + valor + " (use pdf, xlsx o csv)");
+    }
+}
@@ -0,0 +1,9 @@
+package com.lucero.backend.services;
+
+// El horario (programador, fecha, hora) ya tiene una asesoría no rechazada
+public class HorarioOcupadoException extends RuntimeException {
+
+    public HorarioOcupadoException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,358 @@
+package com.lucero.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucero.backend.dto.ProgramadorImportDTO;
+import com.lucero.backend.dto.ResultadoImportacionDTO;
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import com.lucero.backend.repositories.ProgramadorRepository;
+import com.lucero.backend.repositories.UsuarioRepository;
+import com.lucero.backend.security.HashingSaturadoException;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Alta masiva de programadores desde CSV o NDJSON (POST /api/programadores/importar).
+ * - Emails ya registrados: una consulta IN por bloque, no un findByEmail por fila.
+ * - Contraseñas: BCrypt en un pool propio, para no competir con los logins en BCryptAcotado.
+ *   Se encolan de a un bloque (el siguiente se hashea mientras se escribe el actual) y la
+ *   cola es acotada. Las filas sin contraseña comparten un único hash de la contraseña por defecto.
+ * - Una importación a la vez: la segunda recibe {@link HashingSaturadoException} (429).
+ * - Escritura: bloques de {@code importacion.bloque} filas, cada uno en su transacción,
+ *   con lotes JDBC (hibernate.jdbc.batch_size + order_inserts). Si un bloque falla se
+ *   reintenta fila por fila para informar cuál fue.
+ * Cada fila del archivo aparece en el resultado como creada o con su error.
+ */
+@Service
+public class ImportacionProgramadoresService {
+
+    public enum Formato { CSV, NDJSON }
+
+    // Misma contraseña inicial que el alta manual (ProgramadorController.crearProgramador)
+    private static final String PASSWORD_POR_DEFECTO = "123456";
+    private static final int EMAILS_POR_CONSULTA = 1000;
+
+    // Fila válida lista para guardar
+    private record Pendiente(int linea, String email, ProgramadorImportDTO datos) {
+    }
+
+    private final UsuarioRepository usuarioRepository;
+    private final ProgramadorRepository programadorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final CatalogoSnapshotService catalogoSnapshot;
+    private final ObjectMapper objectMapper;
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor hilosHash;
+    private final Semaphore enCurso = new Semaphore(1);
+    private final int bloque;
+    private final int maxFilas;
+
+    public ImportacionProgramadoresService(UsuarioRepository usuarioRepository,
+                                           ProgramadorRepository programadorRepository,
+                                           TransactionTemplate transactionTemplate,
+                                           EntityManager entityManager,
+                                           CatalogoSnapshotService catalogoSnapshot,
+                                           ObjectMapper objectMapper,
+                                           @Value("${seguridad.bcrypt.fuerza:10}") int fuerza,
+                                           @Value("${importacion.hilos-hash:0}") int hilos,
+                                           @Value("${importacion.bloque:500}") int bloque,
+                                           @Value("${importacion.max-filas:50000}") int maxFilas) {
+        this.usuarioRepository = usuarioRepository;
+        this.programadorRepository = programadorRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.catalogoSnapshot = catalogoSnapshot;
+        this.objectMapper = objectMapper;
+        this.bcrypt = new BCryptPasswordEncoder(fuerza);
+        this.bloque = bloque;
+        this.maxFilas = maxFilas;
+
+        int cantidad = hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger n = new AtomicInteger();
+        // A lo sumo dos bloques en vuelo (el que se escribe y el siguiente); si aun así se
+        // llena, el hilo de la importación hashea él mismo en vez de encolar más
+        this.hilosHash = new ThreadPoolExecutor(cantidad, cantidad, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(2 * bloque),
+                r -> {
+                    Thread t = new Thread(r, "importacion-hash-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        hilosHash.shutdownNow();
+    }
+
+    // =========================
+    // IMPORTAR
+    // =========================
+    public ResultadoImportacionDTO importar(InputStream cuerpo, Formato formato) throws IOException {
+        long inicio = System.nanoTime();
+
+        if (!enCurso.tryAcquire()) {
+            throw new HashingSaturadoException("Ya hay una importación en curso, intente en unos minutos");
+        }
+        try {
+            return importarFilas(cuerpo, formato, inicio);
+        } finally {
+            enCurso.release();
+        }
+    }
+
+    private ResultadoImportacionDTO importarFilas(InputStream cuerpo, Formato formato, long inicio) throws IOException {
+        List<LectorImportacion.Fila> filas;
+        try (Reader reader = new InputStreamReader(cuerpo, StandardCharsets.UTF_8)) {
+            filas = formato == Formato.NDJSON
+                    ? LectorImportacion.ndjson(reader, objectMapper)
+                    : LectorImportacion.csv(reader);
+        }
+        if (filas.size() > maxFilas) {
+            throw new RuntimeException("El archivo tiene " + filas.size() + " filas; el máximo es " + maxFilas);
+        }
+
+        // 1) validación por fila y emails repetidos dentro del archivo
+        Map<Integer, ResultadoImportacionDTO.Fila> resultados = new HashMap<>();
+        Map<String, Integer> primeraLinea = new HashMap<>();
+        List<LectorImportacion.Fila> validas = new ArrayList<>();
+        for (LectorImportacion.Fila f : filas) {
+            String error = f.error() != null ? f.error() : validar(f.datos());
+            String email = f.datos() != null ? f.datos().getEmailContacto() : null;
+            if (error == null && email != null) {
+                Integer anterior = primeraLinea.putIfAbsent(email, f.linea());
+                if (anterior != null) {
+                    error = "Email repetido en el archivo (línea " + anterior + ")";
+                }
+            }
+            if (error != null) {
+                resultados.put(f.linea(), ResultadoImportacionDTO.Fila.rechazada(f.linea(), email, error));
+            } else {
+                validas.add(f);
+            }
+        }
+
+        // 2) emails ya registrados, por bloques de EMAILS_POR_CONSULTA
+        Set<String> existentes = emailsExistentes(primeraLinea.keySet());
+
+        // 3) filas a crear; las que no traen contraseña comparten un hash
+        List<Pendiente> pendientes = new ArrayList<>(validas.size());
+        for (LectorImportacion.Fila f : validas) {
+            ProgramadorImportDTO d = f.datos();
+            if (d.getEmailContacto() != null && existentes.contains(d.getEmailContacto())) {
+                resultados.put(f.linea(), ResultadoImportacionDTO.Fila.rechazada(f.linea(), d.getEmailContacto(),
+                        "El email " + d.getEmailContacto() + " ya está registrado."));
+                continue;
+            }
+            String email = d.getEmailContacto() != null
+                    ? d.getEmailContacto()
+                    : "temp_" + UUID.randomUUID() + "@sistema.com";
+            pendientes.add(new Pendiente(f.linea(), email, d));
+        }
+        String hashPorDefecto = pendientes.stream().anyMatch(p -> p.datos().getPassword() == null)
+                ? bcrypt.encode(PASSWORD_POR_DEFECTO)
+                : null;
+
+        // 4) escritura por bloques; los hashes del bloque siguiente corren mientras se escribe este
+        int creados = 0;
+        List<Future<String>> hashes = List.of();
+        List<Future<String>> siguientes = hashear(bloqueDe(pendientes, 0), hashPorDefecto);
+        try {
+            for (int desde = 0; desde < pendientes.size(); desde += bloque) {
+                List<Pendiente> lote = bloqueDe(pendientes, desde);
+                hashes = siguientes;
+                siguientes = hashear(bloqueDe(pendientes, desde + bloque), hashPorDefecto);
+                for (ResultadoImportacionDTO.Fila r : guardarBloque(lote, hashes)) {
+                    resultados.put(r.linea(), r);
+                    if (r.programadorId() != null) {
+                        creados++;
+                    }
+                }
+            }
+        } finally {
+            hashes.forEach(h -> h.cancel(true));
+            siguientes.forEach(h -> h.cancel(true));
+            if (creados > 0) {
+                catalogoSnapshot.invalidarTodo();
+            }
+        }
+
+        List<ResultadoImportacionDTO.Fila> detalle = filas.stream()
+                .map(f -> resultados.get(f.linea()))
+                .toList();
+        return new ResultadoImportacionDTO(filas.size(), creados, filas.size() - creados,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio), new ArrayList<>(detalle));
+    }
+
+    // =========================
+    // AUXILIARES
+    // =========================
+    private String validar(ProgramadorImportDTO d) {
+        if (d.getNombre() == null || d.getNombre().isBlank()) {
+            return "Falta el nombre";
+        }
+        if (d.getEspecialidad() == null || d.getEspecialidad().isBlank()) {
+            return "Falta la especialidad";
+        }
+        if (d.getDescripcion() == null || d.getDescripcion().isBlank()) {
+            return "Falta la descripción";
+        }
+        if (d.getEmailContacto() != null) {
+            d.setEmailContacto(d.getEmailContacto().trim());
+            if (d.getEmailContacto().isEmpty()) {
+                d.setEmailContacto(null);
+            } else if (!d.getEmailContacto().contains("@")) {
+                return "Email no válido: " + d.getEmailContacto();
+            }
+        }
+        if (d.getHorasDisponibles() != null) {
+            for (String hora : d.getHorasDisponibles()) {
+                try {
+                    LocalTime.parse(hora);
+                } catch (DateTimeParseException e) {
+                    return "Hora no válida: " + hora;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Set<String> emailsExistentes(Collection<String> emails) {
+        Set<String> existentes = new HashSet<>();
+        List<String> lista = new ArrayList<>(emails);
+        for (int desde = 0; desde < lista.size(); desde += EMAILS_POR_CONSULTA) {
+            existentes.addAll(usuarioRepository.emailsExistentes(
+                    lista.subList(desde, Math.min(desde + EMAILS_POR_CONSULTA, lista.size()))));
+        }
+        return existentes;
+    }
+
+    private List<Pendiente> bloqueDe(List<Pendiente> pendientes, int desde) {
+        return pendientes.subList(Math.min(desde, pendientes.size()), Math.min(desde + bloque, pendientes.size()));
+    }
+
+    private List<Future<String>> hashear(List<Pendiente> lote, String hashPorDefecto) {
+        List<Future<String>> hashes = new ArrayList<>(lote.size());
+        for (Pendiente p : lote) {
+            String password = p.datos().getPassword();
+            hashes.add(password == null
+                    ? CompletableFuture.completedFuture(hashPorDefecto)
+                    : hilosHash.submit(() -> bcrypt.encode(password)));
+        }
+        return hashes;
+    }
+
+    private List<ResultadoImportacionDTO.Fila> guardarBloque(List<Pendiente> lote, List<Future<String>> futuros) {
+        // los hashes se esperan fuera de la transacción
+        List<String> hashes = new ArrayList<>(lote.size());
+        for (Future<String> f : futuros) {
+            hashes.add(esperar(f));
+        }
+
+        try {
+            return transactionTemplate.execute(st -> {
+                List<Usuario> usuarios = new ArrayList<>(lote.size());
+                List<Programador> programadores = new ArrayList<>(lote.size());
+                for (int i = 0; i < lote.size(); i++) {
+                    Programador programador = nuevoProgramador(lote.get(i), hashes.get(i));
+                    usuarios.add(programador.getUsuario());
+                    programadores.add(programador);
+                }
+                usuarioRepository.saveAll(usuarios);
+                programadorRepository.saveAll(programadores);
+                entityManager.flush();
+                entityManager.clear();
+
+                List<ResultadoImportacionDTO.Fila> filas = new ArrayList<>(lote.size());
+                for (int i = 0; i < lote.size(); i++) {
+                    filas.add(ResultadoImportacionDTO.Fila.creada(
+                            lote.get(i).linea(), lote.get(i).email(), programadores.get(i).getId()));
+                }
+                return filas;
+            });
+        } catch (RuntimeException e) {
+            // algún email se registró entre la consulta y el insert (u otra fila inválida):
+            // se repite el bloque de a una fila para saber cuál
+            List<ResultadoImportacionDTO.Fila> filas = new ArrayList<>(lote.size());
+            for (int i = 0; i < lote.size(); i++) {
+                filas.add(guardarFila(lote.get(i), hashes.get(i)));
+            }
+            return filas;
+        }
+    }
+
+    private ResultadoImportacionDTO.Fila guardarFila(Pendiente p, String hash) {
+        try {
+            UUID id = transactionTemplate.execute(st -> {
+                Programador programador = nuevoProgramador(p, hash);
+                usuarioRepository.save(programador.getUsuario());
+                Programador guardado = programadorRepository.save(programador);
+                entityManager.flush();
+                entityManager.clear();
+                return guardado.getId();
+            });
+            return ResultadoImportacionDTO.Fila.creada(p.linea(), p.email(), id);
+        } catch (DataIntegrityViolationException e) {
+            return ResultadoImportacionDTO.Fila.rechazada(p.linea(), p.email(),
+                    "El email " + p.email() + " ya está registrado.");
+        } catch (RuntimeException e) {
+            return ResultadoImportacionDTO.Fila.rechazada(p.linea(), p.email(), e.getMessage());
+        }
+    }
+
+    // Entidades nuevas en cada intento: tras un rollback las anteriores ya tienen id asignado
+    private Programador nuevoProgramador(Pendiente p, String hash) {
+        ProgramadorImportDTO d = p.datos();
+
+        Usuario usuario = new Usuario();
+        usuario.setNombre(d.getNombre());
+        usuario.setEmail(p.email());
+        usuario.setPasswordHash(hash);
+        usuario.setRol("programador");
+        usuario.setActivo(true);
+
+        Programador programador = new Programador();
+        programador.setUsuario(usuario);
+        programador.setEspecialidad(d.getEspecialidad());
+        programador.setDescripcion(d.getDescripcion());
+        programador.setEmailContacto(d.getEmailContacto());
+        programador.setGithub(d.getGithub());
+        programador.setLinkedin(d.getLinkedin());
+        programador.setPortafolio(d.getPortafolio());
+        programador.setWhatsapp(d.getWhatsapp());
+        programador.setDisponibilidadTexto(d.getDisponibilidad());
+        programador.setHorasDisponibles(d.getHorasDisponibles() != null
+                ? new ArrayList<>(d.getHorasDisponibles())
+                : new ArrayList<>());
+        return programador;
+    }
+
+    private static String esperar(Future<String> hash) {
+        try {
+            return hash.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Importación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("No se pudo generar la contraseña", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.lucero.backend.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucero.backend.dto.ProgramadorImportDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lectura de filas para ImportacionProgramadoresService.
+ * CSV: primera línea con los nombres de columna (los mismos campos de ProgramadorImportDTO,
+ * sin importar mayúsculas), separador coma o punto y coma, comillas dobles estilo RFC 4180.
+ * NDJSON: un objeto JSON por línea. Las líneas vacías se ignoran en ambos formatos.
+ * Una fila mal formada no corta la lectura: queda como Fila con error.
+ */
+final class LectorImportacion {
+
+    record Fila(int linea, ProgramadorImportDTO datos, String error) {
+    }
+
+    private LectorImportacion() {
+    }
+
+    // =========================
+    // NDJSON
+    // =========================
+    static List<Fila> ndjson(Reader reader, ObjectMapper mapper) throws IOException {
+        List<Fila> filas = new ArrayList<>();
+        BufferedReader in = new BufferedReader(reader);
+        String linea;
+        int numero = 0;
+        while ((linea = in.readLine()) != null) {
+            numero++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            try {
+                filas.add(new Fila(numero, mapper.readValue(linea, ProgramadorImportDTO.class), null));
+            } catch (JsonProcessingException e) {
+                filas.add(new Fila(numero, null, "JSON inválido: " + e.getOriginalMessage()));
+            }
+        }
+        return filas;
+    }
+
+    // =========================
+    // CSV
+    // =========================
+    static List<Fila> csv(Reader reader) throws IOException {
+        LectorCsv in = new LectorCsv(reader);
+        List<String> encabezado = in.siguiente();
+        if (encabezado == null) {
+            return List.of();
+        }
+        if (!encabezado.isEmpty() && encabezado.get(0).startsWith("\uFEFF")) {
+            encabezado.set(0, encabezado.get(0).substring(1));
+        }
+
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < encabezado.size(); i++) {
+            columnas.put(encabezado.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columnas.containsKey("nombre")) {
+            throw new RuntimeException("El CSV debe tener encabezado con al menos la columna 'nombre'");
+        }
+
+        List<Fila> filas = new ArrayList<>();
+        List<String> valores;
+        while ((valores = in.siguiente()) != null) {
+            if (valores.size() == 1 && valores.get(0).isBlank()) {
+                continue;
+            }
+            if (valores.size() > encabezado.size()) {
+                filas.add(new Fila(in.lineaInicio, null,
+                        "Tiene " + valores.size() + " columnas y el encabezado " + encabezado.size()));
+                continue;
+            }
+            filas.add(new Fila(in.lineaInicio, aDto(columnas, valores), null));
+        }
+        return filas;
+    }
+
+    private static ProgramadorImportDTO aDto(Map<String, Integer> columnas, List<String> valores) {
+        ProgramadorImportDTO dto = new ProgramadorImportDTO();
+        dto.setNombre(valor(columnas, valores, "nombre"));
+        dto.setDescripcion(valor(columnas, valores, "descripcion"));
+        dto.setEspecialidad(valor(columnas, valores, "especialidad"));
+        dto.setEmailContacto(valor(columnas, valores, "emailcontacto"));
+        dto.setGithub(valor(columnas, valores, "github"));
+        dto.setLinkedin(valor(columnas, valores, "linkedin"));
+        dto.setPortafolio(valor(columnas, valores, "portafolio"));
+        dto.setWhatsapp(valor(columnas, valores, "whatsapp"));
+        dto.setDisponibilidad(valor(columnas, valores, "disponibilidad"));
+        dto.setPassword(valor(columnas, valores, "password"));
+
+        String horas = valor(columnas, valores, "horasdisponibles");
+        if (horas != null) {
+            dto.setHorasDisponibles(Arrays.stream(horas.split("\\|"))
+                    .map(String::trim)
+                    .filter(h -> !h.isEmpty())
+                    .toList());
+        }
+        return dto;
+    }
+
+    private static String valor(Map<String, Integer> columnas, List<String> valores, String columna) {
+        Integer i = columnas.get(columna);
+        if (i == null || i >= valores.size()) {
+            return null;
+        }
+        String v = valores.get(i).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    // Registro a registro; un campo entre comillas puede ocupar varias líneas
+    private static final class LectorCsv {
+
+        private final BufferedReader in;
+        private int linea = 1;
+        private int lineaInicio;
+        private boolean fin;
+        private char separador;
+
+        LectorCsv(Reader reader) {
+            this.in = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+        }
+
+        List<String> siguiente() throws IOException {
+            if (fin) {
+                return null;
+            }
+            lineaInicio = linea;
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreComillas = false;
+            boolean leido = false;
+
+            int c;
+            while ((c = in.read()) != -1) {
+                leido = true;
+                char ch = (char) c;
+                if (entreComillas) {
+                    if (ch == '"') {
+                        in.mark(1);
+                        int siguiente = in.read();
+                        if (siguiente == '"') {
+                            campo.append('"');
+                        } else {
+                            entreComillas = false;
+                            if (siguiente != -1) {
+                                in.reset();
+                            }
+                        }
+                    } else {
+                        if (ch == '\n') {
+                            linea++;
+                        }
+                        campo.append(ch);
+                    }
+                } else if (ch == '"' && campo.isEmpty()) {
+                    entreComillas = true;
+                } else if (esSeparador(ch)) {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else if (ch == '\n') {
+                    linea++;
+                    campos.add(campo.toString());
+                    return campos;
+                } else if (ch != '\r') {
+                    campo.append(ch);
+                }
+            }
+
+            fin = true;
+            if (!leido) {
+                return null;
+            }
+            if (entreComillas) {
+                throw new RuntimeException("Comillas sin cerrar desde la línea " + lineaInicio);
+            }
+            campos.add(campo.toString());
+            return campos;
+        }
+
+        // El separador lo fija la primera coma o punto y coma del encabezado
+        private boolean esSeparador(char ch) {
+            if (separador == 0 && (ch == ',' || ch == ';')) {
+                separador = ch;
+            }
+            return ch == separador;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.dto.ProgramadorLibreDTO;
+import com.lucero.backend.dto.ProgramadorPublicoDTO;
+import com.lucero.backend.repositories.AsesoriaRepository;
+import com.lucero.backend.repositories.DisponibilidadRepository;
+import com.lucero.backend.repositories.ProgramadorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calcula horarios libres uniendo horasDisponibles y las ventanas de
+ * Disponibilidad en una {@link PlantillaSemanal}, y restando las asesorías
+ * tomadas con operaciones de bits. Las horas fuera de la grilla de 30 minutos
+ * se comparan por hora exacta, como antes. Las plantillas quedan en caché
+ * hasta que el perfil del programador cambia.
+ */
+@Service
+@RequiredArgsConstructor
+public class MotorDisponibilidad {
+
+    public static final int MAX_DIAS_RANGO = 92;
+    private static final int TAMANIO_LOTE_IN = 1000;
+
+    private final ProgramadorRepository programadorRepository;
+    private final DisponibilidadRepository disponibilidadRepository;
+    private final AsesoriaRepository asesoriaRepository;
+    private final CatalogoSnapshotService catalogoSnapshot;
+
+    private final Map<UUID, PlantillaSemanal> plantillas = new ConcurrentHashMap<>();
+
+    // =========================
+    // PLANTILLAS
+    // =========================
+    public PlantillaSemanal plantilla(UUID programadorId) {
+        PlantillaSemanal plantilla = plantillas.get(programadorId);
+        if (plantilla == null) {
+            // se compila fuera del mapa para no bloquear otras claves durante la consulta
+            plantilla = compilar(programadorId);
+            PlantillaSemanal previa = plantillas.putIfAbsent(programadorId, plantilla);
+            if (previa != null) {
+                plantilla = previa;
+            }
+        }
+        return plantilla;
+    }
+
+    public void invalidar(UUID programadorId) {
+        plantillas.remove(programadorId);
+    }
+
+    private PlantillaSemanal compilar(UUID programadorId) {
+        PlantillaSemanal plantilla = new PlantillaSemanal();
+        for (String hora : programadorRepository.findHorasDe(programadorId)) {
+            plantilla.agregarHora(hora);
+        }
+        for (Object[] v : disponibilidadRepository.findVentanasActivas(programadorId)) {
+            plantilla.agregarVentana((Integer) v[0], (LocalTime) v[1], (LocalTime) v[2]);
+        }
+        return plantilla;
+    }
+
+    // =========================
+    // SLOTS LIBRES POR RANGO
+    // =========================
+    // Una sola consulta de asesorías para todo el rango, sin importar cuántos días sean
+    public Map<LocalDate, List<String>> slotsLibres(UUID programadorId, LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("'hasta' no puede ser anterior a 'desde'");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAX_DIAS_RANGO) {
+            throw new IllegalArgumentException("El rango máximo es de " + MAX_DIAS_RANGO + " días");
+        }
+
+        PlantillaSemanal plantilla = plantilla(programadorId);
+        List<Object[]> filas = asesoriaRepository.findHorariosOcupados(programadorId, desde, hasta);
+        Map<LocalDate, Long> ocupados = ocupados(filas);
+        Map<LocalDate, Set<LocalTime>> ocupadasFuera = plantilla.tieneHorasFueraDeGrilla()
+                ? ocupadasFueraDeGrilla(filas) : Map.of();
+
+        Map<LocalDate, List<String>> resultado = new LinkedHashMap<>();
+        for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            resultado.put(dia, plantilla.horasLibres(dia, ocupados.getOrDefault(dia, 0L),
+                    ocupadasFuera.getOrDefault(dia, Set.of())));
+        }
+        return resultado;
+    }
+
+    // =========================
+    // ¿QUIÉN ESTÁ LIBRE? (todos los programadores)
+    // =========================
+    // Una consulta de asesorías para el día + plantillas en caché (las que falten se cargan en lote)
+    public List<ProgramadorLibreDTO> programadoresLibres(LocalDate fecha, LocalTime hora, String especialidad) {
+        List<ProgramadorPublicoDTO> candidatos = new ArrayList<>();
+        for (ProgramadorPublicoDTO p : catalogoSnapshot.programadores()) {
+            if (especialidad == null || especialidad.isBlank()
+                    || especialidad.trim().equalsIgnoreCase(p.getEspecialidad())) {
+                candidatos.add(p);
+            }
+        }
+        if (candidatos.isEmpty()) {
+            return List.of();
+        }
+        cargarPlantillasFaltantes(candidatos.stream().map(ProgramadorPublicoDTO::getId).toList());
+
+        Map<UUID, Long> ocupados = new HashMap<>();
+        Map<UUID, Set<LocalTime>> ocupadasFuera = new HashMap<>();
+        for (Object[] f : asesoriaRepository.findHorariosOcupadosDelDia(fecha)) {
+            if (f[1] != null) {
+                LocalTime h = PlantillaSemanal.aMinutos((LocalTime) f[1]);
+                if (PlantillaSemanal.enGrilla(h)) {
+                    ocupados.merge((UUID) f[0], PlantillaSemanal.bit(h), (a, b) -> a | b);
+                } else {
+                    ocupadasFuera.computeIfAbsent((UUID) f[0], k -> new TreeSet<>()).add(h);
+                }
+            }
+        }
+
+        List<String> soloHora = (hora != null) ? List.of(PlantillaSemanal.aMinutos(hora).toString()) : null;
+        List<ProgramadorLibreDTO> libres = new ArrayList<>();
+        for (ProgramadorPublicoDTO p : candidatos) {
+            // si un invalidar() la sacó después del lote, se vuelve a compilar sola
+            PlantillaSemanal plantilla = plantilla(p.getId());
+            long ocupadosBits = ocupados.getOrDefault(p.getId(), 0L);
+            Set<LocalTime> fuera = ocupadasFuera.getOrDefault(p.getId(), Set.of());
+            List<String> horas;
+            if (hora != null) {
+                horas = plantilla.libreA(fecha, hora, ocupadosBits, fuera) ? soloHora : List.of();
+            } else {
+                horas = plantilla.horasLibres(fecha, ocupadosBits, fuera);
+            }
+            if (!horas.isEmpty()) {
+                libres.add(new ProgramadorLibreDTO(p.getId(), p.getNombre(), p.getFoto(),
+                        p.getEspecialidad(), horas));
+            }
+        }
+        return libres;
+    }
+
+    // Compila en lote (dos consultas por cada bloque de ids) las plantillas que no estén en caché
+    private void cargarPlantillasFaltantes(List<UUID> ids) {
+        List<UUID> faltantes = ids.stream().filter(id -> !plantillas.containsKey(id)).toList();
+        for (int i = 0; i < faltantes.size(); i += TAMANIO_LOTE_IN) {
+            List<UUID> lote = faltantes.subList(i, Math.min(i + TAMANIO_LOTE_IN, faltantes.size()));
+
+            Map<UUID, PlantillaSemanal> nuevas = new HashMap<>();
+            lote.forEach(id -> nuevas.put(id, new PlantillaSemanal()));
+            for (Object[] f : programadorRepository.findHorasDeVarios(lote)) {
+                nuevas.get((UUID) f[0]).agregarHora((String) f[1]);
+            }
+            for (Object[] v : disponibilidadRepository.findVentanasActivasDeVarios(lote)) {
+                nuevas.get((UUID) v[0]).agregarVentana((Integer) v[1], (LocalTime) v[2], (LocalTime) v[3]);
+            }
+            nuevas.forEach(plantillas::putIfAbsent);
+        }
+    }
+
+    // Filas [fecha, hora] -> bits ocupados por día (solo horas de la grilla)
+    public static Map<LocalDate, Long> ocupados(List<Object[]> filas) {
+        Map<LocalDate, Long> porDia = new HashMap<>();
+        for (Object[] f : filas) {
+            LocalDate fecha = (LocalDate) f[0];
+            LocalTime hora = (LocalTime) f[1];
+            if (fecha != null && hora != null && PlantillaSemanal.enGrilla(PlantillaSemanal.aMinutos(hora))) {
+                porDia.merge(fecha, PlantillaSemanal.bit(hora), (a, b) -> a | b);
+            }
+        }
+        return porDia;
+    }
+
+    // Filas [fecha, hora] -> horas ocupadas fuera de la grilla, por día
+    public static Map<LocalDate, Set<LocalTime>> ocupadasFueraDeGrilla(List<Object[]> filas) {
+        Map<LocalDate, Set<LocalTime>> porDia = new HashMap<>();
+        for (Object[] f : filas) {
+            LocalDate fecha = (LocalDate) f[0];
+            LocalTime hora = (LocalTime) f[1];
+            if (fecha != null && hora != null) {
+                LocalTime h = PlantillaSemanal.aMinutos(hora);
+                if (!PlantillaSemanal.enGrilla(h)) {
+                    porDia.computeIfAbsent(fecha, k -> new TreeSet<>()).add(h);
+                }
+            }
+        }
+        return porDia;
+    }
+}
@@ -0,0 +1,91 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.models.Notificacion;
+import com.lucero.backend.repositories.NotificacionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Entrega de notificaciones fuera del hilo de la petición (outbox transaccional).
+ * La fila ya quedó guardada junto con el cambio de negocio; aquí se reclama
+ * (PENDIENTE -> EN_PROCESO con lease) y se envía en hilos virtuales, con un
+ * máximo de envíos simultáneos por instancia.
+ * NotificacionTemporizador decide cuándo; lo que se pierda lo recoge NotificacionScheduler.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificacionDispatcher {
+
+    private final NotificacionRepository notificacionRepository;
+    private final NotificacionService notificacionService;
+
+    @Value("${notificaciones.lease-segundos:300}")
+    private long leaseSegundos;
+
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+    private Semaphore cupos;
+
+    @Value("${notificaciones.envios-concurrentes:8}")
+    void setEnviosConcurrentes(int enviosConcurrentes) {
+        this.cupos = new Semaphore(enviosConcurrentes);
+    }
+
+    public Duration lease() {
+        return Duration.ofSeconds(leaseSegundos);
+    }
+
+    // Envío inmediato de una notificación ya vencida (lo llama NotificacionTemporizador).
+    // El cupo se toma antes de reclamar y leer la fila: una ráfaga de vencimientos deja
+    // hilos virtuales esperando, no consultas compitiendo por conexiones del pool.
+    public void despachar(UUID notificacionId) {
+        envios.submit(() -> conCupo(() -> {
+            if (notificacionService.reclamar(notificacionId, lease())) {
+                notificacionRepository.findById(notificacionId).ifPresent(notificacionService::enviar);
+            }
+        }));
+    }
+
+    // Lote ya reclamado: se reparte entre los envíos y se espera a que termine
+    public void enviarLote(List<Notificacion> lote) {
+        List<Future<?>> pendientes = new ArrayList<>(lote.size());
+        for (Notificacion n : lote) {
+            pendientes.add(envios.submit(() -> conCupo(() -> notificacionService.enviar(n))));
+        }
+        for (Future<?> f : pendientes) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // enviar() ya registra el error en la fila
+            }
+        }
+    }
+
+    private void conCupo(Runnable tarea) {
+        cupos.acquireUninterruptibly();
+        try {
+            tarea.run();
+        } finally {
+            cupos.release();
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        envios.shutdown();
+    }
+}
@@ -0,0 +1,8 @@
+package com.lucero.backend.services;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Se publica al encolar una notificación; se programa cuando la transacción confirma
+public record NotificacionEncoladaEvent(UUID notificacionId, LocalDateTime programadaPara) {
+}
@@ -0,0 +1,60 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.repositories.NotificacionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gauges de la cola de notificaciones para /actuator/prometheus:
+ * - notificaciones.backlog{estado=pendiente|vencida|en_proceso}: filas en la tabla
+ *   (vencida = PENDIENTE cuya hora ya pasó, o sea atraso real de envío)
+ * - notificaciones.programadas: las que esperan en la rueda de NotificacionTemporizador
+ * El conteo en base se refresca cada {@code notificaciones.metricas-ms}, no en cada scrape.
+ */
+@Component
+public class NotificacionMetricas {
+
+    private final NotificacionRepository notificacionRepository;
+
+    private final AtomicLong pendientes = new AtomicLong();
+    private final AtomicLong vencidas = new AtomicLong();
+    private final AtomicLong enProceso = new AtomicLong();
+
+    public NotificacionMetricas(NotificacionRepository notificacionRepository,
+                                NotificacionTemporizador temporizador,
+                                MeterRegistry registry) {
+        this.notificacionRepository = notificacionRepository;
+
+        Gauge.builder("notificaciones.backlog", pendientes, AtomicLong::get).tag("estado", "pendiente")
+                .description("Notificaciones PENDIENTE en la tabla").register(registry);
+        Gauge.builder("notificaciones.backlog", vencidas, AtomicLong::get).tag("estado", "vencida")
+                .description("Notificaciones PENDIENTE cuya hora ya pasó").register(registry);
+        Gauge.builder("notificaciones.backlog", enProceso, AtomicLong::get).tag("estado", "en_proceso")
+                .description("Notificaciones reclamadas (EN_PROCESO)").register(registry);
+        Gauge.builder("notificaciones.programadas", temporizador, NotificacionTemporizador::programadas)
+                .description("Notificaciones esperando en la rueda temporal").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${notificaciones.metricas-ms:15000}")
+    public void actualizar() {
+        long p = 0, v = 0, e = 0;
+        for (Object[] fila : notificacionRepository.contarBacklog(LocalDateTime.now())) {
+            long total = ((Number) fila[1]).longValue();
+            long vencidasEstado = fila[2] != null ? ((Number) fila[2]).longValue() : 0;
+            if ("PENDIENTE".equals(fila[0])) {
+                p = total;
+                v = vencidasEstado;
+            } else {
+                e = total;
+            }
+        }
+        pendientes.set(p);
+        vencidas.set(v);
+        enProceso.set(e);
+    }
+}
@@ -1,32 +1,47 @@
 package com.lucero.backend.services;
 
 import com.lucero.backend.models.Notificacion;
-import com.lucero.backend.repositories.NotificacionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class NotificacionScheduler {
 
-    private final NotificacionRepository notificacionRepository;
     private final NotificacionService notificacionService;
+    private final NotificacionDispatcher dispatcher;
+    private final NotificacionTemporizador temporizador;
 
-    // cada 60 segundos revisa la cola
-    @Scheduled(fixedRate = 60000)
+    @Value("${notificaciones.lote:50}")
+    private int tamanioLote;
+
+    @Value("${notificaciones.max-lotes-por-ciclo:20}")
+    private int maxLotesPorCiclo;
+
+    // Red de seguridad (cada 5 min por defecto): NotificacionTemporizador ya dispara
+    // a tiempo, aquí se recoge lo perdido reclamando lotes con SKIP LOCKED (seguro
+    // con varias instancias) y se vuelve a cargar el horizonte de la rueda.
+    @Scheduled(fixedDelayString = "${notificaciones.barrido-ms:300000}",
+            initialDelayString = "${notificaciones.barrido-ms:300000}")
     public void procesarPendientes() {
-        List<Notificacion> pendientes = notificacionRepository
-                .findByEstadoEnvioAndProgramadaParaLessThanEqualOrderByProgramadaParaAsc(
-                        "PENDIENTE",
-                        LocalDateTime.now()
-                );
-
-        for (Notificacion n : pendientes) {
-            notificacionService.enviar(n);
+        procesarVencidas();
+        temporizador.cargarHorizonte();
+    }
+
+    private void procesarVencidas() {
+        for (int i = 0; i < maxLotesPorCiclo; i++) {
+            List<Notificacion> lote = notificacionService.reclamarLote(tamanioLote, dispatcher.lease());
+            if (lote.isEmpty()) {
+                return;
+            }
+            dispatcher.enviarLote(lote);
+            if (lote.size() < tamanioLote) {
+                return;
+            }
         }
     }
 }
@@ -2,69 +2,228 @@ package com.lucero.backend.services;
 
 import com.lucero.backend.models.Notificacion;
 import com.lucero.backend.repositories.NotificacionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 @RequiredArgsConstructor
 public class NotificacionService {
 
+    private static final Logger log = LoggerFactory.getLogger(NotificacionService.class);
+
     private final NotificacionRepository notificacionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Si no configuras SMTP aún, esto puede ser null si no lo inyectas.
     // Para evitar errores, lo dejamos opcional:
     private final JavaMailSender mailSender;
 
+    private final MeterRegistry meterRegistry;
+
+    public record Correo(String destinatario, String asunto, String mensaje) {
+    }
+
+    private static final Duration BACKOFF_BASE = Duration.ofSeconds(30);
+    private static final Duration BACKOFF_MAXIMO = Duration.ofHours(1);
+
+    @Value("${notificaciones.max-intentos:6}")
+    private int maxIntentos;
+
+    @Value("${spring.mail.username}")
+    private String from;
+
     // =========================
     // 1) ENCOLAR NOTIFICACIONES
     // =========================
-    public void encolarEmail(String email, String mensaje, LocalDateTime programadaPara) {
+    // Se guardan en la transacción de quien llama; el envío ocurre después del commit
+    public Notificacion encolarEmail(String email, String mensaje, LocalDateTime programadaPara) {
+        return encolarEmail(email, null, mensaje, programadaPara);
+    }
+
+    public Notificacion encolarEmail(String email, String asunto, String mensaje, LocalDateTime programadaPara) {
         Notificacion n = new Notificacion();
         n.setTipo("EMAIL");
         n.setDestinatario(email);
+        n.setAsunto(asunto);
         n.setMensaje(mensaje);
         n.setProgramadaPara(programadaPara);
         n.setEstadoEnvio("PENDIENTE");
-        notificacionRepository.save(n);
+        return guardarYAvisar(n);
     }
 
-    public void encolarWhatsApp(String telefono, String mensaje, LocalDateTime programadaPara) {
+    // Varios correos en una sola escritura (saveAll en lotes JDBC), p. ej. un cambio masivo de estado
+    public List<Notificacion> encolarEmails(List<Correo> correos, LocalDateTime programadaPara) {
+        List<Notificacion> nuevas = new ArrayList<>(correos.size());
+        for (Correo c : correos) {
+            Notificacion n = new Notificacion();
+            n.setTipo("EMAIL");
+            n.setDestinatario(c.destinatario());
+            n.setAsunto(c.asunto());
+            n.setMensaje(c.mensaje());
+            n.setProgramadaPara(programadaPara);
+            n.setEstadoEnvio("PENDIENTE");
+            nuevas.add(n);
+        }
+        List<Notificacion> guardadas = notificacionRepository.saveAll(nuevas);
+        for (Notificacion g : guardadas) {
+            eventPublisher.publishEvent(new NotificacionEncoladaEvent(g.getId(), g.getProgramadaPara()));
+        }
+        return guardadas;
+    }
+
+    public Notificacion encolarWhatsApp(String telefono, String mensaje, LocalDateTime programadaPara) {
         Notificacion n = new Notificacion();
         n.setTipo("WHATSAPP");
         n.setDestinatario(telefono);
         n.setMensaje(mensaje);
         n.setProgramadaPara(programadaPara);
         n.setEstadoEnvio("PENDIENTE");
-        notificacionRepository.save(n);
+        return guardarYAvisar(n);
+    }
+
+    private Notificacion guardarYAvisar(Notificacion n) {
+        Notificacion guardada = notificacionRepository.save(n);
+        eventPublisher.publishEvent(new NotificacionEncoladaEvent(guardada.getId(), guardada.getProgramadaPara()));
+        return guardada;
     }
 
     // =========================
-    // 2) ENVIAR UNA NOTIFICACIÓN
+    // 2) RECLAMAR (varias instancias)
     // =========================
+    // Bloquea un lote con SKIP LOCKED y lo marca EN_PROCESO con vencimiento.
+    // Al confirmar, el lote es de esta instancia hasta que venza el lease.
+    @Transactional
+    public List<Notificacion> reclamarLote(int tamanio, Duration lease) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Notificacion> lote = new ArrayList<>(notificacionRepository.bloquearLote(ahora, tamanio));
+        if (lote.size() < tamanio) {
+            lote.addAll(notificacionRepository.bloquearLeasesVencidos(ahora, tamanio - lote.size()));
+        }
+        if (lote.isEmpty()) {
+            return lote;
+        }
+        LocalDateTime vence = ahora.plus(lease);
+        notificacionRepository.marcarEnProceso(lote.stream().map(Notificacion::getId).toList(), vence);
+        for (Notificacion n : lote) {
+            n.setEstadoEnvio("EN_PROCESO");
+            n.setLeaseHasta(vence);
+        }
+        return lote;
+    }
+
+    @Transactional
+    public boolean reclamar(UUID id, Duration lease) {
+        LocalDateTime ahora = LocalDateTime.now();
+        return notificacionRepository.reclamar(id, ahora, ahora.plus(lease)) == 1;
+    }
+
+    // =========================
+    // 3) ENVIAR UNA NOTIFICACIÓN
+    // =========================
+    // Métricas: notificaciones.envio (tiempo de cada intento, por tipo y resultado)
+    // y notificaciones.fallos (por tipo y si queda para reintento, DEAD o sin registrar)
     public void enviar(Notificacion n) {
+        n.setIntentos(n.getIntentos() + 1);
+        String tipo = n.getTipo() != null ? n.getTipo().toLowerCase(Locale.ROOT) : "desconocido";
+        Timer.Sample muestra = Timer.start(meterRegistry);
         try {
             if ("EMAIL".equalsIgnoreCase(n.getTipo())) {
-                enviarEmailReal(n.getDestinatario(), "Notificación de asesoría", n.getMensaje());
+                String asunto = (n.getAsunto() != null) ? n.getAsunto() : "Notificación de asesoría";
+                enviarEmailReal(n.getDestinatario(), asunto, n.getMensaje());
             } else if ("WHATSAPP".equalsIgnoreCase(n.getTipo())) {
                 // ✅ WhatsApp simulado (por ahora)
                 // Aquí luego conectas Twilio si quieres.
                 // Por ahora basta para evidencia: guardamos ENVIADO.
             }
-
-            n.setEstadoEnvio("ENVIADO");
-            n.setEnviadoEn(LocalDateTime.now());
-            n.setError(null);
-            notificacionRepository.save(n);
-
         } catch (Exception e) {
-            n.setEstadoEnvio("FALLIDO");
+            boolean agotada = n.getIntentos() >= maxIntentos;
+            String resultado = agotada ? "dead" : "reintento";
+            muestra.stop(tiempoEnvio(tipo, resultado));
+            fallos(tipo, resultado).increment();
+
+            n.setLeaseHasta(null);
             n.setError(e.getMessage());
+            if (agotada) {
+                n.setEstadoEnvio("DEAD"); // terminal: ya no se reintenta
+                notificacionRepository.save(n);
+                return;
+            }
+            n.setEstadoEnvio("PENDIENTE");
+            n.setProgramadaPara(calcularProximoIntento(n.getIntentos(), LocalDateTime.now()));
+            Notificacion guardada = notificacionRepository.save(n);
+            eventPublisher.publishEvent(
+                    new NotificacionEncoladaEvent(guardada.getId(), guardada.getProgramadaPara()));
+            return;
+        }
+        muestra.stop(tiempoEnvio(tipo, "enviado"));
+        registrarEnviado(n, tipo);
+    }
+
+    // El mensaje ya salió: un error al guardarlo no es un fallo de envío, así que
+    // no se reprograma (eso lo reenviaría). Se reintenta con un UPDATE directo; si
+    // tampoco se puede, la fila sigue EN_PROCESO y solo vuelve a salir al vencer el lease.
+    private void registrarEnviado(Notificacion n, String tipo) {
+        LocalDateTime enviadoEn = LocalDateTime.now();
+        n.setEstadoEnvio("ENVIADO");
+        n.setLeaseHasta(null);
+        n.setEnviadoEn(enviadoEn);
+        n.setError(null);
+        try {
             notificacionRepository.save(n);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Notificación {} enviada pero no se pudo guardar: {}", n.getId(), e.getMessage());
         }
+        try {
+            notificacionRepository.marcarEnviada(n.getId(), n.getIntentos(), enviadoEn);
+        } catch (RuntimeException e) {
+            fallos(tipo, "sin_registrar").increment();
+            log.error("Notificación {} enviada y sin registrar; se reenviará al vencer el lease", n.getId(), e);
+        }
+    }
+
+    private Timer tiempoEnvio(String tipo, String resultado) {
+        return Timer.builder("notificaciones.envio")
+                .description("Tiempo de cada intento de envío (SMTP / WhatsApp)")
+                .tag("tipo", tipo)
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter fallos(String tipo, String resultado) {
+        return Counter.builder("notificaciones.fallos")
+                .description("Envíos fallidos; resultado=reintento, dead o sin_registrar (enviado pero no guardado)")
+                .tag("tipo", tipo)
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    // Backoff exponencial con jitter: base * 2^(intentos-1), tope de 1 hora,
+    // y un valor al azar entre la mitad y el total para no reintentar todos juntos
+    public LocalDateTime calcularProximoIntento(int intentos, LocalDateTime ahora) {
+        long espera = Math.min(BACKOFF_MAXIMO.toMillis(),
+                BACKOFF_BASE.toMillis() << Math.min(Math.max(intentos - 1, 0), 20));
+        long conJitter = espera / 2 + ThreadLocalRandom.current().nextLong(espera / 2 + 1);
+        return ahora.plus(Duration.ofMillis(conJitter));
     }
 
     private void enviarEmailReal(String para, String asunto, String cuerpo) {
@@ -74,6 +233,7 @@ public class NotificacionService {
         }
 
         SimpleMailMessage msg = new SimpleMailMessage();
+        msg.setFrom(from);
         msg.setTo(para);
         msg.setSubject(asunto);
         msg.setText(cuerpo);
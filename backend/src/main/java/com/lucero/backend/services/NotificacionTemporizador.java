@@ -0,0 +1,105 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.repositories.NotificacionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispara cada notificación a su hora (±{@link #TICK_MS} ms) con una
+ * {@link RuedaTemporal} en memoria, en lugar de esperar al próximo barrido.
+ * Se carga al arrancar con las PENDIENTE del horizonte y se alimenta con cada
+ * encolarEmail/encolarWhatsApp confirmado. El barrido de NotificacionScheduler
+ * queda como red de seguridad.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificacionTemporizador {
+
+    static final long TICK_MS = 100;
+    private static final int CASILLEROS = 512; // nivel 0 = 51,2 s
+
+    private final NotificacionRepository notificacionRepository;
+    private final NotificacionDispatcher dispatcher;
+
+    @Value("${notificaciones.horizonte-horas:24}")
+    private long horizonteHoras;
+
+    private final RuedaTemporal<UUID> rueda = new RuedaTemporal<>(TICK_MS, CASILLEROS, System.currentTimeMillis());
+    private final Set<UUID> programadas = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService reloj = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "rueda-notificaciones");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        cargarHorizonte();
+        reloj.scheduleAtFixedRate(this::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alEncolar(NotificacionEncoladaEvent event) {
+        programar(event.notificacionId(), event.programadaPara());
+    }
+
+    public void programar(UUID id, LocalDateTime programadaPara) {
+        if (!programadaPara.isAfter(LocalDateTime.now())) {
+            dispatcher.despachar(id); // ya vencida: sin esperar al tick
+            return;
+        }
+        if (!programadas.add(id)) {
+            return;
+        }
+        long venceMs = programadaPara.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (rueda) {
+            rueda.agregar(id, venceMs);
+        }
+    }
+
+    // Carga (o recarga, desde el barrido) las PENDIENTE que vencen dentro del horizonte
+    public void cargarHorizonte() {
+        LocalDateTime hasta = LocalDateTime.now().plusHours(horizonteHoras);
+        for (Object[] fila : notificacionRepository.findPendientesHasta(hasta)) {
+            programar((UUID) fila[0], (LocalDateTime) fila[1]);
+        }
+    }
+
+    // Notificaciones esperando en la rueda (gauge notificaciones.programadas)
+    public int programadas() {
+        return programadas.size();
+    }
+
+    private void tick() {
+        List<UUID> vencidas = new ArrayList<>();
+        synchronized (rueda) {
+            rueda.avanzar(System.currentTimeMillis(), vencidas::add);
+        }
+        for (UUID id : vencidas) {
+            programadas.remove(id);
+            dispatcher.despachar(id);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        reloj.shutdownNow();
+    }
+}
@@ -0,0 +1,176 @@
+package com.lucero.backend.services;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Plantilla semanal de disponibilidad de un programador como mapa de bits:
+ * un long por día de la semana, un bit por bloque de {@link #MINUTOS_SLOT} minutos.
+ * Los cruces con las asesorías ocupadas son simples operaciones AND / AND NOT.
+ * Las horasDisponibles que no caen en la grilla (p. ej. "10:15") se guardan
+ * aparte tal cual, sin redondear, y solo las ocupa una asesoría a esa misma hora.
+ */
+public final class PlantillaSemanal {
+
+    public static final int MINUTOS_SLOT = 30;
+    public static final int SLOTS_POR_DIA = 24 * 60 / MINUTOS_SLOT; // 48, cabe en un long
+
+    private static final String[] ETIQUETAS = new String[SLOTS_POR_DIA];
+
+    static {
+        for (int i = 0; i < SLOTS_POR_DIA; i++) {
+            int minutos = i * MINUTOS_SLOT;
+            ETIQUETAS[i] = String.format("%02d:%02d", minutos / 60, minutos % 60);
+        }
+    }
+
+    // índice 0=Domingo, 1=Lunes... (igual que Disponibilidad.diaSemana)
+    private final long[] dias = new long[7];
+
+    // horasDisponibles fuera de la grilla de MINUTOS_SLOT: aplican a todos los días
+    private final TreeSet<LocalTime> fueraDeGrilla = new TreeSet<>();
+
+    // =========================
+    // CONSTRUCCIÓN
+    // =========================
+
+    // horasDisponibles del programador: aplican a todos los días
+    public PlantillaSemanal agregarHora(String hora) {
+        if (hora == null || hora.isBlank()) {
+            return this;
+        }
+        try {
+            LocalTime h = aMinutos(LocalTime.parse(hora.trim()));
+            if (!enGrilla(h)) {
+                fueraDeGrilla.add(h);
+                return this;
+            }
+            long bit = bit(h);
+            for (int d = 0; d < 7; d++) {
+                dias[d] |= bit;
+            }
+        } catch (DateTimeParseException e) {
+            // hora mal escrita en el perfil: se ignora
+        }
+        return this;
+    }
+
+    // Ventana de Disponibilidad [inicio, fin): solo bloques completos dentro de la ventana
+    public PlantillaSemanal agregarVentana(int diaSemana, LocalTime inicio, LocalTime fin) {
+        if (diaSemana < 0 || diaSemana > 6 || inicio == null || fin == null) {
+            return this;
+        }
+        int minInicio = inicio.toSecondOfDay() / 60;
+        int minFin = fin.isAfter(inicio) ? fin.toSecondOfDay() / 60 : 24 * 60;
+
+        int desde = (minInicio + MINUTOS_SLOT - 1) / MINUTOS_SLOT;
+        int hasta = minFin / MINUTOS_SLOT; // exclusivo
+        if (hasta > desde) {
+            dias[diaSemana] |= rango(desde, hasta);
+        }
+        return this;
+    }
+
+    // =========================
+    // CONSULTA
+    // =========================
+    public long dia(LocalDate fecha) {
+        return dias[fecha.getDayOfWeek().getValue() % 7];
+    }
+
+    public long libres(LocalDate fecha, long ocupados) {
+        return dia(fecha) & ~ocupados;
+    }
+
+    // Horas libres del día ya como "HH:mm" y ordenadas: los bloques libres de la
+    // grilla más las horas fuera de grilla que no estén en ocupadasFueraDeGrilla
+    public List<String> horasLibres(LocalDate fecha, long ocupados, Set<LocalTime> ocupadasFueraDeGrilla) {
+        long bits = libres(fecha, ocupados);
+        if (fueraDeGrilla.isEmpty()) {
+            return aHoras(bits);
+        }
+        List<String> horas = new ArrayList<>(Long.bitCount(bits) + fueraDeGrilla.size());
+        Iterator<LocalTime> extra = fueraDeGrilla.iterator();
+        LocalTime siguiente = extra.hasNext() ? extra.next() : null;
+        while (bits != 0 || siguiente != null) {
+            int slot = (bits != 0) ? Long.numberOfTrailingZeros(bits) : SLOTS_POR_DIA;
+            if (siguiente != null && slot(siguiente) < slot) {
+                if (!ocupadasFueraDeGrilla.contains(siguiente)) {
+                    horas.add(siguiente.toString());
+                }
+                siguiente = extra.hasNext() ? extra.next() : null;
+            } else {
+                horas.add(ETIQUETAS[slot]);
+                bits &= bits - 1;
+            }
+        }
+        return horas;
+    }
+
+    // ¿La hora exacta está libre ese día? Fuera de grilla solo coincide la misma hora
+    public boolean libreA(LocalDate fecha, LocalTime hora, long ocupados, Set<LocalTime> ocupadasFueraDeGrilla) {
+        LocalTime h = aMinutos(hora);
+        if (enGrilla(h)) {
+            return (libres(fecha, ocupados) & bit(h)) != 0;
+        }
+        return fueraDeGrilla.contains(h) && !ocupadasFueraDeGrilla.contains(h);
+    }
+
+    public boolean tieneHorasFueraDeGrilla() {
+        return !fueraDeGrilla.isEmpty();
+    }
+
+    public boolean vacia() {
+        if (!fueraDeGrilla.isEmpty()) {
+            return false;
+        }
+        for (long d : dias) {
+            if (d != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // =========================
+    // AUXILIARES
+    // =========================
+    public static int slot(LocalTime hora) {
+        return (hora.getHour() * 60 + hora.getMinute()) / MINUTOS_SLOT;
+    }
+
+    public static long bit(LocalTime hora) {
+        return 1L << slot(hora);
+    }
+
+    // Como en el perfil ("HH:mm"), los segundos no cuentan
+    public static LocalTime aMinutos(LocalTime hora) {
+        return hora.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    public static boolean enGrilla(LocalTime hora) {
+        return hora.getSecond() == 0 && hora.getNano() == 0 && hora.getMinute() % MINUTOS_SLOT == 0;
+    }
+
+    // Bits encendidos -> "HH:mm", ya ordenados de menor a mayor
+    public static List<String> aHoras(long bits) {
+        List<String> horas = new ArrayList<>(Long.bitCount(bits));
+        while (bits != 0) {
+            horas.add(ETIQUETAS[Long.numberOfTrailingZeros(bits)]);
+            bits &= bits - 1;
+        }
+        return horas;
+    }
+
+    private static long rango(int desde, int hasta) {
+        long hastaMask = (hasta >= 64) ? -1L : (1L << hasta) - 1;
+        return hastaMask & ~((1L << desde) - 1);
+    }
+}
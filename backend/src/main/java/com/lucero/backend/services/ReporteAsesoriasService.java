@@ -0,0 +1,86 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.dto.ReporteAsesoriaFila;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.repositories.AsesoriaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Service
+public class ReporteAsesoriasService {
+
+    // Sin filtro de fechas se usa un rango que cubre todo (evita parámetros nulos en BETWEEN)
+    private static final LocalDate SIN_DESDE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate SIN_HASTA = LocalDate.of(9999, 12, 31);
+
+    public record Filtro(LocalDate desde, LocalDate hasta, EstadoAsesoria estado) {
+
+        public static final Filtro TODO = new Filtro(null, null, null);
+
+        public Filtro {
+            if (desde != null && hasta != null && desde.isAfter(hasta)) {
+                throw new RuntimeException("La fecha 'desde' no puede ser posterior a 'hasta'");
+            }
+        }
+    }
+
+    private final AsesoriaRepository asesoriaRepository;
+    private final TransactionTemplate lectura;
+
+    public ReporteAsesoriasService(AsesoriaRepository asesoriaRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.asesoriaRepository = asesoriaRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+    }
+
+    public void escribirPdf(UUID programadorId, String nombreProgramador, OutputStream out) {
+        escribir(programadorId, FormatoReporte.PDF, nombreProgramador, Filtro.TODO, out);
+    }
+
+    public void escribirExcel(UUID programadorId, OutputStream out) {
+        escribir(programadorId, FormatoReporte.XLSX, null, Filtro.TODO, out);
+    }
+
+    // El cursor de Postgres solo respeta el fetch size dentro de una transacción
+    public void escribir(UUID programadorId, FormatoReporte formato, String nombreProgramador,
+                         Filtro filtro, OutputStream out) {
+        lectura.executeWithoutResult(status -> {
+            try (Stream<ReporteAsesoriaFila> filas = asesoriaRepository.streamReporte(programadorId,
+                    filtro.desde() != null ? filtro.desde() : SIN_DESDE,
+                    filtro.hasta() != null ? filtro.hasta() : SIN_HASTA,
+                    filtro.estado())) {
+                Iterator<ReporteAsesoriaFila> it = filas.iterator();
+                switch (formato) {
+                    case PDF -> ReporteAsesoriasWriter.pdf(nombreProgramador, it, out);
+                    case XLSX -> ReporteAsesoriasWriter.excel(it, out);
+                    case CSV -> ReporteAsesoriasWriter.csv(it, out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Huella de los datos del programador: cambia al crear, borrar o responder una asesoría
+    public String versionDatos(UUID programadorId) {
+        List<Object[]> filas = asesoriaRepository.versionReporte(programadorId);
+        Object[] f = filas.isEmpty() ? new Object[3] : filas.get(0);
+        return f[0] + "|" + marca(f[1]) + "|" + marca(f[2]);
+    }
+
+    private static String marca(Object fecha) {
+        return (fecha instanceof LocalDateTime t) ? t.toString() : "-";
+    }
+}
@@ -0,0 +1,145 @@
+package com.lucero.backend.services;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.lucero.backend.dto.ReporteAsesoriaFila;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Escribe los reportes fila por fila directo al OutputStream.
+ * Ni el PDF ni el Excel se arman completos en memoria: iText baja la tabla
+ * cada {@link #FILAS_POR_FLUSH} filas, POI (SXSSF) mantiene solo una ventana
+ * de filas (el resto va a un archivo temporal) y el CSV pasa por un buffer fijo.
+ */
+public final class ReporteAsesoriasWriter {
+
+    static final int FILAS_POR_FLUSH = 200;
+    static final int VENTANA_EXCEL = 100;
+
+    private static final String[] COLUMNAS = { "Fecha", "Hora", "Solicitante", "Email", "Estado" };
+
+    private ReporteAsesoriasWriter() {
+    }
+
+    // =====================
+    // PDF
+    // =====================
+    public static void pdf(String nombreProgramador, Iterator<ReporteAsesoriaFila> filas, OutputStream out) {
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false); // el stream de la respuesta lo cierra el contenedor
+        PdfDocument pdf = new PdfDocument(writer);
+        Document doc = new Document(pdf); // immediateFlush: las páginas completas se escriben al salir
+
+        doc.add(new Paragraph("Reporte de Asesorías")
+                .setBold().setFontSize(16));
+        doc.add(new Paragraph("Programador: " + nombreProgramador));
+        doc.add(new Paragraph(" "));
+
+        // Tabla "grande": se agrega al documento antes de llenarla y se vacía por partes
+        float[] pointColumnWidths = { 100F, 100F, 150F, 150F, 100F };
+        Table table = new Table(pointColumnWidths, true);
+        for (String c : COLUMNAS) {
+            table.addHeaderCell(c);
+        }
+        doc.add(table);
+
+        int n = 0;
+        while (filas.hasNext()) {
+            ReporteAsesoriaFila a = filas.next();
+            table.addCell(texto(a.getFecha()));
+            table.addCell(texto(a.getHora()));
+            table.addCell(texto(a.getNombreSolicitante()));
+            table.addCell(texto(a.getEmailSolicitante()));
+            table.addCell(texto(a.getEstado()));
+            if (++n % FILAS_POR_FLUSH == 0) {
+                table.flush();
+            }
+        }
+        table.complete();
+        doc.close();
+    }
+
+    // =====================
+    // EXCEL
+    // =====================
+    public static void excel(Iterator<ReporteAsesoriaFila> filas, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(VENTANA_EXCEL);
+        try {
+            Sheet sheet = workbook.createSheet("Asesorías");
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < COLUMNAS.length; i++) {
+                header.createCell(i).setCellValue(COLUMNAS[i]);
+            }
+
+            int rowIdx = 1;
+            while (filas.hasNext()) {
+                ReporteAsesoriaFila a = filas.next();
+                Row row = sheet.createRow(rowIdx++);
+                row.createCell(0).setCellValue(texto(a.getFecha()));
+                row.createCell(1).setCellValue(texto(a.getHora()));
+                row.createCell(2).setCellValue(texto(a.getNombreSolicitante()));
+                row.createCell(3).setCellValue(texto(a.getEmailSolicitante()));
+                row.createCell(4).setCellValue(texto(a.getEstado()));
+            }
+
+            workbook.write(out);
+        } finally {
+            workbook.dispose(); // borra los temporales de SXSSF
+            workbook.close();
+        }
+    }
+
+    // =====================
+    // CSV
+    // =====================
+    public static void csv(Iterator<ReporteAsesoriaFila> filas, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        w.write(String.join(",", COLUMNAS));
+        w.write("\r\n");
+        while (filas.hasNext()) {
+            ReporteAsesoriaFila a = filas.next();
+            w.write(campoCsv(a.getFecha()));
+            w.write(',');
+            w.write(campoCsv(a.getHora()));
+            w.write(',');
+            w.write(campoCsv(a.getNombreSolicitante()));
+            w.write(',');
+            w.write(campoCsv(a.getEmailSolicitante()));
+            w.write(',');
+            w.write(campoCsv(a.getEstado()));
+            w.write("\r\n");
+        }
+        w.flush(); // no se cierra: el stream es del llamador
+    }
+
+    // RFC 4180: comillas solo si el valor trae separador, comillas o saltos de línea.
+    // Lo que empieza con = + - @ (o tab/CR) la hoja de cálculo lo toma como fórmula:
+    // se antepone ' para que quede como texto (nombre y email los escribe el cliente)
+    static String campoCsv(Object valor) {
+        String t = texto(valor);
+        if (!t.isEmpty() && "=+-@\t\r".indexOf(t.charAt(0)) >= 0) {
+            t = "'" + t;
+        }
+        if (t.indexOf(',') < 0 && t.indexOf('"') < 0 && t.indexOf('\n') < 0 && t.indexOf('\r') < 0) {
+            return t;
+        }
+        return '"' + t.replace("\"", "\"\"") + '"';
+    }
+
+    static String texto(Object valor) {
+        return (valor != null) ? valor.toString() : "";
+    }
+}
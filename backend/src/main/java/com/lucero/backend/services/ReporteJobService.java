@@ -0,0 +1,270 @@
+package com.lucero.backend.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Reportes generados fuera del hilo de la petición.
+ * Los jobs corren en un pool acotado (workers + cola fija; si se llena se rechaza)
+ * y el resultado queda en disco con un nombre derivado de programador, formato,
+ * filtros y versión de los datos: si nada cambió, el archivo existente se
+ * reutiliza sin volver a generarlo. Dos pedidos iguales en curso comparten el job.
+ * Cada acierto de caché renueva la fecha del archivo (la limpieza borra por antigüedad)
+ * y devuelve el mismo job "desde caché" del archivo, sin sumar uno nuevo por pedido.
+ */
+@Service
+public class ReporteJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReporteJobService.class);
+
+    public enum EstadoJob { PENDIENTE, EN_PROCESO, LISTO, ERROR }
+
+    @Getter
+    public static class ReporteJob {
+        private final UUID id = UUID.randomUUID();
+        private final UUID programadorId;
+        private final FormatoReporte formato;
+        private final ReporteAsesoriasService.Filtro filtro;
+        private final Path archivo;
+        private final Instant creadoEn = Instant.now();
+        private volatile EstadoJob estado = EstadoJob.PENDIENTE;
+        private volatile boolean desdeCache;
+        private volatile String error;
+        private volatile Instant terminadoEn;
+        // última vez que se terminó o se reutilizó: la limpieza cuenta la retención desde acá
+        private volatile Instant usadoEn;
+
+        ReporteJob(UUID programadorId, FormatoReporte formato, ReporteAsesoriasService.Filtro filtro, Path archivo) {
+            this.programadorId = programadorId;
+            this.formato = formato;
+            this.filtro = filtro;
+            this.archivo = archivo;
+        }
+
+        void terminar(EstadoJob estado, String error) {
+            this.error = error;
+            this.terminadoEn = Instant.now();
+            this.usadoEn = terminadoEn;
+            this.estado = estado;
+        }
+
+        void renovar() {
+            this.usadoEn = Instant.now();
+        }
+    }
+
+    private final ReporteAsesoriasService reporteService;
+    private final Path directorio;
+    private final Duration retencion;
+    private final ThreadPoolExecutor workers;
+
+    private final Map<UUID, ReporteJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Path, ReporteJob> enCurso = new ConcurrentHashMap<>();
+    private final Map<Path, ReporteJob> cacheados = new ConcurrentHashMap<>();
+
+    public ReporteJobService(ReporteAsesoriasService reporteService,
+                             @Value("${reportes.directorio:${java.io.tmpdir}/reportes-asesorias}") String directorio,
+                             @Value("${reportes.workers:2}") int cantidadWorkers,
+                             @Value("${reportes.cola:50}") int cola,
+                             @Value("${reportes.retencion-horas:24}") long retencionHoras) throws IOException {
+        this.reporteService = reporteService;
+        this.directorio = Files.createDirectories(Path.of(directorio));
+        this.retencion = Duration.ofHours(retencionHoras);
+
+        AtomicInteger n = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(cantidadWorkers, cantidadWorkers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola),
+                r -> {
+                    Thread t = new Thread(r, "reportes-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // =========================
+    // ENCOLAR
+    // =========================
+    public ReporteJob encolar(UUID programadorId, String nombreProgramador, FormatoReporte formato,
+                              ReporteAsesoriasService.Filtro filtro) {
+        String version = reporteService.versionDatos(programadorId);
+        Path archivo = directorio.resolve(programadorId.toString())
+                .resolve(clave(nombreProgramador, formato, filtro, version) + "." + formato.getExtension());
+
+        if (renovarArchivo(archivo)) {
+            return cacheados.compute(archivo, (a, previo) -> {
+                if (previo != null && jobs.containsKey(previo.getId())) {
+                    previo.renovar();
+                    return previo;
+                }
+                ReporteJob cacheado = new ReporteJob(programadorId, formato, filtro, archivo);
+                cacheado.desdeCache = true;
+                cacheado.terminar(EstadoJob.LISTO, null);
+                jobs.put(cacheado.getId(), cacheado);
+                return cacheado;
+            });
+        }
+
+        ReporteJob job = new ReporteJob(programadorId, formato, filtro, archivo);
+
+        ReporteJob existente = enCurso.putIfAbsent(archivo, job);
+        if (existente != null) {
+            return existente;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            workers.execute(() -> generar(job, nombreProgramador));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            enCurso.remove(archivo, job);
+            throw new ColaReportesLlenaException("Hay demasiados reportes en cola, intente más tarde");
+        }
+        return job;
+    }
+
+    // Solo el dueño ve sus jobs
+    public Optional<ReporteJob> obtener(UUID jobId, UUID programadorId) {
+        ReporteJob job = jobs.get(jobId);
+        if (job == null || !job.getProgramadorId().equals(programadorId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    // =========================
+    // DESCARGA
+    // =========================
+    // FileChannel.transferTo deja la copia al sistema operativo (sendfile/mmap
+    // cuando el destino lo permite) sin pasar el archivo por el heap.
+    public void transferir(ReporteJob job, OutputStream out) throws IOException {
+        try (FileChannel canal = FileChannel.open(job.getArchivo(), StandardOpenOption.READ)) {
+            WritableByteChannel destino = Channels.newChannel(out);
+            long posicion = 0;
+            long tamanio = canal.size();
+            while (posicion < tamanio) {
+                posicion += canal.transferTo(posicion, tamanio - posicion, destino);
+            }
+        }
+        out.flush();
+    }
+
+    public long tamanio(ReporteJob job) throws IOException {
+        return Files.size(job.getArchivo());
+    }
+
+    // =========================
+    // LIMPIEZA
+    // =========================
+    @Scheduled(fixedDelayString = "${reportes.limpieza-ms:3600000}", initialDelayString = "${reportes.limpieza-ms:3600000}")
+    public void limpiar() {
+        Instant limite = Instant.now().minus(retencion);
+        jobs.values().removeIf(j -> j.getUsadoEn() != null && j.getUsadoEn().isBefore(limite));
+        cacheados.values().removeIf(j -> !jobs.containsKey(j.getId()));
+
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.filter(Files::isRegularFile)
+                    .filter(a -> !enCurso.containsKey(a))
+                    .forEach(a -> {
+                        try {
+                            FileTime modificado = Files.getLastModifiedTime(a);
+                            if (modificado.toInstant().isBefore(limite)) {
+                                Files.deleteIfExists(a);
+                            }
+                        } catch (IOException ignored) {
+                            // lo intenta la próxima limpieza
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("No se pudo limpiar el directorio de reportes {}", directorio, e);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        workers.shutdownNow();
+    }
+
+    // =========================
+    // AUXILIARES
+    // =========================
+    // Si el archivo ya está generado le pone la fecha de ahora, así la limpieza no lo
+    // borra mientras se siga pidiendo. false si no existe (o la limpieza lo acaba de borrar).
+    private boolean renovarArchivo(Path archivo) {
+        if (!Files.isRegularFile(archivo)) {
+            return false;
+        }
+        try {
+            Files.setLastModifiedTime(archivo, FileTime.from(Instant.now()));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void generar(ReporteJob job, String nombreProgramador) {
+        job.estado = EstadoJob.EN_PROCESO;
+        Path temporal = null;
+        try {
+            Files.createDirectories(job.getArchivo().getParent());
+            // se escribe aparte y se mueve al final: nunca se sirve un archivo a medias
+            temporal = Files.createTempFile(job.getArchivo().getParent(), "job-", ".part");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporal), 64 * 1024)) {
+                reporteService.escribir(job.getProgramadorId(), job.getFormato(), nombreProgramador,
+                        job.getFiltro(), out);
+            }
+            Files.move(temporal, job.getArchivo(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            job.terminar(EstadoJob.LISTO, null);
+        } catch (Exception e) {
+            job.terminar(EstadoJob.ERROR, e.getMessage());
+            if (temporal != null) {
+                try {
+                    Files.deleteIfExists(temporal);
+                } catch (IOException ignored) {
+                    // lo borra la limpieza
+                }
+            }
+        } finally {
+            enCurso.remove(job.getArchivo(), job);
+        }
+    }
+
+    static String clave(String nombreProgramador, FormatoReporte formato,
+                        ReporteAsesoriasService.Filtro filtro, String version) {
+        String base = String.join("|", String.valueOf(nombreProgramador), formato.name(),
+                String.valueOf(filtro.desde()), String.valueOf(filtro.hasta()), String.valueOf(filtro.estado()),
+                version);
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(base.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.models.Asesoria;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.repositories.AsesoriaRepository;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reserva de horarios sin dobles reservas.
+ * Dentro del proceso, un candado por franja (hash del horario) serializa solo
+ * las reservas que compiten por el mismo horario; entre instancias, el índice
+ * único parcial uq_asesorias_horario_activo es la última palabra.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservaAsesoriaService {
+
+    private static final int FRANJAS = 256; // potencia de 2
+    private static final String INDICE_HORARIO = "uq_asesorias_horario_activo";
+
+    private final AsesoriaRepository asesoriaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Lock[] candados = crearCandados();
+
+    // La transacción se confirma antes de soltar el candado: la siguiente
+    // reserva del mismo horario ya ve la fila insertada.
+    public Asesoria reservar(Asesoria asesoria) {
+        UUID programadorId = asesoria.getProgramador().getId();
+        LocalDate fecha = asesoria.getFecha();
+        LocalTime hora = asesoria.getHora();
+
+        Lock candado = candados[franja(programadorId, fecha, hora)];
+        candado.lock();
+        try {
+            return transactionTemplate.execute(status -> {
+                if (asesoriaRepository.existsByProgramadorIdAndFechaAndHoraAndEstadoNot(
+                        programadorId, fecha, hora, EstadoAsesoria.RECHAZADA)) {
+                    throw new HorarioOcupadoException(
+                            "El horario " + fecha + " " + hora + " ya está reservado.");
+                }
+                Asesoria guardada = asesoriaRepository.saveAndFlush(asesoria);
+                eventPublisher.publishEvent(CambioAsesoriaEvento.de(programadorId, fecha, null, guardada.getEstado()));
+                return guardada;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // otra instancia ganó la carrera: lo rechaza el índice único parcial.
+            // Cualquier otra restricción (FK, NOT NULL...) es otro problema y sigue su curso.
+            if (!violaIndice(e, INDICE_HORARIO)) {
+                throw e;
+            }
+            throw new HorarioOcupadoException("El horario " + fecha + " " + hora + " ya está reservado.");
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    private static boolean violaIndice(DataIntegrityViolationException e, String indice) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return cve.getConstraintName().toLowerCase(Locale.ROOT).contains(indice);
+            }
+        }
+        return false;
+    }
+
+    private static int franja(UUID programadorId, LocalDate fecha, LocalTime hora) {
+        int h = Objects.hash(programadorId, fecha, hora);
+        h ^= (h >>> 16);
+        return h & (FRANJAS - 1);
+    }
+
+    private static Lock[] crearCandados() {
+        Lock[] candados = new Lock[FRANJAS];
+        for (int i = 0; i < FRANJAS; i++) {
+            candados[i] = new ReentrantLock();
+        }
+        return candados;
+    }
+}
@@ -0,0 +1,136 @@
+package com.lucero.backend.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de tiempo jerárquica (hierarchical timing wheel).
+ * El nivel 0 tiene {@code tamanio} casilleros de {@code tickMs}; cada nivel
+ * superior cubre {@code tamanio} veces más tiempo. Agregar es O(1) y cada tick
+ * solo toca el casillero que vence; lo lejano baja de nivel cuando se acerca.
+ * <p>
+ * No es thread-safe: quien la usa debe sincronizar.
+ */
+public class RuedaTemporal<T> {
+
+    private record Entrada<T>(T item, long venceTick) {
+    }
+
+    private final long tickMs;
+    private final int tamanio;
+    private final long inicioMs;
+
+    private final List<List<ArrayDeque<Entrada<T>>>> niveles = new ArrayList<>();
+    private final ArrayDeque<Entrada<T>> vencidas = new ArrayDeque<>();
+    private long tickActual = 0;
+    private int cantidad = 0;
+
+    public RuedaTemporal(long tickMs, int tamanio, long inicioMs) {
+        if (tickMs <= 0 || tamanio < 2) {
+            throw new IllegalArgumentException("tickMs > 0 y tamanio >= 2");
+        }
+        this.tickMs = tickMs;
+        this.tamanio = tamanio;
+        this.inicioMs = inicioMs;
+    }
+
+    public void agregar(T item, long venceMs) {
+        // se redondea hacia arriba: nunca se dispara antes de tiempo
+        long venceTick = Math.floorDiv(venceMs - inicioMs + tickMs - 1, tickMs);
+        colocar(new Entrada<>(item, venceTick));
+        cantidad++;
+    }
+
+    // Avanza hasta ahoraMs y entrega, en orden de tick, todo lo que venció
+    public void avanzar(long ahoraMs, Consumer<T> alVencer) {
+        dispararVencidas(alVencer);
+        long objetivo = Math.floorDiv(ahoraMs - inicioMs, tickMs);
+        while (tickActual < objetivo) {
+            tickActual++;
+            bajarNiveles(); // lo que vence justo en este tick queda en "vencidas"
+            dispararVencidas(alVencer);
+            ArrayDeque<Entrada<T>> casillero = casillero(0, tickActual);
+            while (casillero != null && !casillero.isEmpty()) {
+                disparar(casillero.poll(), alVencer);
+            }
+        }
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    // =========================
+    // AUXILIARES
+    // =========================
+    private void colocar(Entrada<T> e) {
+        long delta = e.venceTick() - tickActual;
+        if (delta <= 0) {
+            vencidas.add(e);
+            return;
+        }
+        int nivel = 0;
+        long alcance = tamanio; // ticks que cubre el nivel actual
+        while (delta >= alcance) {
+            nivel++;
+            alcance = (alcance > Long.MAX_VALUE / tamanio) ? Long.MAX_VALUE : alcance * tamanio;
+        }
+        asegurarNivel(nivel);
+        niveles.get(nivel).get(indice(nivel, e.venceTick())).add(e);
+    }
+
+    // En cada frontera de un nivel superior, su casillero se redistribuye hacia abajo
+    private void bajarNiveles() {
+        for (int nivel = niveles.size() - 1; nivel >= 1; nivel--) {
+            long ticksNivel = ticksPorCasillero(nivel);
+            if (tickActual % ticksNivel == 0) {
+                ArrayDeque<Entrada<T>> casillero = niveles.get(nivel).get(indice(nivel, tickActual));
+                List<Entrada<T>> mover = new ArrayList<>(casillero);
+                casillero.clear();
+                mover.forEach(this::colocar);
+            }
+        }
+    }
+
+    private void dispararVencidas(Consumer<T> alVencer) {
+        while (!vencidas.isEmpty()) {
+            disparar(vencidas.poll(), alVencer);
+        }
+    }
+
+    private void disparar(Entrada<T> e, Consumer<T> alVencer) {
+        cantidad--;
+        alVencer.accept(e.item());
+    }
+
+    private ArrayDeque<Entrada<T>> casillero(int nivel, long tick) {
+        if (nivel >= niveles.size()) {
+            return null;
+        }
+        return niveles.get(nivel).get(indice(nivel, tick));
+    }
+
+    private int indice(int nivel, long tick) {
+        return (int) ((tick / ticksPorCasillero(nivel)) % tamanio);
+    }
+
+    private long ticksPorCasillero(int nivel) {
+        long t = 1;
+        for (int i = 0; i < nivel; i++) {
+            t *= tamanio;
+        }
+        return t;
+    }
+
+    private void asegurarNivel(int nivel) {
+        while (niveles.size() <= nivel) {
+            List<ArrayDeque<Entrada<T>>> casilleros = new ArrayList<>(tamanio);
+            for (int i = 0; i < tamanio; i++) {
+                casilleros.add(new ArrayDeque<>());
+            }
+            niveles.add(casilleros);
+        }
+    }
+}
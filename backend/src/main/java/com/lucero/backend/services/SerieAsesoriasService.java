@@ -0,0 +1,219 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.dto.PuntoSerieDTO;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.models.RollupAsesoriaDiario;
+import com.lucero.backend.repositories.ContadorAsesoriasRepository;
+import com.lucero.backend.repositories.RollupAsesoriaDiarioRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Serie de asesorías por día, semana o mes para el gráfico del dashboard.
+ * Por programador y día se guardan conteos por estado (asesoria_rollup_diario),
+ * que se actualizan en la misma transacción que cada alta o cambio de estado;
+ * semana y mes se agrupan al leer. Pedir una serie recorre solo los días del
+ * rango, no las asesorías.
+ * Igual que {@link ContadoresAsesoriaService}: reconciliación periódica contra la
+ * base, aquí solo de los días desde hace dashboard.reconciliar-dias-atras (los
+ * anteriores ya no se pueden cambiar desde la aplicación, ver
+ * AsesoriaEstadoService.FECHA_PASADA) y reescribiendo solo los días que difieren.
+ */
+@Service
+@RequiredArgsConstructor
+public class SerieAsesoriasService {
+
+    public enum Bucket {
+        DAY, WEEK, MONTH;
+
+        LocalDate inicio(LocalDate fecha) {
+            return switch (this) {
+                case DAY -> fecha;
+                case WEEK -> fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> fecha.withDayOfMonth(1);
+            };
+        }
+
+        // Último día del bucket: 'hasta' incluye el bucket completo
+        LocalDate fin(LocalDate fecha) {
+            return switch (this) {
+                case DAY -> fecha;
+                case WEEK -> fecha.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+                case MONTH -> fecha.with(TemporalAdjusters.lastDayOfMonth());
+            };
+        }
+
+        public static Bucket desde(String valor) {
+            for (Bucket b : values()) {
+                if (b.name().equalsIgnoreCase(valor)) {
+                    return b;
+                }
+            }
+            throw new RuntimeException("Bucket no soportado: " + valor + " (use day, week o month)");
+        }
+    }
+
+    // Rango abierto (sin desde/hasta), dentro de lo que admite un DATE
+    private static final LocalDate SIN_DESDE = LocalDate.of(1, 1, 1);
+    private static final LocalDate SIN_HASTA = LocalDate.of(9999, 12, 31);
+
+    private final RollupAsesoriaDiarioRepository rollupRepository;
+    private final ContadorAsesoriasRepository contadorRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${dashboard.reconciliar-dias-atras:7}")
+    private int diasAtras = 7;
+
+    public List<PuntoSerieDTO> serie(UUID programadorId, Bucket bucket, LocalDate desde, LocalDate hasta) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            throw new RuntimeException("La fecha 'desde' no puede ser posterior a 'hasta'");
+        }
+        List<RollupAsesoriaDiario> dias = rollupRepository.buscarRango(programadorId,
+                desde != null ? bucket.inicio(desde) : SIN_DESDE,
+                hasta != null ? bucket.fin(hasta) : SIN_HASTA);
+
+        // los días vienen en orden: cada bucket es un tramo seguido
+        List<PuntoSerieDTO> puntos = new ArrayList<>();
+        PuntoSerieDTO punto = null;
+        for (RollupAsesoriaDiario dia : dias) {
+            LocalDate inicio = bucket.inicio(dia.getFecha());
+            if (punto == null || !punto.getFecha().equals(inicio)) {
+                punto = new PuntoSerieDTO(inicio, 0, 0, 0, 0);
+                puntos.add(punto);
+            }
+            punto.setTotal(punto.getTotal() + dia.getTotal());
+            punto.setPendientes(punto.getPendientes() + dia.getPendientes());
+            punto.setAprobadas(punto.getAprobadas() + dia.getAprobadas());
+            punto.setRechazadas(punto.getRechazadas() + dia.getRechazadas());
+        }
+        return puntos;
+    }
+
+    // Después de ContadoresAsesoriaService, que ya bloqueó la fila del programador:
+    // nadie más toca sus días hasta confirmar, así que se leen y se escriben como
+    // entidades (una lectura y, al confirmar, un lote de UPDATE y otro de INSERT)
+    @Order(2)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void alCambiar(CambioAsesoriaEvento evento) {
+        if (evento.porFecha().isEmpty() || Objects.equals(evento.estadoAnterior(), evento.estadoNuevo())) {
+            return;
+        }
+        Map<LocalDate, RollupAsesoriaDiario> dias = new HashMap<>();
+        for (RollupAsesoriaDiario r : rollupRepository.findByProgramadorIdAndFechaIn(
+                evento.programadorId(), evento.porFecha().keySet())) {
+            dias.put(r.getFecha(), r);
+        }
+        evento.porFecha().forEach((fecha, n) -> {
+            RollupAsesoriaDiario r = dias.get(fecha);
+            boolean nuevo = (r == null);
+            if (nuevo) {
+                r = new RollupAsesoriaDiario();
+                r.setProgramadorId(evento.programadorId());
+                r.setFecha(fecha);
+            }
+            r.setPendientes(r.getPendientes() + n * evento.variacion(EstadoAsesoria.PENDIENTE));
+            r.setAprobadas(r.getAprobadas() + n * evento.variacion(EstadoAsesoria.APROBADA));
+            r.setRechazadas(r.getRechazadas() + n * evento.variacion(EstadoAsesoria.RECHAZADA));
+            if (nuevo) {
+                entityManager.persist(r);
+            }
+        });
+    }
+
+    // =========================
+    // RECONCILIACIÓN
+    // =========================
+    // Un GROUP BY sin candados sobre las asesorías desde 'desde' contra los días
+    // guardados; los programadores con algún día distinto se corrigen de a uno.
+    // Las lecturas de la serie nunca ven la tabla vacía ni a medio reconstruir.
+    @Scheduled(fixedDelayString = "${dashboard.reconciliar-ms:600000}", initialDelayString = "${dashboard.reconciliar-ms:600000}")
+    public void reconciliar() {
+        LocalDate desde = LocalDate.now().minusDays(diasAtras);
+
+        Map<UUID, Map<LocalDate, RollupAsesoriaDiario>> reales = new HashMap<>();
+        for (Object[] f : rollupRepository.contarDesde(desde)) {
+            RollupAsesoriaDiario r = reales.computeIfAbsent((UUID) f[0], k -> new HashMap<>())
+                    .computeIfAbsent((LocalDate) f[1], fecha -> vacio((UUID) f[0], fecha));
+            sumar(r, (EstadoAsesoria) f[2], (Long) f[3]);
+        }
+
+        Map<UUID, Set<LocalDate>> distintos = new HashMap<>();
+        for (RollupAsesoriaDiario guardado : rollupRepository.buscarDesde(desde)) {
+            Map<LocalDate, RollupAsesoriaDiario> delProgramador = reales.get(guardado.getProgramadorId());
+            RollupAsesoriaDiario real = (delProgramador != null) ? delProgramador.remove(guardado.getFecha()) : null;
+            boolean coincide = (real != null) ? guardado.equals(real) : guardado.getTotal() == 0;
+            if (!coincide) {
+                distintos.computeIfAbsent(guardado.getProgramadorId(), k -> new TreeSet<>()).add(guardado.getFecha());
+            }
+        }
+        // días con asesorías y sin fila guardada
+        reales.forEach((id, dias) -> {
+            if (!dias.isEmpty()) {
+                distintos.computeIfAbsent(id, k -> new TreeSet<>()).addAll(dias.keySet());
+            }
+        });
+
+        distintos.forEach((id, fechas) -> transactionTemplate.executeWithoutResult(estado -> corregir(id, fechas)));
+    }
+
+    // Con la fila del contador del programador bloqueada, el mismo candado que
+    // toman los cambios antes de tocar sus días (ver alCambiar)
+    private void corregir(UUID programadorId, Set<LocalDate> fechas) {
+        contadorRepository.sumar(programadorId, 0, 0, 0);
+
+        Map<LocalDate, RollupAsesoriaDiario> dias = new HashMap<>();
+        for (RollupAsesoriaDiario r : rollupRepository.findByProgramadorIdAndFechaIn(programadorId, fechas)) {
+            r.setPendientes(0);
+            r.setAprobadas(0);
+            r.setRechazadas(0);
+            dias.put(r.getFecha(), r);
+        }
+        List<RollupAsesoriaDiario> nuevos = new ArrayList<>();
+        for (Object[] f : rollupRepository.contarDe(programadorId, fechas)) {
+            RollupAsesoriaDiario r = dias.get((LocalDate) f[0]);
+            if (r == null) {
+                r = vacio(programadorId, (LocalDate) f[0]);
+                nuevos.add(r);
+                dias.put(r.getFecha(), r);
+            }
+            sumar(r, (EstadoAsesoria) f[1], (Long) f[2]);
+        }
+        // ya con sus valores: un INSERT por día y no INSERT + UPDATE
+        nuevos.forEach(entityManager::persist);
+    }
+
+    private static RollupAsesoriaDiario vacio(UUID programadorId, LocalDate fecha) {
+        RollupAsesoriaDiario r = new RollupAsesoriaDiario();
+        r.setProgramadorId(programadorId);
+        r.setFecha(fecha);
+        return r;
+    }
+
+    private static void sumar(RollupAsesoriaDiario r, EstadoAsesoria estado, long n) {
+        switch (estado) {
+            case PENDIENTE -> r.setPendientes(r.getPendientes() + n);
+            case APROBADA -> r.setAprobadas(r.getAprobadas() + n);
+            case RECHAZADA -> r.setRechazadas(r.getRechazadas() + n);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.lucero.backend.services;
+
+// Cambio de estado de una asesoría no permitido, o que otra petición cambió el estado primero
+public class TransicionEstadoException extends RuntimeException {
+
+    public TransicionEstadoException(String mensaje) {
+        super(mensaje);
+    }
+}
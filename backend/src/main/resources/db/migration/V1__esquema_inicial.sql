@@ -0,0 +1,100 @@
+-- Esquema base: lo que Hibernate (ddl-auto=update) venía creando a partir de las entidades
+-- de antes de las migraciones. En una base existente no se ejecuta
+-- (spring.flyway.baseline-on-migrate marca la versión 1), así que tiene que coincidir con
+-- ese esquema: todo lo que se agregó después va en V2 en adelante.
+
+CREATE TABLE usuarios (
+    id            UUID         NOT NULL,
+    nombre        VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255),
+    rol           VARCHAR(255) NOT NULL,
+    firebase_uid  VARCHAR(255),
+    foto_url      VARCHAR(255),
+    activo        BOOLEAN      NOT NULL,
+    creado_en     TIMESTAMP(6) NOT NULL,
+    CONSTRAINT usuarios_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_email UNIQUE (email),
+    CONSTRAINT uk_usuarios_firebase_uid UNIQUE (firebase_uid)
+);
+
+CREATE TABLE programadores (
+    id                   UUID         NOT NULL,
+    usuario_id           UUID         NOT NULL,
+    especialidad         VARCHAR(255),
+    descripcion          VARCHAR(255),
+    github               VARCHAR(255),
+    linkedin             VARCHAR(255),
+    portafolio           VARCHAR(255),
+    email_contacto       VARCHAR(255),
+    telefono             VARCHAR(255),
+    whatsapp             VARCHAR(255),
+    disponibilidad_texto TEXT,
+    creado_en            TIMESTAMP(6),
+    CONSTRAINT programadores_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_programadores_usuario UNIQUE (usuario_id),
+    CONSTRAINT fk_programadores_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+);
+
+CREATE TABLE programador_horas (
+    programador_id UUID NOT NULL,
+    hora           VARCHAR(255),
+    CONSTRAINT fk_programador_horas_programador FOREIGN KEY (programador_id) REFERENCES programadores (id)
+);
+
+CREATE TABLE disponibilidades (
+    id             UUID    NOT NULL,
+    programador_id UUID    NOT NULL,
+    dia_semana     INTEGER,
+    hora_inicio    TIME(6),
+    hora_fin       TIME(6),
+    modalidad      VARCHAR(255),
+    activo         BOOLEAN NOT NULL,
+    CONSTRAINT disponibilidades_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_disponibilidades_programador FOREIGN KEY (programador_id) REFERENCES programadores (id)
+);
+
+CREATE TABLE proyectos (
+    id             UUID NOT NULL,
+    programador_id UUID NOT NULL,
+    titulo         VARCHAR(255),
+    descripcion    VARCHAR(255),
+    tecnologias    VARCHAR(255),
+    url_repo       VARCHAR(255),
+    url_demo       VARCHAR(255),
+    estado         VARCHAR(255),
+    creado_en      TIMESTAMP(6),
+    CONSTRAINT proyectos_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_proyectos_programador FOREIGN KEY (programador_id) REFERENCES programadores (id)
+);
+
+CREATE TABLE asesorias (
+    id                    UUID NOT NULL,
+    programador_id        UUID NOT NULL,
+    usuario_id            UUID,
+    fecha                 DATE,
+    hora                  TIME(6),
+    estado                VARCHAR(255),
+    nombre_solicitante    VARCHAR(255),
+    email_solicitante     VARCHAR(255),
+    telefono_solicitante  VARCHAR(255),
+    comentario            VARCHAR(255),
+    respuesta_programador VARCHAR(255),
+    creado_en             TIMESTAMP(6),
+    respondido_en         TIMESTAMP(6),
+    CONSTRAINT asesorias_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_asesorias_programador FOREIGN KEY (programador_id) REFERENCES programadores (id),
+    CONSTRAINT fk_asesorias_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+);
+
+CREATE TABLE notificaciones (
+    id              UUID         NOT NULL,
+    destinatario    VARCHAR(255) NOT NULL,
+    mensaje         TEXT         NOT NULL,
+    tipo            VARCHAR(255) NOT NULL,
+    programada_para TIMESTAMP(6) NOT NULL,
+    estado_envio    VARCHAR(255) NOT NULL,
+    enviado_en      TIMESTAMP(6),
+    error           TEXT,
+    CONSTRAINT notificaciones_pkey PRIMARY KEY (id)
+);
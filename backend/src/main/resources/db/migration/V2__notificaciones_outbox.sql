@@ -0,0 +1,6 @@
+-- Columnas de la cola de notificaciones (asunto del correo, reintentos con backoff y
+-- lease de EN_PROCESO). IF NOT EXISTS: una base que pasó por ddl-auto=update con estas
+-- entidades ya puede tenerlas.
+ALTER TABLE notificaciones ADD COLUMN IF NOT EXISTS asunto VARCHAR(255);
+ALTER TABLE notificaciones ADD COLUMN IF NOT EXISTS intentos INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE notificaciones ADD COLUMN IF NOT EXISTS lease_hasta TIMESTAMP(6);
@@ -0,0 +1,106 @@
+-- Índices de las consultas calientes de AsesoriaRepository y NotificacionRepository.
+-- IF NOT EXISTS: en bases que venían de ddl-auto=update algunos ya los había creado
+-- Hibernate (@Index) o schema-postgresql.sql.
+
+-- ===================== ASESORIAS =====================
+
+-- Antes del índice único: reservas dobles que ya estén en la base (dos activas en el
+-- mismo programador/fecha/hora). Sin este paso el CREATE UNIQUE INDEX falla y la
+-- aplicación no arranca.
+-- 1) El estado se normaliza igual que en V4 (minúsculas, sin espacios, NULL = pendiente),
+--    así "activa" significa lo mismo aquí, en este índice y en el de V4.
+UPDATE asesorias SET estado = 'pendiente' WHERE estado IS NULL;
+UPDATE asesorias SET estado = lower(trim(estado)) WHERE estado <> lower(trim(estado));
+
+-- 2) Por horario queda una sola: la aprobada si la hay, si no la más antigua. Las demás
+--    pasan a rechazada con una nota en respuesta_programador y se listan en el log de la
+--    migración (WARNING) para avisar a los solicitantes.
+--    Para revisarlas a mano antes de migrar (o después, por la nota):
+--      SELECT programador_id, fecha, hora, count(*) FROM asesorias
+--      WHERE estado <> 'rechazada' AND fecha IS NOT NULL AND hora IS NOT NULL
+--      GROUP BY 1, 2, 3 HAVING count(*) > 1;
+--    Si se prefiere resolverlas a mano, hacerlo antes de desplegar: este paso no
+--    toca nada cuando no hay duplicadas.
+DO $$
+DECLARE
+    fila RECORD;
+BEGIN
+    FOR fila IN
+        SELECT id, programador_id, fecha, hora, email_solicitante
+        FROM (SELECT a.id, a.programador_id, a.fecha, a.hora, a.email_solicitante,
+                     row_number() OVER (PARTITION BY a.programador_id, a.fecha, a.hora
+                                        ORDER BY (a.estado = 'aprobada') DESC, a.creado_en NULLS LAST, a.id) AS n
+              FROM asesorias a
+              WHERE a.estado <> 'rechazada' AND a.fecha IS NOT NULL AND a.hora IS NOT NULL) d
+        WHERE d.n > 1
+    LOOP
+        RAISE WARNING 'Asesoría % duplicada (programador %, % %, solicitante %): pasa a rechazada',
+            fila.id, fila.programador_id, fila.fecha, fila.hora, fila.email_solicitante;
+        UPDATE asesorias
+        SET estado = 'rechazada',
+            respuesta_programador = 'Cancelada: el horario ya estaba reservado por otra solicitud',
+            respondido_en = now()
+        WHERE id = fila.id;
+    END LOOP;
+END $$;
+
+-- Un solo horario activo (no rechazado) por programador, fecha y hora
+CREATE UNIQUE INDEX IF NOT EXISTS uq_asesorias_horario_activo
+    ON asesorias (programador_id, fecha, hora)
+    WHERE estado <> 'rechazada';
+
+-- Agenda del programador: findByProgramadorIdAndFecha*, rango de fechas (reportes,
+-- filtros, serie del dashboard), existsBy...AndHora, orden por fecha y hora.
+-- Incluye las rechazadas, que el índice único parcial deja afuera.
+CREATE INDEX IF NOT EXISTS idx_asesorias_programador_fecha_hora
+    ON asesorias (programador_id, fecha, hora);
+
+-- Contadores por estado y findByProgramadorIdAndEstado
+CREATE INDEX IF NOT EXISTS idx_asesorias_programador_estado
+    ON asesorias (programador_id, estado);
+
+-- "¿Quién está libre?" de un día para todos los programadores
+CREATE INDEX IF NOT EXISTS idx_asesorias_fecha
+    ON asesorias (fecha);
+
+-- Listados por cursor (más nuevas primero). El de usuario también sirve a
+-- findByUsuarioId (usuario_id es el prefijo), no hace falta uno solo por usuario_id.
+CREATE INDEX IF NOT EXISTS idx_asesorias_programador_creado
+    ON asesorias (programador_id, creado_en, id);
+CREATE INDEX IF NOT EXISTS idx_asesorias_usuario_creado
+    ON asesorias (usuario_id, creado_en, id);
+
+-- ===================== NOTIFICACIONES =====================
+
+-- Barrido de vencidas y reintentos: WHERE estado_envio = ? AND programada_para <= ?
+CREATE INDEX IF NOT EXISTS idx_notificaciones_estado_programada
+    ON notificaciones (estado_envio, programada_para);
+
+-- La cola activa es una fracción mínima de la tabla (casi todo queda ENVIADO):
+-- índices parciales chicos para el lote, la rueda de tiempos y los leases vencidos.
+CREATE INDEX IF NOT EXISTS idx_notificaciones_pendientes
+    ON notificaciones (programada_para)
+    WHERE estado_envio = 'PENDIENTE';
+CREATE INDEX IF NOT EXISTS idx_notificaciones_lease_en_proceso
+    ON notificaciones (lease_hasta)
+    WHERE estado_envio = 'EN_PROCESO';
+
+-- Listado por cursor
+CREATE INDEX IF NOT EXISTS idx_notificaciones_programada_id
+    ON notificaciones (programada_para, id);
+
+-- ===================== OTRAS TABLAS =====================
+
+-- Claves foráneas que se recorren desde el programador
+CREATE INDEX IF NOT EXISTS idx_disponibilidades_programador
+    ON disponibilidades (programador_id);
+CREATE INDEX IF NOT EXISTS idx_proyectos_programador
+    ON proyectos (programador_id);
+CREATE INDEX IF NOT EXISTS idx_programador_horas_programador
+    ON programador_horas (programador_id);
+
+-- Listados por cursor
+CREATE INDEX IF NOT EXISTS idx_usuarios_creado
+    ON usuarios (creado_en, id);
+CREATE INDEX IF NOT EXISTS idx_proyectos_creado
+    ON proyectos (creado_en, id);
@@ -0,0 +1,24 @@
+-- asesorias.estado pasa de texto libre a SMALLINT (EstadoAsesoria / EstadoAsesoriaConverter):
+-- 0 = pendiente, 1 = aprobada, 2 = rechazada.
+
+-- El índice parcial compara con texto: se rehace después del cambio de tipo
+DROP INDEX IF EXISTS uq_asesorias_horario_activo;
+
+-- Mayúsculas/espacios de versiones anteriores se normalizan; un valor que no es
+-- ninguno de los tres (o NULL) vuelve a pendiente para que el programador lo resuelva
+ALTER TABLE asesorias
+    ALTER COLUMN estado TYPE SMALLINT
+    USING CASE lower(trim(estado))
+              WHEN 'aprobada' THEN 1
+              WHEN 'rechazada' THEN 2
+              ELSE 0
+          END;
+
+ALTER TABLE asesorias
+    ALTER COLUMN estado SET NOT NULL,
+    ADD CONSTRAINT ck_asesorias_estado CHECK (estado IN (0, 1, 2));
+
+-- Un solo horario activo (no rechazado) por programador, fecha y hora
+CREATE UNIQUE INDEX uq_asesorias_horario_activo
+    ON asesorias (programador_id, fecha, hora)
+    WHERE estado <> 2;
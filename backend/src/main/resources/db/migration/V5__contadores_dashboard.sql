@@ -0,0 +1,42 @@
+-- Contadores y serie del dashboard en tablas (ContadoresAsesoriaService /
+-- SerieAsesoriasService). Se actualizan en la misma transacción que cada alta o
+-- cambio de estado, así que no dependen de la memoria de una instancia.
+-- Sin FK a programadores: eliminar un programador no tiene que tocarlas; la
+-- reconciliación periódica borra las filas que quedan huérfanas.
+
+CREATE TABLE IF NOT EXISTS asesoria_contadores (
+    programador_id UUID PRIMARY KEY,
+    pendientes     BIGINT NOT NULL DEFAULT 0,
+    aprobadas      BIGINT NOT NULL DEFAULT 0,
+    rechazadas     BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS asesoria_rollup_diario (
+    programador_id UUID   NOT NULL,
+    fecha          DATE   NOT NULL,
+    pendientes     BIGINT NOT NULL DEFAULT 0,
+    aprobadas      BIGINT NOT NULL DEFAULT 0,
+    rechazadas     BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (programador_id, fecha)
+);
+
+-- Carga inicial desde asesorias (estado: 0 = pendiente, 1 = aprobada, 2 = rechazada)
+INSERT INTO asesoria_contadores (programador_id, pendientes, aprobadas, rechazadas)
+SELECT p.id,
+       COUNT(a.id) FILTER (WHERE a.estado = 0),
+       COUNT(a.id) FILTER (WHERE a.estado = 1),
+       COUNT(a.id) FILTER (WHERE a.estado = 2)
+FROM programadores p
+LEFT JOIN asesorias a ON a.programador_id = p.id
+GROUP BY p.id
+ON CONFLICT (programador_id) DO NOTHING;
+
+INSERT INTO asesoria_rollup_diario (programador_id, fecha, pendientes, aprobadas, rechazadas)
+SELECT programador_id, fecha,
+       COUNT(*) FILTER (WHERE estado = 0),
+       COUNT(*) FILTER (WHERE estado = 1),
+       COUNT(*) FILTER (WHERE estado = 2)
+FROM asesorias
+WHERE fecha IS NOT NULL
+GROUP BY programador_id, fecha
+ON CONFLICT (programador_id, fecha) DO NOTHING;
@@ -0,0 +1,14 @@
+-- Los listados paginan por (creado_en, id): una fila con creado_en NULL no
+-- cumple "creado_en < cursor" y no aparecía en ninguna página.
+-- Las filas de versiones anteriores toman la fecha/hora de la asesoría (o de su
+-- respuesta); lo que no tenga ninguna referencia queda al final del listado.
+UPDATE asesorias
+SET creado_en = COALESCE(respondido_en, fecha + COALESCE(hora, TIME '00:00'), TIMESTAMP '1970-01-01 00:00:00')
+WHERE creado_en IS NULL;
+
+UPDATE proyectos
+SET creado_en = TIMESTAMP '1970-01-01 00:00:00'
+WHERE creado_en IS NULL;
+
+ALTER TABLE asesorias ALTER COLUMN creado_en SET NOT NULL;
+ALTER TABLE proyectos ALTER COLUMN creado_en SET NOT NULL;
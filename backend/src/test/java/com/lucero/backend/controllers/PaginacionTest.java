@@ -0,0 +1,108 @@
+package com.lucero.backend.controllers;
+
+import com.lucero.backend.dto.AsesoriaResumenDTO;
+import com.lucero.backend.models.Asesoria;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import com.lucero.backend.repositories.AsesoriaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class PaginacionTest {
+
+    @Autowired
+    private AsesoriaRepository asesoriaRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void recorreTodasLasPaginasSinRepetirNiSaltar() {
+        Programador p = sembrar(53);
+
+        List<UUID> vistos = new ArrayList<>();
+        Paginacion.Cursor c = Paginacion.Cursor.leer(null);
+        int paginas = 0;
+        while (true) {
+            List<AsesoriaResumenDTO> filas = asesoriaRepository.paginaDeProgramador(p.getId(), c.marca(), c.id(), null, Limit.of(11));
+            paginas++;
+            List<AsesoriaResumenDTO> pagina = filas.subList(0, Math.min(10, filas.size()));
+            pagina.forEach(a -> vistos.add(a.getId()));
+            if (filas.size() <= 10) {
+                break;
+            }
+            AsesoriaResumenDTO ultima = pagina.get(pagina.size() - 1);
+            // el cursor viaja codificado y vuelve igual
+            c = Paginacion.Cursor.leer(new Paginacion.Cursor(ultima.getCreadoEn(), ultima.getId()).codificar());
+        }
+
+        assertThat(paginas).isEqualTo(6);
+        assertThat(vistos).hasSize(53);
+        assertThat(new HashSet<>(vistos)).hasSize(53);
+    }
+
+    @Test
+    void filtraPorEstadoYRechazaCursoresInvalidos() {
+        Programador p = sembrar(6);
+        Paginacion.Cursor c = Paginacion.Cursor.INICIO;
+
+        assertThat(asesoriaRepository.paginaDeProgramador(p.getId(), c.marca(), c.id(), EstadoAsesoria.APROBADA, Limit.of(50)))
+                .hasSize(3)
+                .allMatch(a -> a.getEstado() == EstadoAsesoria.APROBADA);
+        assertThatThrownBy(() -> Paginacion.Cursor.leer("no-es-un-cursor"))
+                .hasMessage("Cursor inválido");
+        assertThat(Paginacion.limite(10_000)).isEqualTo(Paginacion.LIMITE_MAXIMO);
+    }
+
+    @Test
+    void sinLimitLaPrimeraPaginaUsaElLimitePorDefecto() {
+        Programador p = sembrar(Paginacion.LIMITE_POR_DEFECTO + 3);
+        Paginacion.Cursor c = Paginacion.Cursor.leer(null);
+
+        int limite = Paginacion.limite(null);
+        assertThat(limite).isEqualTo(Paginacion.LIMITE_POR_DEFECTO);
+        // una fila de más: hay página siguiente y el resto llega por el cursor
+        assertThat(asesoriaRepository.paginaDeProgramador(p.getId(), c.marca(), c.id(), null, Limit.of(limite + 1)))
+                .hasSize(Paginacion.LIMITE_POR_DEFECTO + 1);
+    }
+
+    private Programador sembrar(int cantidad) {
+        Usuario u = new Usuario();
+        u.setNombre("Paginado");
+        u.setEmail("paginado-" + System.nanoTime() + "@test.com");
+        u.setRol("programador");
+        em.persist(u);
+
+        Programador p = new Programador();
+        p.setUsuario(u);
+        p.setEspecialidad("Backend");
+        em.persist(p);
+
+        for (int i = 0; i < cantidad; i++) {
+            Asesoria a = new Asesoria();
+            a.setProgramador(p);
+            a.setFecha(LocalDate.of(2026, 1, 1).plusDays(i));
+            a.setHora(LocalTime.of(9, 0));
+            a.setEstado(i % 2 == 0 ? EstadoAsesoria.APROBADA : EstadoAsesoria.PENDIENTE);
+            em.persist(a);
+        }
+        em.flush();
+        em.clear();
+        return p;
+    }
+}
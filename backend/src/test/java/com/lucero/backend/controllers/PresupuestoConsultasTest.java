@@ -0,0 +1,424 @@
+package com.lucero.backend.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucero.backend.consultas.PresupuestoConsultas;
+import com.lucero.backend.consultas.PresupuestoConsultasFilter;
+import com.lucero.backend.models.*;
+import com.lucero.backend.repositories.*;
+import com.lucero.backend.security.JwtService;
+import com.lucero.backend.security.UsuarioActual;
+import com.lucero.backend.services.ReporteJobService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuesto de consultas SQL por endpoint (ver {@link PresupuestoConsultas}).
+ * Levanta la aplicación sobre H2 en modo PostgreSQL con un volumen parecido al real,
+ * llama a cada endpoint una vez (en frío: cachés vacías al llegar a cada uno) y
+ * falla si alguno ejecuta más sentencias que las declaradas, o si hay un endpoint
+ * sin presupuesto o sin caso aquí.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:presupuesto;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "seguridad.bcrypt.fuerza=4"
+})
+@AutoConfigureMockMvc
+class PresupuestoConsultasTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PresupuestoConsultasTest.class);
+    private static final int PROGRAMADORES = 300;
+    private static final int CLIENTES = 1000;
+    private static final int ASESORIAS_POR_PROGRAMADOR = 20;
+    private static final int PROYECTOS_POR_PROGRAMADOR = 2;
+    private static final int NOTIFICACIONES = 2000;
+    private static final String PASSWORD = "clave-presupuesto";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private ReporteJobService reporteJobService;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private ProgramadorRepository programadorRepository;
+    @Autowired
+    private AsesoriaRepository asesoriaRepository;
+    @Autowired
+    private ProyectoRepository proyectoRepository;
+    @Autowired
+    private DisponibilidadRepository disponibilidadRepository;
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    // datos sembrados que usan los casos
+    private Programador principal;
+    private Programador descartable;
+    private Usuario cliente;
+    private String tokenProgramador;
+    private String tokenCliente;
+    private String tokenAdmin;
+    private final List<UUID> pendientesPrincipal = new ArrayList<>();
+    private final List<UUID> proyectosPrincipal = new ArrayList<>();
+    private UUID jobId;
+
+    @Test
+    void cadaEndpointRespetaSuPresupuesto() throws Exception {
+        sembrar();
+        Map<String, Supplier<RequestBuilder>> casos = casos();
+
+        List<String> sinPresupuesto = new ArrayList<>();
+        List<String> sinCaso = new ArrayList<>();
+        Map<String, PresupuestoConsultas> presupuestos = new TreeMap<>();
+        handlerMapping.getHandlerMethods().values().forEach(h -> {
+            if (!h.getBeanType().getPackageName().startsWith("com.lucero.backend")) {
+                return;
+            }
+            String nombre = nombre(h);
+            PresupuestoConsultas p = h.getMethodAnnotation(PresupuestoConsultas.class);
+            if (p == null) {
+                sinPresupuesto.add(nombre);
+            } else {
+                presupuestos.put(nombre, p);
+            }
+            if (!casos.containsKey(nombre)) {
+                sinCaso.add(nombre);
+            }
+        });
+        assertThat(sinPresupuesto).as("endpoints sin @PresupuestoConsultas").isEmpty();
+        assertThat(sinCaso).as("endpoints sin caso en PresupuestoConsultasTest").isEmpty();
+
+        Map<String, String> fallidos = new LinkedHashMap<>();
+        Map<String, String> excedidos = new LinkedHashMap<>();
+        StringBuilder tabla = new StringBuilder("\nConsultas SQL por endpoint (usadas / presupuesto)\n");
+        for (Map.Entry<String, Supplier<RequestBuilder>> caso : casos.entrySet()) {
+            MvcResult r = mvc.perform(caso.getValue().get()).andReturn();
+            if (r.getResponse().getStatus() >= 400) {
+                fallidos.put(caso.getKey(), r.getResponse().getStatus() + " " + r.getResponse().getContentAsString());
+                continue;
+            }
+            antesDelSiguiente(caso.getKey(), r);
+
+            int usadas = (Integer) r.getRequest().getAttribute(PresupuestoConsultasFilter.ATRIBUTO_CONSULTAS);
+            int presupuesto = presupuestos.get(caso.getKey()).value();
+            tabla.append(String.format("  %-70s %3d / %3d%n", caso.getKey(), usadas, presupuesto));
+            if (usadas > presupuesto) {
+                excedidos.put(caso.getKey(), usadas + " > " + presupuesto);
+            }
+        }
+        log.info("{}", tabla);
+
+        assertThat(fallidos).as("casos que no respondieron 2xx/3xx").isEmpty();
+        // la tabla va en la descripción: al fallar se ve el resto de endpoints junto al excedido
+        assertThat(excedidos).as("endpoints sobre su presupuesto de consultas%s", tabla).isEmpty();
+    }
+
+    @Test
+    void importarSoloConRolAdmin() throws Exception {
+        for (String rol : List.of("usuario", "programador")) {
+            Usuario u = usuario(rol + "-importa@test.com", rol);
+            u.setId(UUID.randomUUID());
+            mvc.perform(post("/api/programadores/importar")
+                            .header(HttpHeaders.AUTHORIZATION, bearer(token(u, null)))
+                            .contentType("text/csv")
+                            .content(csvImportacion(1)))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    // ===================== CASOS =====================
+
+    private Map<String, Supplier<RequestBuilder>> casos() {
+        String hoy = LocalDate.now().toString();
+        String manana = LocalDate.now().plusDays(1).toString();
+        String enUnMes = LocalDate.now().plusDays(30).toString();
+        UUID p = principal.getId();
+
+        Map<String, Supplier<RequestBuilder>> c = new LinkedHashMap<>();
+        // AuthController
+        c.put("AuthController#register", () -> post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("nombre", "Nuevo", "email", "nuevo@test.com", "password", PASSWORD))));
+        c.put("AuthController#login", () -> post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("email", principal.getUsuario().getEmail(), "password", PASSWORD))));
+
+        // ProgramadorController (catálogo en frío, luego desde el snapshot)
+        c.put("ProgramadorController#obtenerTodos", () -> get("/api/programadores"));
+        c.put("ProgramadorController#obtenerUno", () -> get("/api/programadores/{id}", p));
+        c.put("ProgramadorController#obtenerLibres", () -> get("/api/programadores/libres")
+                .param("fecha", manana).param("hora", "10:00"));
+        c.put("ProgramadorController#obtenerSlotsDisponibles", () -> get("/api/programadores/{id}/slots", p)
+                .param("fecha", manana));
+        c.put("ProgramadorController#obtenerSlotsPorRango", () -> get("/api/programadores/{id}/slots", p)
+                .param("desde", hoy).param("hasta", enUnMes));
+        c.put("ProgramadorController#crearProgramador", () -> multipart("/api/programadores")
+                .param("nombre", "Alta").param("descripcion", "Desc").param("especialidad", "Java")
+                .param("emailContacto", "alta@test.com").param("horasDisponibles", "[\"09:00\",\"10:00\"]"));
+        c.put("ProgramadorController#importarProgramadores", () -> post("/api/programadores/importar")
+                .header(HttpHeaders.AUTHORIZATION, bearer(tokenAdmin))
+                .contentType("text/csv")
+                .content(csvImportacion(50)));
+        c.put("ProgramadorController#actualizarProgramador", () -> multipart(HttpMethod.PUT, "/api/programadores/{id}", p)
+                .param("nombre", "Principal").param("descripcion", "Editada").param("especialidad", "Java")
+                .param("horasDisponibles", "[\"09:00\",\"10:00\",\"11:00\"]"));
+        c.put("ProgramadorController#eliminarProgramador", () -> delete("/api/programadores/{id}", descartable.getId()));
+
+        // Públicos
+        c.put("DisponibilidadPublicController#listarActivasPorProgramador",
+                () -> get("/api/disponibilidades/programador/{id}", p));
+        c.put("AsesoriaController#getOcupadas", () -> get("/api/asesorias/ocupadas/{p}/{fecha}", p, manana));
+        c.put("AsesoriaController#crearPublica", () -> post("/api/asesorias/publica")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("idProgramador", p.toString(), "nombreSolicitante", "Cliente",
+                        "emailSolicitante", cliente.getEmail(), "fecha", enUnMes, "hora", "15:00"))));
+
+        // Asesorías del programador
+        c.put("AsesoriaController#asesoriasDelProgramador", () -> autenticado(get("/api/asesorias/programador")));
+        c.put("AsesoriaController#misAsesoriasComoUsuario",
+                () -> get("/api/asesorias/mis").header(HttpHeaders.AUTHORIZATION, bearer(tokenCliente)));
+        c.put("AsesoriaController#asesoriasFiltradas", () -> autenticado(get("/api/asesorias/programador/filtradas")
+                .param("estado", "pendiente").param("desde", hoy).param("hasta", enUnMes)));
+        c.put("AsesoriaController#actualizarAsesoria", () -> autenticado(put("/api/asesorias/{id}", pendientesPrincipal.get(0))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("estado", "aprobada", "respuestaProgramador", "Nos vemos")))));
+        c.put("AsesoriaProgramadorController#listarMias", () -> autenticado(get("/api/programador/asesorias")));
+        c.put("AsesoriaProgramadorController#actualizarEstado",
+                () -> autenticado(put("/api/programador/asesorias/{id}", pendientesPrincipal.get(1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("estado", "rechazada")))));
+        c.put("AsesoriaProgramadorController#actualizarEstadoEnLote", () -> autenticado(patch("/api/programador/asesorias")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("ids", pendientesPrincipal.subList(2, pendientesPrincipal.size()),
+                        "estado", "aprobada")))));
+
+        // Dashboard y reportes
+        c.put("DashboardProgramadorController#resumen", () -> autenticado(get("/api/programador/dashboard/resumen")));
+        c.put("DashboardProgramadorController#seriePorFecha", () -> autenticado(get("/api/programador/dashboard/serie")
+                .param("bucket", "week")));
+        c.put("ReportesProgramadorController#reportePdf", () -> autenticado(get("/api/programador/reportes/pdf")));
+        c.put("ReportesProgramadorController#reporteExcel", () -> autenticado(get("/api/programador/reportes/excel")));
+        c.put("ReportesProgramadorController#crearJob", () -> autenticado(post("/api/programador/reportes/jobs")
+                .param("formato", "xlsx")));
+        c.put("ReportesProgramadorController#verJob", () -> autenticado(get("/api/programador/reportes/jobs/{id}", jobId)));
+        c.put("ReportesProgramadorController#descargarJob",
+                () -> autenticado(get("/api/programador/reportes/jobs/{id}/archivo", jobId)));
+
+        // Proyectos
+        c.put("ProyectoController#obtenerTodos", () -> get("/api/proyectos").header(HttpHeaders.AUTHORIZATION, bearer(tokenCliente)));
+        c.put("ProyectoController#obtenerUno", () -> autenticado(get("/api/proyectos/{id}", proyectosPrincipal.get(0))));
+        c.put("ProyectoController#obtenerPorProgramador", () -> autenticado(get("/api/proyectos/programador/{id}", p)));
+        c.put("ProyectoController#crearProyecto", () -> autenticado(post("/api/proyectos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("titulo", "Nuevo", "descripcion", "Desc", "tecnologias", "Java")))));
+        c.put("ProyectoController#actualizarProyecto", () -> autenticado(put("/api/proyectos/{id}", proyectosPrincipal.get(0))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("titulo", "Editado", "descripcion", "Desc", "tecnologias", "Java")))));
+        c.put("ProyectoController#eliminarProyecto", () -> autenticado(delete("/api/proyectos/{id}", proyectosPrincipal.get(1))));
+
+        // Listados administrativos
+        c.put("UsuarioController#obtenerTodos", () -> autenticado(get("/api/usuarios")));
+        c.put("NotificacionController#listar", () -> autenticado(get("/api/notificaciones").param("estado", "pendiente")));
+        return c;
+    }
+
+    // Lo que un caso necesita del anterior (fuera del conteo)
+    private void antesDelSiguiente(String caso, MvcResult r) throws Exception {
+        if (caso.equals("ReportesProgramadorController#crearJob")) {
+            JsonNode job = objectMapper.readTree(r.getResponse().getContentAsString());
+            jobId = UUID.fromString(job.get("id").asText());
+            for (int i = 0; i < 200; i++) {
+                ReporteJobService.EstadoJob estado = reporteJobService.obtener(jobId, principal.getId())
+                        .orElseThrow().getEstado();
+                if (estado == ReporteJobService.EstadoJob.LISTO) {
+                    return;
+                }
+                assertThat(estado).isNotEqualTo(ReporteJobService.EstadoJob.ERROR);
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    // ===================== SEMILLA =====================
+
+    private void sembrar() {
+        List<Usuario> usuariosProgramadores = new ArrayList<>();
+        for (int i = 0; i < PROGRAMADORES; i++) {
+            usuariosProgramadores.add(usuario("programador" + i + "@test.com", "programador"));
+        }
+        usuariosProgramadores.get(0).setPasswordHash(passwordEncoder.encode(PASSWORD));
+        usuarioRepository.saveAll(usuariosProgramadores);
+
+        List<Usuario> clientes = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            clientes.add(usuario("cliente" + i + "@test.com", "usuario"));
+        }
+        usuarioRepository.saveAll(clientes);
+        cliente = clientes.get(0);
+
+        List<Programador> programadores = new ArrayList<>();
+        for (int i = 0; i < PROGRAMADORES; i++) {
+            Programador p = new Programador();
+            p.setUsuario(usuariosProgramadores.get(i));
+            p.setEspecialidad(i % 2 == 0 ? "Java" : "Angular");
+            p.setDescripcion("Programador " + i);
+            p.setHorasDisponibles(new ArrayList<>(List.of("09:00", "10:00", "11:00", "15:00")));
+            programadores.add(p);
+        }
+        programadorRepository.saveAll(programadores);
+        principal = programadores.get(0);
+        descartable = programadores.get(PROGRAMADORES - 1);
+
+        List<Disponibilidad> disponibilidades = new ArrayList<>();
+        List<Proyecto> proyectos = new ArrayList<>();
+        List<Asesoria> asesorias = new ArrayList<>();
+        for (int i = 0; i < PROGRAMADORES - 1; i++) {
+            Programador p = programadores.get(i);
+            for (int dia = 1; dia <= 5; dia++) {
+                Disponibilidad d = new Disponibilidad();
+                d.setProgramador(p);
+                d.setDiaSemana(dia);
+                d.setHoraInicio(LocalTime.of(9, 0));
+                d.setHoraFin(LocalTime.of(17, 0));
+                d.setModalidad("virtual");
+                d.setActivo(true);
+                disponibilidades.add(d);
+            }
+            for (int j = 0; j < PROYECTOS_POR_PROGRAMADOR; j++) {
+                Proyecto pr = new Proyecto();
+                pr.setProgramador(p);
+                pr.setTitulo("Proyecto " + i + "-" + j);
+                pr.setDescripcion("Desc");
+                pr.setTecnologias("Java");
+                pr.setEstado("activo");
+                pr.setCreadoEn(LocalDateTime.now().minusMinutes(i * 10L + j));
+                proyectos.add(pr);
+            }
+            for (int j = 0; j < ASESORIAS_POR_PROGRAMADOR; j++) {
+                Asesoria a = new Asesoria();
+                a.setProgramador(p);
+                Usuario solicitante = clientes.get((i * ASESORIAS_POR_PROGRAMADOR + j) % CLIENTES);
+                a.setUsuario(solicitante);
+                a.setNombreSolicitante(solicitante.getNombre());
+                a.setEmailSolicitante(solicitante.getEmail());
+                a.setFecha(LocalDate.now().plusDays(1 + j / 4));
+                a.setHora(LocalTime.of(9 + j % 4, 0));
+                a.setEstado(j % 3 == 0 ? EstadoAsesoria.APROBADA : EstadoAsesoria.PENDIENTE);
+                asesorias.add(a);
+            }
+        }
+        disponibilidadRepository.saveAll(disponibilidades);
+        proyectoRepository.saveAll(proyectos);
+        asesoriaRepository.saveAll(asesorias);
+        asesorias.stream()
+                .filter(a -> a.getProgramador() == principal && a.getEstado() == EstadoAsesoria.PENDIENTE)
+                .forEach(a -> pendientesPrincipal.add(a.getId()));
+        proyectos.stream().filter(pr -> pr.getProgramador() == principal)
+                .forEach(pr -> proyectosPrincipal.add(pr.getId()));
+
+        List<Notificacion> notificaciones = new ArrayList<>();
+        for (int i = 0; i < NOTIFICACIONES; i++) {
+            Notificacion n = new Notificacion();
+            n.setTipo("EMAIL");
+            n.setDestinatario("cliente" + i + "@test.com");
+            n.setMensaje("Mensaje " + i);
+            n.setProgramadaPara(LocalDateTime.now().plusDays(2).plusMinutes(i));
+            n.setEstadoEnvio(i % 10 == 0 ? "PENDIENTE" : "ENVIADO");
+            notificaciones.add(n);
+        }
+        notificacionRepository.saveAll(notificaciones);
+
+        tokenProgramador = token(principal.getUsuario(), principal.getId());
+        tokenCliente = token(cliente, null);
+        tokenAdmin = token(usuarioRepository.save(usuario("admin@test.com", "admin")), null);
+    }
+
+    private static Usuario usuario(String email, String rol) {
+        Usuario u = new Usuario();
+        u.setNombre(email.substring(0, email.indexOf('@')));
+        u.setEmail(email);
+        u.setRol(rol);
+        u.setActivo(true);
+        return u;
+    }
+
+    // ===================== AUXILIARES =====================
+
+    private String token(Usuario u, UUID programadorId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("rol", u.getRol());
+        claims.put("nombre", u.getNombre());
+        claims.put(UsuarioActual.CLAIM_USUARIO, u.getId().toString());
+        if (programadorId != null) {
+            claims.put(UsuarioActual.CLAIM_PROGRAMADOR, programadorId.toString());
+        }
+        return jwtService.generateToken(claims, new User(u.getEmail(), "", List.of()));
+    }
+
+    private MockHttpServletRequestBuilder autenticado(MockHttpServletRequestBuilder b) {
+        return b.header(HttpHeaders.AUTHORIZATION, bearer(tokenProgramador));
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+
+    private String json(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String csvImportacion(int filas) {
+        StringBuilder csv = new StringBuilder("nombre,descripcion,especialidad,emailContacto,horasDisponibles\n");
+        for (int i = 0; i < filas; i++) {
+            csv.append("Importado ").append(i).append(",Desc,Java,importado").append(i)
+                    .append("@test.com,09:00|10:00\n");
+        }
+        return csv.toString();
+    }
+
+    private static String nombre(HandlerMethod h) {
+        return h.getBeanType().getSimpleName() + "#" + h.getMethod().getName();
+    }
+}
@@ -0,0 +1,105 @@
+package com.lucero.backend.repositories;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lucero.backend.dto.AsesoriaResumenDTO;
+import com.lucero.backend.models.Asesoria;
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AsesoriaResumenProyeccionTest {
+
+    private static final int FILAS = 1000;
+
+    @Autowired
+    private AsesoriaRepository asesoriaRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void milFilasEnUnaSentenciaYConMenosBytes() throws Exception {
+        List<Asesoria> entidades = sembrar();
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        List<AsesoriaResumenDTO> filas = asesoriaRepository.paginaDeProgramador(
+                entidades.get(0).getProgramador().getId(),
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59), new UUID(-1L, -1L), null, Limit.of(FILAS));
+
+        assertThat(filas).hasSize(FILAS);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(filas.get(0).getNombreProgramador()).isEqualTo("Ana Programadora");
+
+        // Antes: cada fila arrastraba Programador (con sus horas) y el Usuario solicitante
+        int bytesEntidades = mapper.writeValueAsBytes(entidades).length;
+        int bytesDto = mapper.writeValueAsBytes(filas).length;
+        System.out.printf("Listado de %d asesorías: entidades %d bytes, DTO %d bytes (%.1f%%)%n",
+                FILAS, bytesEntidades, bytesDto, 100.0 * bytesDto / bytesEntidades);
+
+        assertThat(bytesDto).isLessThan(bytesEntidades / 2);
+    }
+
+    private List<Asesoria> sembrar() {
+        Usuario u = new Usuario();
+        u.setNombre("Ana Programadora");
+        u.setEmail("proyeccion-" + System.nanoTime() + "@test.com");
+        u.setRol("programador");
+        em.persist(u);
+
+        Programador p = new Programador();
+        p.setUsuario(u);
+        p.setEspecialidad("Backend");
+        p.setDescripcion("Desarrolladora backend con experiencia en Spring, bases de datos y arquitectura de servicios.");
+        p.setDisponibilidadTexto("Lunes a viernes por la tarde");
+        p.setHorasDisponibles(new ArrayList<>(List.of("09:00", "10:00", "11:00", "15:00", "16:00", "17:00")));
+        em.persist(p);
+
+        Usuario cliente = new Usuario();
+        cliente.setNombre("Cliente Frecuente");
+        cliente.setEmail("cliente-" + System.nanoTime() + "@test.com");
+        cliente.setRol("usuario");
+        em.persist(cliente);
+
+        List<Asesoria> entidades = new ArrayList<>();
+        for (int i = 0; i < FILAS; i++) {
+            Asesoria a = new Asesoria();
+            a.setProgramador(p);
+            a.setUsuario(cliente);
+            a.setNombreSolicitante("Cliente Frecuente");
+            a.setEmailSolicitante(cliente.getEmail());
+            a.setFecha(LocalDate.of(2026, 1, 1).plusDays(i % 365));
+            a.setHora(LocalTime.of(9 + i % 8, 0));
+            a.setComentario("Consulta " + i);
+            em.persist(a);
+            entidades.add(a);
+        }
+        em.flush();
+        em.clear();
+        return entidades;
+    }
+}
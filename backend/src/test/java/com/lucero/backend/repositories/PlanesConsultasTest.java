@@ -0,0 +1,343 @@
+package com.lucero.backend.repositories;
+
+import com.lucero.backend.models.EstadoAsesoria;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Esquema real (migraciones + ddl-auto=validate) sobre PostgreSQL con datos sembrados:
+ * corre cada consulta de AsesoriaRepository y NotificacionRepository, repite con EXPLAIN
+ * la misma sentencia y los mismos parámetros que mandó Hibernate y falla si algún plan
+ * tiene un Seq Scan. Sin Docker se salta.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PlanesConsultasTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Registro REGISTRO = new Registro();
+
+    private static final LocalDateTime INICIO_CURSOR = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+    private static final LocalDate DIA = LocalDate.of(2025, 1, 10);
+    private static final LocalDateTime AHORA = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+    private static boolean sembrado;
+
+    @Autowired
+    private AsesoriaRepository asesorias;
+
+    @Autowired
+    private NotificacionRepository notificaciones;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    private UUID programadorId;
+    private UUID usuarioId;
+
+    @TestConfiguration
+    static class Captura {
+
+        @Bean
+        static BeanPostProcessor capturarSentencias() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nombre) {
+                    if (bean instanceof DataSource ds) {
+                        return ProxyDataSourceBuilder.create(ds).listener(REGISTRO).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void sembrar() {
+        if (!sembrado) {
+            sembrarDatos();
+            sembrado = true;
+        }
+        programadorId = jdbc.queryForObject(
+                "SELECT programador_id FROM asesorias ORDER BY creado_en LIMIT 1", UUID.class);
+        usuarioId = jdbc.queryForObject(
+                "SELECT usuario_id FROM asesorias ORDER BY creado_en LIMIT 1", UUID.class);
+    }
+
+    @Test
+    void todasLasConsultasTienenCaso() {
+        Set<String> cubiertas = casos().keySet();
+        List<String> sinCaso = Stream.of(AsesoriaRepository.class, NotificacionRepository.class)
+                .flatMap(r -> Arrays.stream(r.getDeclaredMethods()))
+                .map(Method::getName)
+                .filter(m -> !cubiertas.contains(m))
+                .toList();
+
+        assertThat(sinCaso).as("consultas nuevas sin caso en PlanesConsultasTest").isEmpty();
+    }
+
+    @Test
+    void ningunaConsultaHaceSeqScan() throws Exception {
+        Map<String, String> conSeqScan = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Runnable> caso : casos().entrySet()) {
+            List<Sentencia> sentencias = ejecutar(caso.getValue());
+            assertThat(sentencias).as(caso.getKey()).isNotEmpty();
+
+            for (Sentencia s : sentencias) {
+                String plan = explicar(s);
+                if (plan.contains("Seq Scan")) {
+                    conSeqScan.put(caso.getKey(), s.sql() + "\n" + plan);
+                }
+            }
+        }
+
+        assertThat(conSeqScan).as("consultas con Seq Scan").isEmpty();
+    }
+
+    // ===================== CASOS =====================
+
+    private Map<String, Runnable> casos() {
+        LocalDate hasta = DIA.plusDays(30);
+        LocalTime hora = LocalTime.of(10, 0);
+
+        Map<String, Runnable> c = new LinkedHashMap<>();
+        // AsesoriaRepository
+        c.put("findByProgramadorId", () -> asesorias.findByProgramadorId(programadorId));
+        c.put("findByProgramadorIdAndFecha", () -> asesorias.findByProgramadorIdAndFecha(programadorId, DIA));
+        c.put("findByProgramadorIdAndEstado",
+                () -> asesorias.findByProgramadorIdAndEstado(programadorId, EstadoAsesoria.PENDIENTE));
+        c.put("findByProgramadorIdAndFechaBetween",
+                () -> asesorias.findByProgramadorIdAndFechaBetween(programadorId, DIA, hasta));
+        c.put("findByProgramadorIdAndEstadoAndFechaBetween",
+                () -> asesorias.findByProgramadorIdAndEstadoAndFechaBetween(programadorId, EstadoAsesoria.PENDIENTE, DIA, hasta));
+        c.put("findByUsuarioId", () -> asesorias.findByUsuarioId(usuarioId));
+        c.put("paginaDeProgramador", () -> asesorias.paginaDeProgramador(
+                programadorId, INICIO_CURSOR, MAX_ID, null, Limit.of(50)));
+        c.put("paginaDeUsuario", () -> asesorias.paginaDeUsuario(
+                usuarioId, INICIO_CURSOR, MAX_ID, EstadoAsesoria.PENDIENTE, Limit.of(50)));
+        c.put("findByProgramadorIdOrderByFechaAscHoraAsc",
+                () -> asesorias.findByProgramadorIdOrderByFechaAscHoraAsc(programadorId));
+        c.put("streamReporte", () -> {
+            try (var filas = asesorias.streamReporte(programadorId, DIA, hasta, null)) {
+                filas.forEach(f -> { });
+            }
+        });
+        c.put("versionReporte", () -> asesorias.versionReporte(programadorId));
+        c.put("findByProgramadorIdAndFechaAndEstadoNot",
+                () -> asesorias.findByProgramadorIdAndFechaAndEstadoNot(programadorId, DIA, EstadoAsesoria.RECHAZADA));
+        c.put("findOcupadasDelDia", () -> asesorias.findOcupadasDelDia(programadorId, DIA));
+        c.put("filtrarDeProgramador",
+                () -> asesorias.filtrarDeProgramador(programadorId, EstadoAsesoria.APROBADA, DIA, hasta));
+        c.put("findByProgramadorIdAndFechaAndHora",
+                () -> asesorias.findByProgramadorIdAndFechaAndHora(programadorId, DIA, hora));
+        c.put("existsByProgramadorIdAndFechaAndHoraAndEstadoNot",
+                () -> asesorias.existsByProgramadorIdAndFechaAndHoraAndEstadoNot(programadorId, DIA, hora, EstadoAsesoria.RECHAZADA));
+        c.put("findHorariosOcupados", () -> asesorias.findHorariosOcupados(programadorId, DIA, hasta));
+        c.put("findHorariosOcupadosDelDia", () -> asesorias.findHorariosOcupadosDelDia(DIA));
+        c.put("cambiarEstado", () -> asesorias.cambiarEstado(UUID.randomUUID(),
+                EstadoAsesoria.PENDIENTE, EstadoAsesoria.APROBADA, null, AHORA));
+        c.put("actualizarRespuesta", () -> asesorias.actualizarRespuesta(UUID.randomUUID(),
+                EstadoAsesoria.PENDIENTE, "respuesta"));
+        c.put("bloquearParaCambio", () -> asesorias.bloquearParaCambio(
+                List.of(UUID.randomUUID(), UUID.randomUUID())));
+        c.put("cambiarEstadoEnLote", () -> asesorias.cambiarEstadoEnLote(
+                List.of(UUID.randomUUID(), UUID.randomUUID()), List.of(EstadoAsesoria.PENDIENTE),
+                EstadoAsesoria.APROBADA, null, AHORA));
+        c.put("countByProgramadorIdAndEstado",
+                () -> asesorias.countByProgramadorIdAndEstado(programadorId, EstadoAsesoria.PENDIENTE));
+        c.put("countByProgramadorId", () -> asesorias.countByProgramadorId(programadorId));
+        // NotificacionRepository
+        c.put("findByEstadoEnvioAndProgramadaParaLessThanEqualOrderByProgramadaParaAsc",
+                () -> notificaciones.findByEstadoEnvioAndProgramadaParaLessThanEqualOrderByProgramadaParaAsc(
+                        "PENDIENTE", AHORA));
+        c.put("paginaDespuesDe", () -> {
+            notificaciones.paginaDespuesDe(INICIO_CURSOR, MAX_ID, null, Limit.of(50));
+            notificaciones.paginaDespuesDe(INICIO_CURSOR, MAX_ID, "PENDIENTE", Limit.of(50));
+        });
+        c.put("findPendientesHasta", () -> notificaciones.findPendientesHasta(AHORA));
+        c.put("bloquearLote", () -> notificaciones.bloquearLote(AHORA, 50));
+        c.put("bloquearLeasesVencidos", () -> notificaciones.bloquearLeasesVencidos(AHORA, 50));
+        c.put("marcarEnProceso", () -> notificaciones.marcarEnProceso(
+                List.of(UUID.randomUUID(), UUID.randomUUID()), AHORA.plusMinutes(5)));
+        c.put("contarBacklog", () -> notificaciones.contarBacklog(AHORA));
+        c.put("reclamar", () -> notificaciones.reclamar(UUID.randomUUID(), AHORA, AHORA.plusMinutes(5)));
+        c.put("marcarEnviada", () -> notificaciones.marcarEnviada(UUID.randomUUID(), 1, AHORA));
+        return c;
+    }
+
+    // ===================== SEMILLA =====================
+
+    // 50k usuarios (10k programadores), 400k asesorías (40 por programador, un día cada una)
+    // y 100k notificaciones con la cola activa en ~1%. VACUUM ANALYZE para estadísticas reales.
+    private void sembrarDatos() {
+        jdbc.execute("""
+                INSERT INTO usuarios (id, nombre, email, rol, activo, creado_en)
+                SELECT gen_random_uuid(), 'Usuario ' || g, 'usuario' || g || '@test.com',
+                       CASE WHEN g <= 10000 THEN 'programador' ELSE 'usuario' END,
+                       true, TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute'
+                FROM generate_series(1, 50000) g
+                """);
+        jdbc.execute("""
+                INSERT INTO programadores (id, usuario_id, especialidad, creado_en)
+                SELECT gen_random_uuid(), id, 'Backend', creado_en
+                FROM usuarios WHERE rol = 'programador'
+                """);
+        jdbc.execute("""
+                INSERT INTO asesorias (id, programador_id, usuario_id, fecha, hora, estado,
+                                       nombre_solicitante, email_solicitante, creado_en)
+                SELECT gen_random_uuid(), p.ids[1 + g % 10000], u.ids[1 + g % 40000],
+                       DATE '2025-01-01' + g / 10000,
+                       TIME '09:00' + (g / 10000 % 8) * INTERVAL '1 hour',
+                       g / 10000 % 3,
+                       'Solicitante ' || g, 'solicitante' || g || '@test.com',
+                       TIMESTAMP '2025-01-01' + g * INTERVAL '10 seconds'
+                FROM generate_series(0, 399999) g,
+                     (SELECT array_agg(id ORDER BY id) ids FROM programadores) p,
+                     (SELECT array_agg(id ORDER BY id) ids FROM usuarios WHERE rol = 'usuario') u
+                """);
+        jdbc.execute("""
+                INSERT INTO notificaciones (id, destinatario, asunto, mensaje, tipo,
+                                            programada_para, estado_envio, intentos, lease_hasta)
+                SELECT gen_random_uuid(), 'destino' || g || '@test.com', 'Recordatorio',
+                       'Mensaje ' || g, 'RECORDATORIO',
+                       TIMESTAMP '2025-01-01' + g * INTERVAL '5 minutes',
+                       CASE WHEN g % 100 = 0 THEN 'PENDIENTE'
+                            WHEN g % 1000 = 1 THEN 'EN_PROCESO'
+                            ELSE 'ENVIADO' END,
+                       0,
+                       CASE WHEN g % 1000 = 1 THEN TIMESTAMP '2025-01-01' + g * INTERVAL '5 minutes' END
+                FROM generate_series(1, 100000) g
+                """);
+        jdbc.execute("VACUUM ANALYZE");
+    }
+
+    // ===================== CAPTURA Y EXPLAIN =====================
+
+    // Corre el caso en una transacción que se revierte (los UPDATE no cambian la semilla)
+    private List<Sentencia> ejecutar(Runnable caso) {
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        tx.executeWithoutResult(status -> {
+            REGISTRO.iniciar();
+            try {
+                caso.run();
+            } finally {
+                REGISTRO.detener();
+                status.setRollbackOnly();
+            }
+        });
+        return REGISTRO.sentencias();
+    }
+
+    private String explicar(Sentencia s) throws Exception {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("EXPLAIN " + s.sql())) {
+            for (ParameterSetOperation op : s.parametros()) {
+                op.getMethod().invoke(ps, op.getArgs());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    record Sentencia(String sql, List<ParameterSetOperation> parametros) {
+    }
+
+    // Guarda SQL y parámetros tal como los mandó Hibernate, solo mientras corre un caso
+    static class Registro implements QueryExecutionListener {
+
+        private final List<Sentencia> sentencias = new CopyOnWriteArrayList<>();
+        private volatile boolean activo;
+
+        void iniciar() {
+            sentencias.clear();
+            activo = true;
+        }
+
+        void detener() {
+            activo = false;
+        }
+
+        List<Sentencia> sentencias() {
+            return List.copyOf(sentencias);
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo info, List<QueryInfo> consultas) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo info, List<QueryInfo> consultas) {
+            if (!activo) {
+                return;
+            }
+            for (QueryInfo q : consultas) {
+                List<ParameterSetOperation> params = q.getParametersList().isEmpty()
+                        ? List.of()
+                        : new ArrayList<>(q.getParametersList().get(0));
+                sentencias.add(new Sentencia(q.getQuery(), params));
+            }
+        }
+    }
+}
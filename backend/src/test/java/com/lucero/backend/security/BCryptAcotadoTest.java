@@ -0,0 +1,59 @@
+package com.lucero.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptAcotadoTest {
+
+    @Test
+    void verificaYRegistraElTiempo() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BCryptAcotado encoder = new BCryptAcotado(4, 1, 4, registry);
+
+        String hash = encoder.encode("secreta");
+        assertThat(encoder.matches("secreta", hash)).isTrue();
+        assertThat(encoder.matches("otra", hash)).isFalse();
+        assertThat(registry.get("auth.bcrypt.duracion").tag("operacion", "matches").timer().count()).isEqualTo(2);
+        encoder.destroy();
+    }
+
+    @Test
+    void rechazaCuandoLaColaEstaLlena() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BCryptAcotado encoder = new BCryptAcotado(12, 1, 1, registry); // un hilo y un lugar en cola
+
+        int clientes = 8;
+        AtomicInteger rechazados = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(clientes);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int i = 0; i < clientes; i++) {
+            futuros.add(pool.submit(() -> {
+                largada.await();
+                try {
+                    encoder.encode("secreta");
+                } catch (HashingSaturadoException e) {
+                    rechazados.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> f : futuros) {
+            f.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        // como máximo uno corriendo y uno esperando al mismo tiempo: el resto se rechaza
+        assertThat(rechazados.get()).isPositive();
+        assertThat(registry.get("auth.bcrypt.rechazos").counter().count()).isEqualTo(rechazados.get());
+        encoder.destroy();
+    }
+}
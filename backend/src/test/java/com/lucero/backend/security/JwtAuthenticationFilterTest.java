@@ -0,0 +1,67 @@
+package com.lucero.backend.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtService jwtService = new JwtService();
+    private final JwtAuthenticationFilter filtro = new JwtAuthenticationFilter(jwtService);
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void autenticaConLosClaimsDelTokenSinBuscarAlUsuario() throws Exception {
+        UUID usuarioId = UUID.randomUUID();
+        UUID programadorId = UUID.randomUUID();
+        String token = jwtService.generateToken(Map.of("rol", "programador", "nombre", "Ana",
+                        UsuarioActual.CLAIM_USUARIO, usuarioId.toString(),
+                        UsuarioActual.CLAIM_PROGRAMADOR, programadorId.toString()),
+                new User("ana@test.com", "x", Collections.emptyList()));
+
+        MockFilterChain cadena = new MockFilterChain();
+        filtro.doFilter(peticion(token), new MockHttpServletResponse(), cadena);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(cadena.getRequest()).isNotNull();
+        assertThat(auth.getName()).isEqualTo("ana@test.com");
+        assertThat(auth.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_PROGRAMADOR");
+        assertThat(auth.getPrincipal()).isEqualTo(
+                new UsuarioActual(usuarioId, programadorId, "ana@test.com", "programador", "Ana"));
+    }
+
+    @Test
+    void tokenAlteradoSigueComoAnonimo() throws Exception {
+        String token = jwtService.generateToken(new User("ana@test.com", "x", Collections.emptyList()));
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        MockFilterChain cadena = new MockFilterChain();
+        filtro.doFilter(peticion(alterado), new MockHttpServletResponse(), cadena);
+
+        assertThat(cadena.getRequest()).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private MockHttpServletRequest peticion(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/programador/dashboard/resumen");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
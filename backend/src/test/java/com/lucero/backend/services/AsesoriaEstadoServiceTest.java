@@ -0,0 +1,214 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.models.Asesoria;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.models.Notificacion;
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import com.lucero.backend.repositories.AsesoriaRepository;
+import com.lucero.backend.repositories.NotificacionRepository;
+import com.lucero.backend.repositories.ProgramadorRepository;
+import com.lucero.backend.repositories.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+class AsesoriaEstadoServiceTest {
+
+    private static final int PETICIONES = 16;
+
+    @Autowired
+    private AsesoriaEstadoService estadoService;
+    @Autowired
+    private ReservaAsesoriaService reservaService;
+    @Autowired
+    private ProgramadorRepository programadorRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private AsesoriaRepository asesoriaRepository;
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Test
+    void aprobacionesConcurrentesGanaUnaSola() throws Exception {
+        Asesoria reservada = reservar(crearProgramador(), 9);
+
+        ConcurrentLinkedQueue<EstadoAsesoria> ganadores = new ConcurrentLinkedQueue<>();
+        AtomicInteger conflictos = new AtomicInteger();
+        CountDownLatch leidas = new CountDownLatch(PETICIONES);
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(PETICIONES);
+
+        for (int i = 0; i < PETICIONES; i++) {
+            EstadoAsesoria destino = i % 2 == 0 ? EstadoAsesoria.APROBADA : EstadoAsesoria.RECHAZADA;
+            pool.submit(() -> {
+                // cada petición leyó la asesoría todavía pendiente
+                Asesoria leida = asesoriaRepository.findById(reservada.getId()).orElseThrow();
+                leidas.countDown();
+                largada.await();
+                try {
+                    estadoService.cambiarEstado(leida, destino, "respuesta " + destino, null, null);
+                    ganadores.add(destino);
+                } catch (TransicionEstadoException e) {
+                    conflictos.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        assertThat(leidas.await(30, TimeUnit.SECONDS)).isTrue();
+        largada.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(ganadores).hasSize(1);
+        assertThat(conflictos.get()).isEqualTo(PETICIONES - 1);
+
+        Asesoria guardada = asesoriaRepository.findById(reservada.getId()).orElseThrow();
+        assertThat(guardada.getEstado()).isEqualTo(ganadores.peek());
+        assertThat(guardada.getRespuestaProgramador()).isEqualTo("respuesta " + ganadores.peek());
+        assertThat(guardada.getRespondidoEn()).isNotNull();
+    }
+
+    @Test
+    void respetaLaTablaDeTransiciones() {
+        Programador p = crearProgramador();
+        Asesoria a = reservar(p, 10);
+
+        Asesoria rechazada = estadoService.cambiarEstado(a, EstadoAsesoria.RECHAZADA, null, null, null).asesoria();
+        assertThatThrownBy(() -> estadoService.cambiarEstado(rechazada, EstadoAsesoria.APROBADA, null, null, null))
+                .isInstanceOf(TransicionEstadoException.class);
+        assertThat(asesoriaRepository.findById(a.getId()).orElseThrow().getEstado())
+                .isEqualTo(EstadoAsesoria.RECHAZADA);
+
+        // una aprobada tampoco cambia: procesada es definitiva
+        Asesoria b = reservar(p, 11);
+        Asesoria aprobada = estadoService.cambiarEstado(b, EstadoAsesoria.APROBADA, null, null, null).asesoria();
+        assertThatThrownBy(() -> estadoService.cambiarEstado(aprobada, EstadoAsesoria.RECHAZADA, "cancelada", null, null))
+                .isInstanceOf(TransicionEstadoException.class)
+                .hasMessageContaining("ya fue procesada");
+        assertThat(asesoriaRepository.findById(b.getId()).orElseThrow().getEstado())
+                .isEqualTo(EstadoAsesoria.APROBADA);
+
+        assertThat(EstadoAsesoria.desde(" Aprobada ")).isEqualTo(EstadoAsesoria.APROBADA);
+        assertThatThrownBy(() -> EstadoAsesoria.desde("aprobado"))
+                .hasMessageContaining("Estado no válido");
+    }
+
+    @Test
+    void soloRespuestaNoPisaUnCambioConcurrenteNiEncolaCorreo() {
+        Asesoria a = reservar(crearProgramador(), 14, "cliente@test.com");
+        Asesoria leidaAntes = asesoriaRepository.findById(a.getId()).orElseThrow();
+        long correosAntes = notificacionRepository.count();
+
+        // sin cambio de estado: se guarda la respuesta, no sale correo aunque haya asunto
+        AsesoriaEstadoService.CambioEstado soloRespuesta = estadoService.cambiarEstado(
+                asesoriaRepository.findById(a.getId()).orElseThrow(), EstadoAsesoria.PENDIENTE,
+                "lo veo mañana", "Asunto", "Mensaje");
+        assertThat(soloRespuesta.notificacionId()).isNull();
+        assertThat(notificacionRepository.count()).isEqualTo(correosAntes);
+
+        // otra petición la aprueba; la respuesta desde la lectura vieja no la devuelve a pendiente
+        estadoService.cambiarEstado(asesoriaRepository.findById(a.getId()).orElseThrow(),
+                EstadoAsesoria.APROBADA, null, null, null);
+        assertThatThrownBy(() -> estadoService.cambiarEstado(leidaAntes, null, "otra respuesta", null, null))
+                .isInstanceOf(TransicionEstadoException.class);
+
+        Asesoria guardada = asesoriaRepository.findById(a.getId()).orElseThrow();
+        assertThat(guardada.getEstado()).isEqualTo(EstadoAsesoria.APROBADA);
+        assertThat(guardada.getRespuestaProgramador()).isEqualTo("lo veo mañana");
+    }
+
+    @Test
+    void cambioEnLoteInformaCadaIdYAgrupaCorreos() {
+        Programador p = crearProgramador();
+        Asesoria ana1 = reservar(p, 9, "ana@test.com");
+        Asesoria ana2 = reservar(p, 10, "ana@test.com");
+        Asesoria ana3 = reservar(p, 11, "ana@test.com");
+        Asesoria beto = reservar(p, 12, "beto@test.com");
+        Asesoria rechazada = estadoService.cambiarEstado(reservar(p, 13, null),
+                EstadoAsesoria.RECHAZADA, null, null, null).asesoria();
+        Asesoria ajena = reservar(crearProgramador(), 9, "otro@test.com");
+        Asesoria pasada = new Asesoria();
+        pasada.setProgramador(p);
+        pasada.setNombreSolicitante("Cliente");
+        pasada.setEmailSolicitante("caro@test.com");
+        pasada.setFecha(LocalDate.now().minusDays(2));
+        pasada.setHora(LocalTime.of(9, 0));
+        pasada.setEstado(EstadoAsesoria.PENDIENTE);
+        pasada = asesoriaRepository.save(pasada);
+        UUID inexistente = UUID.randomUUID();
+
+        List<UUID> ids = List.of(ana1.getId(), ana2.getId(), ana3.getId(), beto.getId(),
+                rechazada.getId(), ajena.getId(), pasada.getId(), inexistente);
+        AsesoriaEstadoService.CambioLote lote = estadoService.cambiarEstadoEnLote(
+                p.getId(), ids, EstadoAsesoria.APROBADA, null);
+
+        assertThat(lote.resultados()).extracting(AsesoriaEstadoService.ResultadoId::id).containsExactlyElementsOf(ids);
+        assertThat(lote.resultados()).extracting(AsesoriaEstadoService.ResultadoId::resultado).containsExactly(
+                "actualizada", "actualizada", "actualizada", "actualizada", "conflicto", "no_autorizada",
+                "fecha_pasada", "no_encontrada");
+        for (Asesoria a : List.of(ana1, ana2, ana3, beto)) {
+            Asesoria guardada = asesoriaRepository.findById(a.getId()).orElseThrow();
+            assertThat(guardada.getEstado()).isEqualTo(EstadoAsesoria.APROBADA);
+            assertThat(guardada.getRespondidoEn()).isNotNull();
+        }
+        assertThat(asesoriaRepository.findById(ajena.getId()).orElseThrow().getEstado())
+                .isEqualTo(EstadoAsesoria.PENDIENTE);
+        // misma regla que el cambio de a una: una asesoría de fecha pasada no se gestiona
+        assertThat(asesoriaRepository.findById(pasada.getId()).orElseThrow().getEstado())
+                .isEqualTo(EstadoAsesoria.PENDIENTE);
+
+        // un correo por solicitante: el de Ana lista sus tres horarios
+        List<Notificacion> correos = notificacionRepository.findAllById(lote.notificacionIds());
+        assertThat(correos).extracting(Notificacion::getDestinatario)
+                .containsExactlyInAnyOrder("ana@test.com", "beto@test.com");
+        Notificacion deAna = correos.stream().filter(n -> n.getDestinatario().equals("ana@test.com")).findFirst().orElseThrow();
+        assertThat(deAna.getMensaje()).contains("09:00", "10:00", "11:00");
+    }
+
+    private Asesoria reservar(Programador p, int hora) {
+        return reservar(p, hora, null);
+    }
+
+    private Asesoria reservar(Programador p, int hora, String email) {
+        Asesoria a = new Asesoria();
+        a.setEmailSolicitante(email);
+        a.setProgramador(p);
+        a.setNombreSolicitante("Cliente");
+        a.setFecha(LocalDate.now().plusDays(5));
+        a.setHora(LocalTime.of(hora, 0));
+        a.setEstado(EstadoAsesoria.PENDIENTE);
+        return reservaService.reservar(a);
+    }
+
+    private Programador crearProgramador() {
+        Usuario u = new Usuario();
+        u.setNombre("Estados");
+        u.setEmail("estados-" + System.nanoTime() + "@test.com");
+        u.setRol("programador");
+        u = usuarioRepository.save(u);
+
+        Programador p = new Programador();
+        p.setUsuario(u);
+        p.setEspecialidad("Backend");
+        return programadorRepository.save(p);
+    }
+}
@@ -0,0 +1,85 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.dto.ProgramadorPublicoDTO;
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(CatalogoProgramadoresService.class)
+class CatalogoProgramadoresServiceTest {
+
+    @Autowired
+    private CatalogoProgramadoresService catalogoService;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Test
+    void listarUsaLasMismasConsultasSinImportarElVolumen() {
+        sembrar(5);
+        long consultasPocos = contarConsultas(() -> assertThat(catalogoService.listar(null, null)).hasSize(5));
+
+        sembrar(200);
+        long consultasMuchos = contarConsultas(() -> assertThat(catalogoService.listar(null, null)).hasSize(205));
+
+        assertThat(consultasPocos).isEqualTo(2);
+        assertThat(consultasMuchos).isEqualTo(consultasPocos);
+    }
+
+    @Test
+    void paginaPorKeysetYCargaLasHoras() {
+        sembrar(30);
+
+        List<ProgramadorPublicoDTO> primera = catalogoService.listar(null, 10);
+        List<ProgramadorPublicoDTO> segunda = catalogoService.listar(primera.get(9).getId(), 10);
+
+        assertThat(primera).hasSize(10);
+        assertThat(segunda).hasSize(10);
+        assertThat(segunda).extracting(ProgramadorPublicoDTO::getId)
+                .doesNotContainAnyElementsOf(primera.stream().map(ProgramadorPublicoDTO::getId).toList());
+        assertThat(primera).allSatisfy(dto -> {
+            assertThat(dto.getHorasDisponibles()).containsExactlyInAnyOrder("09:00", "10:00");
+            assertThat(dto.getNombre()).startsWith("Programador");
+        });
+    }
+
+    private void sembrar(int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            Usuario u = new Usuario();
+            u.setNombre("Programador " + i);
+            u.setEmail("p" + i + "-" + System.nanoTime() + "@test.com");
+            u.setRol("programador");
+            em.persist(u);
+
+            Programador p = new Programador();
+            p.setUsuario(u);
+            p.setEspecialidad("Backend");
+            p.setHorasDisponibles(List.of("09:00", "10:00"));
+            em.persist(p);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private long contarConsultas(Runnable accion) {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        accion.run();
+        return stats.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,76 @@
+package com.lucero.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lucero.backend.dto.ProgramadorPublicoDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogoSnapshotServiceTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    // Dos instancias (o la misma tras reiniciar) con los mismos datos dan el mismo ETag;
+    // un cambio en cualquiera de ellas lo cambia
+    @Test
+    void elEtagDependeDelContenidoNoDeLaInstancia() {
+        List<ProgramadorPublicoDTO> base = new ArrayList<>(List.of(dto("Ana"), dto("Luis")));
+        CatalogoSnapshotService a = snapshot(base);
+        CatalogoSnapshotService b = snapshot(base);
+        b.invalidarTodo();
+        b.listar(); // otra versión interna, mismo contenido
+
+        assertThat(a.etagActual()).isEqualTo(b.etagActual());
+        assertThat(a.listar(null, 1).etag()).isEqualTo(a.etagActual());
+        UUID id = base.get(0).getId();
+        assertThat(a.obtener(id).orElseThrow().etag()).isEqualTo(b.obtener(id).orElseThrow().etag());
+
+        ProgramadorPublicoDTO editado = dto("Ana");
+        editado.setId(id);
+        editado.setEspecialidad("Frontend");
+        a.actualizar(editado);
+        assertThat(a.etagActual()).isNotEqualTo(b.etagActual());
+        assertThat(a.obtener(id).orElseThrow().etag()).isNotEqualTo(b.obtener(id).orElseThrow().etag());
+    }
+
+    // Un cambio hecho en otra instancia se ve al pasar revalidar-ms
+    @Test
+    void recargaDeLaBasePasadaLaVentana() throws Exception {
+        List<ProgramadorPublicoDTO> base = new ArrayList<>(List.of(dto("Ana")));
+        CatalogoSnapshotService s = snapshot(base);
+        String antes = s.etagActual();
+
+        base.add(dto("Luis")); // la escribió otra instancia
+        assertThat(s.etagActual()).isEqualTo(antes);
+
+        ReflectionTestUtils.setField(s, "revalidarMs", 1L);
+        Thread.sleep(5);
+        s.listar(); // dispara la recarga
+        assertThat(s.programadores()).hasSize(2);
+        assertThat(s.etagActual()).isNotEqualTo(antes);
+    }
+
+    private CatalogoSnapshotService snapshot(List<ProgramadorPublicoDTO> base) {
+        CatalogoProgramadoresService catalogo = new CatalogoProgramadoresService(null) {
+            @Override
+            public List<ProgramadorPublicoDTO> listar(UUID after, Integer limit) {
+                return List.copyOf(base);
+            }
+        };
+        return new CatalogoSnapshotService(catalogo, objectMapper);
+    }
+
+    private static ProgramadorPublicoDTO dto(String nombre) {
+        ProgramadorPublicoDTO d = new ProgramadorPublicoDTO();
+        d.setId(UUID.randomUUID());
+        d.setNombre(nombre);
+        d.setEspecialidad("Backend");
+        return d;
+    }
+}
@@ -0,0 +1,150 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.dto.PuntoSerieDTO;
+import com.lucero.backend.models.Asesoria;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import com.lucero.backend.repositories.AsesoriaRepository;
+import com.lucero.backend.repositories.ProgramadorRepository;
+import com.lucero.backend.repositories.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+class ContadoresAsesoriaServiceTest {
+
+    @Autowired
+    private ContadoresAsesoriaService contadores;
+    @Autowired
+    private SerieAsesoriasService serie;
+    @Autowired
+    private ReservaAsesoriaService reservaService;
+    @Autowired
+    private AsesoriaEstadoService estadoService;
+    @Autowired
+    private ProgramadorRepository programadorRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private AsesoriaRepository asesoriaRepository;
+
+    @Test
+    void siguenAltasYCambiosDeEstadoYSeReconcilian() {
+        Programador p = crearProgramador();
+        assertThat(contadores.resumen(p.getId()).total()).isZero();
+
+        Asesoria a1 = reservar(p, 9);
+        reservar(p, 10);
+        reservar(p, 11);
+        estadoService.cambiarEstado(a1, EstadoAsesoria.APROBADA, null, null, null);
+
+        ContadoresAsesoriaService.Resumen r = contadores.resumen(p.getId());
+        assertThat(r.total()).isEqualTo(3);
+        assertThat(r.de(EstadoAsesoria.PENDIENTE)).isEqualTo(2);
+        assertThat(r.de(EstadoAsesoria.APROBADA)).isEqualTo(1);
+        assertThat(r.de(EstadoAsesoria.RECHAZADA)).isZero();
+
+        // cambio por fuera de los servicios: el contador se desvía hasta reconciliar
+        Asesoria suelta = nueva(p, 12);
+        suelta.setEstado(EstadoAsesoria.RECHAZADA);
+        asesoriaRepository.save(suelta);
+        assertThat(contadores.resumen(p.getId()).total()).isEqualTo(3);
+
+        contadores.reconciliar();
+        r = contadores.resumen(p.getId());
+        assertThat(r.total()).isEqualTo(4);
+        assertThat(r.de(EstadoAsesoria.RECHAZADA)).isEqualTo(1);
+        assertThat(r.total()).isEqualTo(asesoriaRepository.countByProgramadorId(p.getId()));
+    }
+
+    // Altas y aprobaciones desde varios hilos mientras las dos reconciliaciones
+    // corren en bucle: ningún recuento pisa un cambio ni un cambio se pierde
+    @Test
+    void reconciliarMientrasLleganCambiosNoPierdeNinguno() throws Exception {
+        Programador p = crearProgramador();
+        reservar(p, 8); // la fila del contador ya existe
+
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        AtomicBoolean fin = new AtomicBoolean();
+        try {
+            Future<?> reconciliador = hilos.submit(() -> {
+                while (!fin.get()) {
+                    contadores.reconciliar();
+                    serie.reconciliar();
+                }
+            });
+            List<Future<?>> escritores = new ArrayList<>();
+            for (int t = 1; t <= 3; t++) {
+                LocalDate fecha = LocalDate.now().plusDays(3 + t);
+                escritores.add(hilos.submit(() -> {
+                    for (int hora = 0; hora < 16; hora++) {
+                        Asesoria a = nueva(p, hora);
+                        a.setFecha(fecha);
+                        a = reservaService.reservar(a);
+                        if (hora % 2 == 0) {
+                            estadoService.cambiarEstado(a, EstadoAsesoria.APROBADA, null, null, null);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : escritores) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+            fin.set(true);
+            reconciliador.get(60, TimeUnit.SECONDS);
+        } finally {
+            fin.set(true);
+            hilos.shutdownNow();
+        }
+
+        ContadoresAsesoriaService.Resumen r = contadores.resumen(p.getId());
+        assertThat(r.total()).isEqualTo(49);
+        assertThat(r.de(EstadoAsesoria.APROBADA)).isEqualTo(24);
+        assertThat(r.de(EstadoAsesoria.PENDIENTE)).isEqualTo(25);
+        assertThat(serie.serie(p.getId(), SerieAsesoriasService.Bucket.DAY, null, null))
+                .extracting(PuntoSerieDTO::getTotal).containsExactly(1L, 16L, 16L, 16L);
+    }
+
+    private Asesoria reservar(Programador p, int hora) {
+        return reservaService.reservar(nueva(p, hora));
+    }
+
+    private Asesoria nueva(Programador p, int hora) {
+        Asesoria a = new Asesoria();
+        a.setProgramador(p);
+        a.setNombreSolicitante("Cliente");
+        a.setFecha(LocalDate.now().plusDays(3));
+        a.setHora(LocalTime.of(hora, 0));
+        a.setEstado(EstadoAsesoria.PENDIENTE);
+        return a;
+    }
+
+    private Programador crearProgramador() {
+        Usuario u = new Usuario();
+        u.setNombre("Contado");
+        u.setEmail("contadores-" + System.nanoTime() + "@test.com");
+        u.setRol("programador");
+        u = usuarioRepository.save(u);
+
+        Programador p = new Programador();
+        p.setUsuario(u);
+        p.setEspecialidad("Backend");
+        return programadorRepository.save(p);
+    }
+}
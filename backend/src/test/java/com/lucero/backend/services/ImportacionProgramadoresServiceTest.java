@@ -0,0 +1,158 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.dto.ResultadoImportacionDTO;
+import com.lucero.backend.models.Usuario;
+import com.lucero.backend.repositories.ProgramadorRepository;
+import com.lucero.backend.repositories.UsuarioRepository;
+import com.lucero.backend.security.HashingSaturadoException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "seguridad.bcrypt.fuerza=4"
+})
+@AutoConfigureTestDatabase
+class ImportacionProgramadoresServiceTest {
+
+    private static final int FILAS = 3000;
+
+    @Autowired
+    private ImportacionProgramadoresService importacionService;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private ProgramadorRepository programadorRepository;
+    @Autowired
+    private EntityManagerFactory emf;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void importaCsvEnLotesEInformaCadaFila() throws Exception {
+        Usuario existente = new Usuario();
+        existente.setNombre("Ya registrado");
+        existente.setEmail("csv-1500@test.com");
+        existente.setRol("usuario");
+        usuarioRepository.save(existente);
+
+        StringBuilder csv = new StringBuilder("nombre,descripcion,especialidad,emailContacto,horasDisponibles,password\n");
+        for (int i = 0; i < FILAS; i++) {
+            String password = i % 100 == 0 ? "clave" + i : "";
+            csv.append("Programador ").append(i).append(",\"Backend, APIs y \"\"datos\"\"\",Java,")
+                    .append("csv-").append(i).append("@test.com,09:00|10:00,").append(password).append('\n');
+        }
+        csv.append("Repetido,Desc,Java,csv-7@test.com,,\n");   // línea FILAS + 2
+        csv.append(",Desc,Java,sin-nombre@test.com,,\n");       // línea FILAS + 3
+        csv.append("Hora mala,Desc,Java,hora@test.com,25:00,\n"); // línea FILAS + 4
+
+        long programadoresAntes = programadorRepository.count();
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        ResultadoImportacionDTO r = importacionService.importar(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                ImportacionProgramadoresService.Formato.CSV);
+        System.out.printf("Importación de %d filas: %d ms, %d sentencias preparadas%n",
+                r.getTotal(), r.getDuracionMs(), stats.getPrepareStatementCount());
+
+        assertThat(r.getTotal()).isEqualTo(FILAS + 3);
+        assertThat(r.getCreados()).isEqualTo(FILAS - 1);
+        assertThat(r.getRechazados()).isEqualTo(4);
+        assertThat(r.getFilas()).hasSize(FILAS + 3);
+        assertThat(programadorRepository.count() - programadoresAntes).isEqualTo(FILAS - 1);
+
+        assertThat(r.getFilas().get(1500).error()).contains("ya está registrado");
+        assertThat(r.getFilas().get(FILAS).error()).contains("repetido").contains("línea 9");
+        assertThat(r.getFilas().get(FILAS + 1).error()).isEqualTo("Falta el nombre");
+        assertThat(r.getFilas().get(FILAS + 2).error()).contains("25:00");
+
+        // usuarios, programadores y horas van en lotes JDBC: pocas sentencias para miles de filas
+        assertThat(stats.getPrepareStatementCount()).isLessThan(FILAS / 10);
+
+        Usuario importado = usuarioRepository.findByEmail("csv-3@test.com").orElseThrow();
+        assertThat(importado.getRol()).isEqualTo("programador");
+        assertThat(importado.getPasswordHash()).startsWith("$2a$04$");
+        assertThat(usuarioRepository.findByEmail("csv-4@test.com").orElseThrow().getPasswordHash())
+                .isEqualTo(importado.getPasswordHash());
+        assertThat(usuarioRepository.findByEmail("csv-100@test.com").orElseThrow().getPasswordHash())
+                .isNotEqualTo(importado.getPasswordHash());
+    }
+
+    @Test
+    void importaNdjsonYMarcaLineasInvalidas() throws Exception {
+        String ndjson = """
+                {"nombre":"Ana","descripcion":"Front","especialidad":"React","emailContacto":"ndjson-ana@test.com","horasDisponibles":["09:00"]}
+
+                {"nombre":"Sin email","descripcion":"Back","especialidad":"Go"}
+                {"nombre":
+                """;
+
+        ResultadoImportacionDTO r = importacionService.importar(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                ImportacionProgramadoresService.Formato.NDJSON);
+
+        assertThat(r.getCreados()).isEqualTo(2);
+        assertThat(r.getFilas()).extracting(ResultadoImportacionDTO.Fila::linea).containsExactly(1, 3, 4);
+        assertThat(r.getFilas().get(1).email()).startsWith("temp_");
+        assertThat(r.getFilas().get(2).error()).startsWith("JSON inválido");
+        List<String> horas = transactionTemplate.execute(st -> List.copyOf(
+                programadorRepository.findById(r.getFilas().get(0).programadorId()).orElseThrow().getHorasDisponibles()));
+        assertThat(horas).containsExactly("09:00");
+    }
+
+    @Test
+    void rechazaUnaSegundaImportacionSimultanea() throws Exception {
+        CountDownLatch leyendo = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        // cuerpo que no termina de llegar hasta que el test lo suelta
+        InputStream lento = new InputStream() {
+            @Override
+            public int read() {
+                leyendo.countDown();
+                try {
+                    soltar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return -1;
+            }
+        };
+
+        CompletableFuture<ResultadoImportacionDTO> primera = CompletableFuture.supplyAsync(() -> {
+            try {
+                return importacionService.importar(lento, ImportacionProgramadoresService.Formato.NDJSON);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThat(leyendo.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> importacionService.importar(
+                new ByteArrayInputStream(new byte[0]), ImportacionProgramadoresService.Formato.NDJSON))
+                .isInstanceOf(HashingSaturadoException.class);
+
+        soltar.countDown();
+        assertThat(primera.get(10, TimeUnit.SECONDS).getTotal()).isZero();
+        // terminada la primera, se puede volver a importar
+        assertThat(importacionService.importar(
+                new ByteArrayInputStream(new byte[0]), ImportacionProgramadoresService.Formato.NDJSON).getTotal()).isZero();
+    }
+}
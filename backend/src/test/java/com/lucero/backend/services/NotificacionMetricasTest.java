@@ -0,0 +1,59 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.models.Notificacion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+@AutoConfigureObservability
+class NotificacionMetricasTest {
+
+    @Autowired
+    private NotificacionService notificacionService;
+    @Autowired
+    private NotificacionMetricas metricas;
+    @Autowired
+    private TestRestTemplate rest;
+    @LocalManagementPort
+    private int puertoGestion;
+
+    @Test
+    void exponeTiemposYColaEnPrometheus() {
+        LocalDateTime enUnaHora = LocalDateTime.now().plusHours(1);
+        notificacionService.encolarEmail("a@test.com", "Asunto", "Mensaje", enUnaHora);
+        notificacionService.encolarEmail("b@test.com", "Asunto", "Mensaje", enUnaHora);
+        Notificacion whatsapp = notificacionService.encolarWhatsApp("+593000000", "Hola", enUnaHora);
+        notificacionService.enviar(whatsapp);
+        metricas.actualizar();
+
+        assertThat(rest.getForEntity("/api/programadores", String.class).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // el puerto público no expone actuator; el scrape va al de gestión
+        assertThat(rest.getForEntity("/actuator/prometheus", String.class).getStatusCode().is2xxSuccessful()).isFalse();
+        ResponseEntity<String> scrape = rest.getForEntity(
+                "http://localhost:" + puertoGestion + "/actuator/prometheus", String.class);
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String cuerpo = scrape.getBody();
+
+        assertThat(cuerpo).contains("notificaciones_backlog{application=\"backend-programadores\",estado=\"pendiente\"} 2.0");
+        assertThat(cuerpo).contains("notificaciones_programadas");
+        assertThat(cuerpo).containsPattern(
+                "notificaciones_envio_seconds_bucket\\{[^}]*resultado=\"enviado\",tipo=\"whatsapp\"");
+        assertThat(cuerpo).containsPattern(
+                "http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/programadores\"");
+        assertThat(cuerpo).containsPattern(
+                "spring_data_repository_invocations_seconds_bucket\\{[^}]*method=\"contarBacklog\"[^}]*repository=\"NotificacionRepository\"");
+    }
+}
@@ -0,0 +1,90 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.models.Notificacion;
+import com.lucero.backend.repositories.NotificacionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class NotificacionServiceTest {
+
+    @Test
+    void siFallaElGuardadoTrasEnviarNoSeReprogramaNiSeReenvia() {
+        NotificacionRepository repo = mock(NotificacionRepository.class);
+        when(repo.save(any())).thenThrow(new DataAccessResourceFailureException("base caída"));
+        ApplicationEventPublisher eventos = mock(ApplicationEventPublisher.class);
+        List<SimpleMailMessage> enviados = new ArrayList<>();
+        JavaMailSenderImpl smtp = new JavaMailSenderImpl() {
+            @Override
+            public void send(SimpleMailMessage... mensajes) {
+                enviados.addAll(List.of(mensajes));
+            }
+        };
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+
+        NotificacionService service = new NotificacionService(repo, eventos, smtp, registro);
+        ReflectionTestUtils.setField(service, "maxIntentos", 6);
+        ReflectionTestUtils.setField(service, "from", "no-responder@test.com");
+
+        Notificacion n = new Notificacion();
+        n.setId(UUID.randomUUID());
+        n.setTipo("EMAIL");
+        n.setDestinatario("a@test.com");
+        n.setMensaje("Hola");
+        n.setEstadoEnvio("EN_PROCESO");
+        n.setProgramadaPara(LocalDateTime.now());
+
+        service.enviar(n);
+
+        assertThat(enviados).hasSize(1);
+        assertThat(enviados.get(0).getFrom()).isEqualTo("no-responder@test.com");
+        // ni PENDIENTE ni un aviso de reintento: se registra con el UPDATE directo
+        assertThat(n.getEstadoEnvio()).isEqualTo("ENVIADO");
+        verify(repo).marcarEnviada(eq(n.getId()), eq(1), any());
+        verifyNoInteractions(eventos);
+        assertThat(registro.find("notificaciones.fallos").counters()).isEmpty();
+    }
+
+    @Test
+    void siTampocoSePuedeMarcarSeCuentaComoSinRegistrar() {
+        NotificacionRepository repo = mock(NotificacionRepository.class);
+        when(repo.save(any())).thenThrow(new DataAccessResourceFailureException("base caída"));
+        when(repo.marcarEnviada(any(), anyInt(), any())).thenThrow(new DataAccessResourceFailureException("base caída"));
+        ApplicationEventPublisher eventos = mock(ApplicationEventPublisher.class);
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+
+        NotificacionService service = new NotificacionService(repo, eventos, null, registro);
+        ReflectionTestUtils.setField(service, "maxIntentos", 6);
+
+        Notificacion n = new Notificacion();
+        n.setId(UUID.randomUUID());
+        n.setTipo("WHATSAPP");
+        n.setDestinatario("+593000000");
+        n.setMensaje("Hola");
+        n.setEstadoEnvio("EN_PROCESO");
+
+        service.enviar(n);
+
+        verifyNoInteractions(eventos);
+        assertThat(registro.get("notificaciones.fallos").tag("resultado", "sin_registrar").counter().count())
+                .isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.lucero.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlantillaSemanalTest {
+
+    private static final LocalDate LUNES = LocalDate.of(2026, 1, 5);
+    private static final LocalDate MARTES = LUNES.plusDays(1);
+
+    @Test
+    void uneHorasDelPerfilYVentanasDelDia() {
+        PlantillaSemanal plantilla = new PlantillaSemanal()
+                .agregarHora("09:00")
+                .agregarHora("18:00:00")
+                .agregarVentana(1, LocalTime.of(10, 15), LocalTime.of(12, 0));
+
+        assertThat(PlantillaSemanal.aHoras(plantilla.dia(LUNES)))
+                .containsExactly("09:00", "10:30", "11:00", "11:30", "18:00");
+        assertThat(PlantillaSemanal.aHoras(plantilla.dia(MARTES)))
+                .containsExactly("09:00", "18:00");
+    }
+
+    @Test
+    void restaLasHorasOcupadas() {
+        PlantillaSemanal plantilla = new PlantillaSemanal()
+                .agregarVentana(1, LocalTime.of(9, 0), LocalTime.of(11, 0));
+
+        long ocupados = PlantillaSemanal.bit(LocalTime.of(9, 30)) | PlantillaSemanal.bit(LocalTime.of(10, 0));
+
+        assertThat(PlantillaSemanal.aHoras(plantilla.libres(LUNES, ocupados)))
+                .containsExactly("09:00", "10:30");
+    }
+
+    @Test
+    void ventanaHastaMedianocheEIgnoraHorasInvalidas() {
+        PlantillaSemanal plantilla = new PlantillaSemanal()
+                .agregarHora("no-es-hora")
+                .agregarVentana(0, LocalTime.of(23, 0), LocalTime.MIDNIGHT);
+
+        assertThat(PlantillaSemanal.aHoras(plantilla.dia(LUNES.minusDays(1))))
+                .containsExactly("23:00", "23:30");
+        assertThat(plantilla.dia(LUNES)).isZero();
+    }
+
+    @Test
+    void horasFueraDeGrillaSeSirvenTalCualSinRedondear() {
+        PlantillaSemanal plantilla = new PlantillaSemanal()
+                .agregarHora("10:15")
+                .agregarHora("09:00")
+                .agregarHora("11:00");
+
+        assertThat(plantilla.horasLibres(LUNES, 0L, Set.of()))
+                .containsExactly("09:00", "10:15", "11:00");
+
+        // una asesoría a las 10:15 ocupa solo esa hora, no el bloque de las 10:00
+        assertThat(plantilla.horasLibres(LUNES, 0L, Set.of(LocalTime.of(10, 15))))
+                .containsExactly("09:00", "11:00");
+        assertThat(plantilla.libreA(LUNES, LocalTime.of(10, 15), 0L, Set.of())).isTrue();
+        assertThat(plantilla.libreA(LUNES, LocalTime.of(10, 0), 0L, Set.of())).isFalse();
+    }
+}
@@ -0,0 +1,36 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.dto.ReporteAsesoriaFila;
+import com.lucero.backend.models.EstadoAsesoria;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReporteAsesoriasWriterTest {
+
+    @Test
+    void csvNeutralizaFormulas() throws Exception {
+        List<ReporteAsesoriaFila> filas = List.of(
+                new ReporteAsesoriaFila(LocalDate.of(2026, 3, 2), LocalTime.of(9, 0),
+                        "=HYPERLINK(\"http://x.test\",\"clic\")", "@SUMA(A1)", EstadoAsesoria.PENDIENTE),
+                new ReporteAsesoriaFila(LocalDate.of(2026, 3, 2), LocalTime.of(10, 0),
+                        "+1-555", "-2+3@test.com", EstadoAsesoria.APROBADA));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReporteAsesoriasWriter.csv(filas.iterator(), out);
+
+        List<String> lineas = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lineas.get(1)).isEqualTo(
+                "2026-03-02,09:00,\"'=HYPERLINK(\"\"http://x.test\"\",\"\"clic\"\")\",'@SUMA(A1),pendiente");
+        assertThat(lineas.get(2)).isEqualTo("2026-03-02,10:00,'+1-555,'-2+3@test.com,aprobada");
+        // lo demás no cambia
+        assertThat(ReporteAsesoriasWriter.campoCsv("Ana = Juan")).isEqualTo("Ana = Juan");
+        assertThat(ReporteAsesoriasWriter.campoCsv(null)).isEmpty();
+    }
+}
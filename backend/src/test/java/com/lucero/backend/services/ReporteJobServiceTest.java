@@ -0,0 +1,110 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.models.Asesoria;
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import com.lucero.backend.repositories.AsesoriaRepository;
+import com.lucero.backend.repositories.ProgramadorRepository;
+import com.lucero.backend.repositories.UsuarioRepository;
+import com.lucero.backend.services.ReporteJobService.EstadoJob;
+import com.lucero.backend.services.ReporteJobService.ReporteJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "reportes.directorio=target/reportes-test")
+@AutoConfigureTestDatabase
+class ReporteJobServiceTest {
+
+    @Autowired
+    private ReporteJobService jobService;
+    @Autowired
+    private ProgramadorRepository programadorRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private AsesoriaRepository asesoriaRepository;
+
+    @Test
+    void reutilizaElArchivoMientrasLosDatosNoCambien() throws Exception {
+        Programador p = crearProgramador();
+        LocalDate fecha = LocalDate.of(2026, 3, 2);
+        crearAsesoria(p, fecha, LocalTime.of(9, 0), "Ana, \"la\" cliente");
+        crearAsesoria(p, fecha.plusDays(40), LocalTime.of(10, 0), "Fuera del rango");
+
+        ReporteAsesoriasService.Filtro filtro = new ReporteAsesoriasService.Filtro(fecha, fecha.plusDays(7), null);
+
+        ReporteJob primero = esperar(jobService.encolar(p.getId(), "Ana", FormatoReporte.CSV, filtro));
+        assertThat(primero.getEstado()).isEqualTo(EstadoJob.LISTO);
+        assertThat(primero.isDesdeCache()).isFalse();
+        assertThat(leer(primero))
+                .contains("\"Ana, \"\"la\"\" cliente\"")
+                .doesNotContain("Fuera del rango");
+        // como si se hubiera generado hace una hora
+        FileTime viejo = FileTime.from(Instant.now().minus(Duration.ofHours(1)));
+        Files.setLastModifiedTime(primero.getArchivo(), viejo);
+
+        ReporteJob segundo = jobService.encolar(p.getId(), "Ana", FormatoReporte.CSV, filtro);
+        assertThat(segundo.isDesdeCache()).isTrue();
+        assertThat(segundo.getArchivo()).isEqualTo(primero.getArchivo());
+        // el acierto renueva la fecha: la limpieza no borra un reporte que se sigue pidiendo
+        assertThat(Files.getLastModifiedTime(segundo.getArchivo())).isGreaterThan(viejo);
+        // y otro acierto devuelve el mismo job en lugar de sumar uno por pedido
+        assertThat(jobService.encolar(p.getId(), "Ana", FormatoReporte.CSV, filtro).getId())
+                .isEqualTo(segundo.getId());
+
+        // una asesoría nueva cambia la versión de los datos: se vuelve a generar
+        crearAsesoria(p, fecha.plusDays(1), LocalTime.of(11, 0), "Nueva");
+        ReporteJob tercero = esperar(jobService.encolar(p.getId(), "Ana", FormatoReporte.CSV, filtro));
+        assertThat(tercero.isDesdeCache()).isFalse();
+        assertThat(tercero.getArchivo()).isNotEqualTo(primero.getArchivo());
+        assertThat(leer(tercero)).contains("Nueva");
+    }
+
+    private ReporteJob esperar(ReporteJob job) throws InterruptedException {
+        for (int i = 0; i < 200 && job.getTerminadoEn() == null; i++) {
+            Thread.sleep(50);
+        }
+        return job;
+    }
+
+    private String leer(ReporteJob job) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        jobService.transferir(job, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void crearAsesoria(Programador p, LocalDate fecha, LocalTime hora, String nombre) {
+        Asesoria a = new Asesoria();
+        a.setProgramador(p);
+        a.setNombreSolicitante(nombre);
+        a.setFecha(fecha);
+        a.setHora(hora);
+        asesoriaRepository.save(a);
+    }
+
+    private Programador crearProgramador() {
+        Usuario u = new Usuario();
+        u.setNombre("Ana");
+        u.setEmail("reportes-" + System.nanoTime() + "@test.com");
+        u.setRol("programador");
+        u = usuarioRepository.save(u);
+
+        Programador p = new Programador();
+        p.setUsuario(u);
+        p.setEspecialidad("Backend");
+        return programadorRepository.save(p);
+    }
+}
@@ -0,0 +1,136 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.models.Asesoria;
+import com.lucero.backend.models.ContadorAsesorias;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import com.lucero.backend.repositories.AsesoriaRepository;
+import com.lucero.backend.repositories.ContadorAsesoriasRepository;
+import com.lucero.backend.repositories.ProgramadorRepository;
+import com.lucero.backend.repositories.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+class ReservaAsesoriaServiceStressTest {
+
+    private static final int CLIENTES = 64;
+    private static final int INTENTOS_POR_CLIENTE = 40;
+    private static final int HORARIOS = 16;
+
+    @Autowired
+    private ReservaAsesoriaService reservaService;
+    @Autowired
+    private ProgramadorRepository programadorRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private AsesoriaRepository asesoriaRepository;
+    @Autowired
+    private ContadorAsesoriasRepository contadorRepository;
+
+    @Test
+    void sesentaYCuatroClientesNoProducenDoblesReservas() throws Exception {
+        Programador programador = crearProgramador();
+        LocalDate fecha = LocalDate.now().plusDays(7);
+        // En Postgres el upsert del contador del dashboard es atómico; H2 lo traduce a un
+        // MERGE que falla si dos altas crean a la vez la misma fila, así que ya existe
+        ContadorAsesorias contador = new ContadorAsesorias();
+        contador.setProgramadorId(programador.getId());
+        contadorRepository.save(contador);
+
+        AtomicInteger exitos = new AtomicInteger();
+        AtomicInteger conflictos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES);
+
+        for (int c = 0; c < CLIENTES; c++) {
+            int cliente = c;
+            clientes.submit(() -> {
+                largada.await();
+                for (int i = 0; i < INTENTOS_POR_CLIENTE; i++) {
+                    Asesoria a = new Asesoria();
+                    a.setProgramador(programador);
+                    a.setNombreSolicitante("Cliente " + cliente);
+                    a.setFecha(fecha);
+                    a.setHora(LocalTime.of(8, 0).plusMinutes(30L * ((cliente + i) % HORARIOS)));
+                    a.setEstado(EstadoAsesoria.PENDIENTE);
+                    try {
+                        reservaService.reservar(a);
+                        exitos.incrementAndGet();
+                    } catch (HorarioOcupadoException e) {
+                        conflictos.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        clientes.shutdown();
+        assertThat(clientes.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        int total = CLIENTES * INTENTOS_POR_CLIENTE;
+        System.out.printf("Reservas: %d intentos, %d exitos, %d conflictos en %.2fs (%.0f reservas/s con %d clientes)%n",
+                total, exitos.get(), conflictos.get(), segundos, total / segundos, CLIENTES);
+
+        List<Asesoria> guardadas = asesoriaRepository.findByProgramadorIdAndFecha(programador.getId(), fecha);
+        Map<LocalTime, Long> porHora = guardadas.stream()
+                .collect(Collectors.groupingBy(Asesoria::getHora, Collectors.counting()));
+
+        assertThat(exitos.get()).isEqualTo(HORARIOS);
+        assertThat(conflictos.get()).isEqualTo(total - HORARIOS);
+        assertThat(porHora).hasSize(HORARIOS);
+        assertThat(porHora.values()).allMatch(n -> n == 1L);
+    }
+
+    // Solo el índice de horario se traduce a "ya está reservado"; otra restricción
+    // (aquí la FK a un programador que no existe) no se disfraza de conflicto
+    @Test
+    void otraRestriccionNoSeInformaComoHorarioOcupado() {
+        Programador inexistente = crearProgramador();
+        programadorRepository.delete(inexistente);
+
+        Asesoria a = new Asesoria();
+        a.setProgramador(inexistente);
+        a.setNombreSolicitante("Cliente");
+        a.setFecha(LocalDate.now().plusDays(7));
+        a.setHora(LocalTime.of(9, 0));
+        a.setEstado(EstadoAsesoria.PENDIENTE);
+
+        assertThatThrownBy(() -> reservaService.reservar(a))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .isNotInstanceOf(HorarioOcupadoException.class);
+    }
+
+    private Programador crearProgramador() {
+        Usuario u = new Usuario();
+        u.setNombre("Popular");
+        u.setEmail("popular-" + System.nanoTime() + "@test.com");
+        u.setRol("programador");
+        u = usuarioRepository.save(u);
+
+        Programador p = new Programador();
+        p.setUsuario(u);
+        p.setEspecialidad("Backend");
+        return programadorRepository.save(p);
+    }
+}
@@ -0,0 +1,54 @@
+package com.lucero.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuedaTemporalTest {
+
+    private static final long TICK = 100;
+
+    @Test
+    void disparaCadaElementoEnSuTickSinAdelantarse() {
+        RuedaTemporal<Long> rueda = new RuedaTemporal<>(TICK, 8, 0);
+        Random r = new Random(7);
+        List<Long> vencimientos = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long vence = r.nextInt(5_000_000); // varios niveles con 8 casilleros
+            vencimientos.add(vence);
+            rueda.agregar(vence, vence);
+        }
+
+        List<long[]> disparos = new ArrayList<>();
+        for (long ahora = 0; ahora <= 5_000_000 + TICK; ahora += TICK * 37) {
+            long momento = ahora;
+            rueda.avanzar(ahora, vence -> disparos.add(new long[] { vence, momento }));
+        }
+
+        assertThat(disparos).hasSize(vencimientos.size());
+        assertThat(rueda.cantidad()).isZero();
+        for (long[] d : disparos) {
+            assertThat(d[1]).isGreaterThanOrEqualTo(d[0]);          // nunca antes
+            assertThat(d[1] - d[0]).isLessThan(TICK * 37 + TICK);   // a más tardar en el siguiente avance
+        }
+    }
+
+    @Test
+    void loYaVencidoSaleEnElSiguienteAvance() {
+        RuedaTemporal<String> rueda = new RuedaTemporal<>(TICK, 512, 10_000);
+        rueda.avanzar(20_000, x -> { });
+        rueda.agregar("atrasada", 5_000);
+        rueda.agregar("proxima", 20_050);
+
+        List<String> disparadas = new ArrayList<>();
+        rueda.avanzar(20_000, disparadas::add);
+        assertThat(disparadas).containsExactly("atrasada");
+
+        rueda.avanzar(20_100, disparadas::add);
+        assertThat(disparadas).containsExactly("atrasada", "proxima");
+    }
+}
@@ -0,0 +1,117 @@
+package com.lucero.backend.services;
+
+import com.lucero.backend.dto.PuntoSerieDTO;
+import com.lucero.backend.models.Asesoria;
+import com.lucero.backend.models.EstadoAsesoria;
+import com.lucero.backend.models.Programador;
+import com.lucero.backend.models.Usuario;
+import com.lucero.backend.repositories.AsesoriaRepository;
+import com.lucero.backend.repositories.ProgramadorRepository;
+import com.lucero.backend.repositories.UsuarioRepository;
+import com.lucero.backend.services.SerieAsesoriasService.Bucket;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+class SerieAsesoriasServiceTest {
+
+    private static final LocalDate LUNES = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    private SerieAsesoriasService serieService;
+    @Autowired
+    private ReservaAsesoriaService reservaService;
+    @Autowired
+    private AsesoriaEstadoService estadoService;
+    @Autowired
+    private ProgramadorRepository programadorRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private AsesoriaRepository asesoriaRepository;
+
+    @Test
+    void agrupaPorDiaSemanaYMesYSigueLosCambios() {
+        Programador p = crearProgramador();
+        reservar(p, LUNES, 9);
+        serieService.serie(p.getId(), Bucket.DAY, null, null); // carga los rollups
+
+        Asesoria miercoles = reservar(p, LUNES.plusDays(2), 9);
+        reservar(p, LUNES.plusDays(7), 9);
+        reservar(p, LUNES.plusMonths(1), 9);
+        estadoService.cambiarEstado(miercoles, EstadoAsesoria.APROBADA, null, null, null);
+
+        List<PuntoSerieDTO> semanas = serieService.serie(p.getId(), Bucket.WEEK, LUNES.plusDays(3), LUNES.plusDays(10));
+        assertThat(semanas).extracting(PuntoSerieDTO::getFecha).containsExactly(LUNES, LUNES.plusDays(7));
+        assertThat(semanas.get(0).getTotal()).isEqualTo(2);
+        assertThat(semanas.get(0).getAprobadas()).isEqualTo(1);
+        assertThat(semanas.get(0).getPendientes()).isEqualTo(1);
+
+        List<PuntoSerieDTO> meses = serieService.serie(p.getId(), Bucket.MONTH, null, null);
+        assertThat(meses).extracting(PuntoSerieDTO::getFecha)
+                .containsExactly(LUNES.withDayOfMonth(1), LUNES.plusMonths(1).withDayOfMonth(1));
+        assertThat(meses).extracting(PuntoSerieDTO::getTotal).containsExactly(3L, 1L);
+
+        // reconciliar con la base no cambia la serie
+        List<PuntoSerieDTO> dias = serieService.serie(p.getId(), Bucket.DAY, null, null);
+        serieService.reconciliar();
+        assertThat(serieService.serie(p.getId(), Bucket.DAY, null, null)).isEqualTo(dias);
+        assertThat(dias).hasSize(4);
+    }
+
+    @Test
+    void reconciliarCorrigeSoloLosDiasDesviados() {
+        Programador p = crearProgramador();
+        LocalDate fecha = LocalDate.now().plusDays(2);
+        reservar(p, fecha, 9);
+        reservar(p, fecha.plusDays(1), 9);
+
+        // cambio por fuera de los servicios: ese día se desvía hasta reconciliar
+        Asesoria suelta = new Asesoria();
+        suelta.setProgramador(p);
+        suelta.setNombreSolicitante("Cliente");
+        suelta.setFecha(fecha);
+        suelta.setHora(LocalTime.of(10, 0));
+        suelta.setEstado(EstadoAsesoria.RECHAZADA);
+        asesoriaRepository.save(suelta);
+        assertThat(serieService.serie(p.getId(), Bucket.DAY, null, null))
+                .extracting(PuntoSerieDTO::getTotal).containsExactly(1L, 1L);
+
+        serieService.reconciliar();
+        List<PuntoSerieDTO> dias = serieService.serie(p.getId(), Bucket.DAY, null, null);
+        assertThat(dias).extracting(PuntoSerieDTO::getTotal).containsExactly(2L, 1L);
+        assertThat(dias.get(0).getRechazadas()).isEqualTo(1);
+    }
+
+    private Asesoria reservar(Programador p, LocalDate fecha, int hora) {
+        Asesoria a = new Asesoria();
+        a.setProgramador(p);
+        a.setNombreSolicitante("Cliente");
+        a.setFecha(fecha);
+        a.setHora(LocalTime.of(hora, 0));
+        a.setEstado(EstadoAsesoria.PENDIENTE);
+        return reservaService.reservar(a);
+    }
+
+    private Programador crearProgramador() {
+        Usuario u = new Usuario();
+        u.setNombre("Serie");
+        u.setEmail("serie-" + System.nanoTime() + "@test.com");
+        u.setRol("programador");
+        u = usuarioRepository.save(u);
+
+        Programador p = new Programador();
+        p.setUsuario(u);
+        p.setEspecialidad("Backend");
+        return programadorRepository.save(p);
+    }
+}